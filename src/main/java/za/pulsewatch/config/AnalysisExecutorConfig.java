@@ -0,0 +1,133 @@
+package za.pulsewatch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import za.pulsewatch.service.ProcessingModeSelector;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+/**
+ * Executors for analysis work that runs off the request thread. Every pool is
+ * bounded in threads and queue, and reports its queue depth to the
+ * {@link ProcessingModeSelector} so a backlog counts as load.
+ *
+ * With {@code spring.threads.virtual.enabled} the executors start a virtual
+ * thread per task, like the web container, behind a semaphore that keeps the
+ * same bounds ({@link BoundedVirtualThreadExecutor}). The concurrency bound is
+ * then raised well past the core count: items spend much of their time blocked
+ * on the broker publish, and a virtual thread blocked there frees its carrier
+ * for another item.
+ *
+ * The signal path keeps its scratch arrays in ThreadLocals (SignalPipeline,
+ * SpectralHeartRateEstimator, FrequencyDomainHrvAnalyzer, AdaptivePeakDetector,
+ * UniformResampler, SignalQualityGate). A pooled platform thread reuses them
+ * across items; a virtual thread lives for one item, so each item allocates
+ * its own and they become garbage with the thread. That costs no more than
+ * allocating per call, and a shared pool would add contention on every stage,
+ * so they stay thread-local; VirtualThreadLoadBenchmarkTest reports the
+ * allocation per request in both modes.
+ */
+@Configuration
+public class AnalysisExecutorConfig {
+
+    // Default threads per core when running on virtual threads
+    static final int VIRTUAL_THREADS_PER_CORE = 16;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    /**
+     * Runs the items of a /batch request in parallel. A full queue rejects new
+     * items rather than growing; the batch reports those items as busy.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService batchExecutor(@Value("${ppg.batch.parallelism:0}") int parallelism,
+                                         @Value("${ppg.batch.queue-capacity:1000}") int queueCapacity,
+                                         ProcessingModeSelector modeSelector) {
+        ExecutorService executor = boundedExecutor("ppg-batch-", parallelism, queueCapacity, virtualThreads);
+        modeSelector.registerQueue("batch", queueDepth(executor));
+        return executor;
+    }
+
+    /**
+     * Worker pool for asynchronous /analyze/async jobs, kept apart from the batch
+     * pool so a large batch cannot starve submitted jobs or the other way round.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService analysisExecutor(@Value("${ppg.async.worker-threads:0}") int workerThreads,
+                                            @Value("${ppg.async.queue-capacity:500}") int queueCapacity,
+                                            ProcessingModeSelector modeSelector) {
+        ExecutorService executor = boundedExecutor("ppg-async-", workerThreads, queueCapacity, virtualThreads);
+        modeSelector.registerQueue("async", queueDepth(executor));
+        return executor;
+    }
+
+    /**
+     * Processes frames from WebSocket streams. Each connection drains its own
+     * bounded frame queue on this pool, one frame at a time and in order.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService streamExecutor(@Value("${ppg.stream.worker-threads:0}") int workerThreads,
+                                          @Value("${ppg.stream.queue-capacity:1000}") int queueCapacity,
+                                          ProcessingModeSelector modeSelector) {
+        ExecutorService executor = boundedExecutor("ppg-stream-", workerThreads, queueCapacity, virtualThreads);
+        modeSelector.registerQueue("stream", queueDepth(executor));
+        return executor;
+    }
+
+    /**
+     * Writes Server-Sent Events to feed subscribers. Not registered with the mode
+     * selector: a feed backlog says nothing about analysis load.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService feedExecutor(@Value("${ppg.feed.worker-threads:0}") int workerThreads,
+                                        @Value("${ppg.feed.queue-capacity:10000}") int queueCapacity) {
+        return boundedExecutor("ppg-feed-", workerThreads, queueCapacity, virtualThreads);
+    }
+
+    /**
+     * Executor of bounded concurrency over a bounded queue that rejects when
+     * full: a fixed pool of platform threads, or a virtual thread per task.
+     * {@code threads} of 0 picks the default for the thread kind.
+     */
+    public static ExecutorService boundedExecutor(String prefix, int threads, int queueCapacity,
+                                                  boolean virtual) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int size = threads > 0 ? threads : virtual ? cores * VIRTUAL_THREADS_PER_CORE : cores;
+        if (virtual) {
+            return new BoundedVirtualThreadExecutor(prefix, size, queueCapacity);
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            size, size, 60, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            namedDaemonThreads(prefix),
+            new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /** Tasks waiting to run on an executor from {@link #boundedExecutor}. */
+    private static IntSupplier queueDepth(ExecutorService executor) {
+        if (executor instanceof BoundedVirtualThreadExecutor virtual) {
+            return virtual::getQueuedTaskCount;
+        }
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) executor;
+        return () -> pool.getQueue().size();
+    }
+
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,105 @@
+package za.pulsewatch.config;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts a new virtual thread per task, with a semaphore limiting how many run
+ * at once. Virtual threads are cheap to create and meant to be discarded, so
+ * they are not pooled; the semaphore keeps the concurrency bound a pool gave.
+ *
+ * Tasks past the concurrency limit park on the semaphore, which stands in for
+ * the queue: at most {@code queueCapacity} may wait, and further tasks are
+ * rejected, as with a full {@link java.util.concurrent.ThreadPoolExecutor}.
+ */
+public class BoundedVirtualThreadExecutor extends AbstractExecutorService {
+
+    private final ExecutorService delegate;
+    private final Semaphore running;
+    private final Semaphore admitted;
+    private final int maxConcurrency;
+    private final int capacity;
+
+    public BoundedVirtualThreadExecutor(String prefix, int maxConcurrency, int queueCapacity) {
+        if (maxConcurrency < 1 || queueCapacity < 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive and queueCapacity not negative");
+        }
+        ThreadFactory factory = Thread.ofVirtual().name(prefix, 1).factory();
+        this.delegate = Executors.newThreadPerTaskExecutor(factory);
+        this.running = new Semaphore(maxConcurrency);
+        this.admitted = new Semaphore(maxConcurrency + queueCapacity);
+        this.maxConcurrency = maxConcurrency;
+        this.capacity = maxConcurrency + queueCapacity;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!admitted.tryAcquire()) {
+            throw new RejectedExecutionException("Executor is at capacity");
+        }
+        try {
+            delegate.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            admitted.release();
+            throw e;
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            running.acquire();
+            try {
+                task.run();
+            } finally {
+                running.release();
+            }
+        } catch (InterruptedException e) {
+            // Shut down while waiting for a slot; the task never ran
+            Thread.currentThread().interrupt();
+        } finally {
+            admitted.release();
+        }
+    }
+
+    /** Tasks accepted but still waiting for a slot to run. */
+    public int getQueuedTaskCount() {
+        int accepted = capacity - admitted.availablePermits();
+        int active = maxConcurrency - running.availablePermits();
+        return Math.max(0, accepted - active);
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    @Override
+    public void shutdown() {
+        delegate.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        return delegate.shutdownNow();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return delegate.isShutdown();
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return delegate.isTerminated();
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        return delegate.awaitTermination(timeout, unit);
+    }
+}
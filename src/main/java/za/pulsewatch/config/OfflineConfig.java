@@ -6,7 +6,11 @@ import org.springframework.context.annotation.Profile;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
-import za.pulsewatch.service.LowResourceSignalProcessor;
+import za.pulsewatch.service.AdaptivePeakDetector;
+import za.pulsewatch.service.Float32SignalEngine;
+import za.pulsewatch.service.SignalEngine;
+import za.pulsewatch.service.SignalPipelines;
+import za.pulsewatch.service.SpectralHeartRateEstimator;
 
 @Configuration
 @EnableCaching
@@ -18,8 +22,14 @@ public class OfflineConfig {
         return new ConcurrentMapCacheManager("ppgSignals", "healthMetrics", "userSessions");
     }
 
+    /**
+     * Offline devices are memory-bound: keep working buffers in single precision.
+     */
     @Bean
-    public LowResourceSignalProcessor lowResourceSignalProcessor() {
-        return new LowResourceSignalProcessor();
+    @Profile("offline")
+    public SignalEngine signalEngine(SignalPipelines signalPipelines,
+                                     AdaptivePeakDetector adaptivePeakDetector,
+                                     SpectralHeartRateEstimator spectralHeartRateEstimator) {
+        return new Float32SignalEngine(signalPipelines, adaptivePeakDetector, spectralHeartRateEstimator);
     }
 }
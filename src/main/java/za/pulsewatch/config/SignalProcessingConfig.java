@@ -1,12 +1,42 @@
 package za.pulsewatch.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import za.pulsewatch.service.AdaptivePeakDetector;
+import za.pulsewatch.service.DoubleSignalEngine;
+import za.pulsewatch.service.SignalEngine;
+import za.pulsewatch.service.SignalKernels;
+import za.pulsewatch.service.SignalPipelines;
+import za.pulsewatch.service.SpectralHeartRateEstimator;
 
 @Configuration
 public class SignalProcessingConfig implements WebMvcConfigurer {
 
+    /**
+     * SIMD or scalar kernels, chosen once at startup. "auto" uses the Vector API
+     * when the JVM was started with --add-modules jdk.incubator.vector.
+     */
+    @Bean
+    public SignalKernels signalKernels(@Value("${ppg.simd.mode:auto}") String mode) {
+        return SignalKernels.select(mode);
+    }
+
+    /**
+     * Double-precision reference engine; the "offline" profile swaps in float32
+     * (see OfflineConfig).
+     */
+    @Bean
+    @Profile("!offline")
+    public SignalEngine signalEngine(SignalPipelines signalPipelines,
+                                     AdaptivePeakDetector adaptivePeakDetector,
+                                     SpectralHeartRateEstimator spectralHeartRateEstimator) {
+        return new DoubleSignalEngine(signalPipelines, adaptivePeakDetector, spectralHeartRateEstimator);
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
@@ -0,0 +1,53 @@
+package za.pulsewatch.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
+import za.pulsewatch.controller.PPGStreamHandler;
+import za.pulsewatch.security.JwtHandshakeInterceptor;
+
+/**
+ * Registers the realtime streaming endpoint. The handshake passes through the
+ * normal security filter chain, so the same JWT authenticates the socket.
+ */
+@Configuration
+@EnableWebSocket
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final PPGStreamHandler streamHandler;
+    private final JwtHandshakeInterceptor handshakeInterceptor;
+
+    @Value("${ppg.stream.allowed-origins:*}")
+    private String[] allowedOrigins;
+
+    public WebSocketConfig(PPGStreamHandler streamHandler, JwtHandshakeInterceptor handshakeInterceptor) {
+        this.streamHandler = streamHandler;
+        this.handshakeInterceptor = handshakeInterceptor;
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(streamHandler, "/api/v1/ppg/stream")
+            .addInterceptors(handshakeInterceptor)
+            .setAllowedOriginPatterns(allowedOrigins);
+    }
+
+    /**
+     * Caps a single inbound frame; larger frames close the socket with 1009 (too big)
+     * before any of the payload is buffered.
+     */
+    @Bean
+    public ServletServerContainerFactoryBean webSocketContainer(
+            @Value("${ppg.stream.max-frame-bytes:65536}") int maxFrameBytes,
+            @Value("${ppg.stream.idle-timeout-ms:60000}") long idleTimeoutMs) {
+        ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
+        container.setMaxBinaryMessageBufferSize(maxFrameBytes);
+        container.setMaxTextMessageBufferSize(maxFrameBytes);
+        container.setMaxSessionIdleTimeout(idleTimeoutMs);
+        return container;
+    }
+}
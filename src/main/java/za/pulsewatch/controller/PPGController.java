@@ -1,21 +1,38 @@
 package za.pulsewatch.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import za.pulsewatch.dto.AnalysisJobResponse;
 import za.pulsewatch.dto.PPGAnalysisRequest;
 import za.pulsewatch.dto.PPGAnalysisResponse;
+import za.pulsewatch.dto.PPGBatchRequest;
 import za.pulsewatch.dto.GamificationResponse;
 import za.pulsewatch.dto.ApiResponse;
 import za.pulsewatch.model.HealthMetrics;
 import za.pulsewatch.model.Achievement;
+import za.pulsewatch.model.BinarySampleFormat;
+import za.pulsewatch.model.SampleBuffer;
+import za.pulsewatch.model.User;
+import za.pulsewatch.service.AnalysisFeedService;
+import za.pulsewatch.service.AnalysisJobService;
+import za.pulsewatch.service.BatchAnalysisService;
+import za.pulsewatch.service.BinarySampleReader;
 import za.pulsewatch.service.PPGProcessingService;
 import za.pulsewatch.service.GamificationService;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.net.URI;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/v1/ppg")
@@ -24,36 +41,136 @@ public class PPGController {
 
     private final PPGProcessingService ppgProcessingService;
     private final GamificationService gamificationService;
+    private final BatchAnalysisService batchAnalysisService;
+    private final AnalysisJobService analysisJobService;
+    private final BinarySampleReader binarySampleReader;
+    private final AnalysisFeedService analysisFeedService;
 
     @Autowired
-    public PPGController(PPGProcessingService ppgProcessingService, GamificationService gamificationService) {
+    public PPGController(PPGProcessingService ppgProcessingService, GamificationService gamificationService,
+                         BatchAnalysisService batchAnalysisService, AnalysisJobService analysisJobService,
+                         BinarySampleReader binarySampleReader, AnalysisFeedService analysisFeedService) {
         this.ppgProcessingService = ppgProcessingService;
         this.gamificationService = gamificationService;
+        this.batchAnalysisService = batchAnalysisService;
+        this.analysisJobService = analysisJobService;
+        this.binarySampleReader = binarySampleReader;
+        this.analysisFeedService = analysisFeedService;
     }
 
     @PostMapping("/analyze")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<PPGAnalysisResponse>> analyzePPGSignal(@Valid @RequestBody PPGAnalysisRequest request) {
+    public ResponseEntity<ApiResponse<PPGAnalysisResponse>> analyzePPGSignal(@Valid @RequestBody PPGAnalysisRequest request,
+                                                                             @AuthenticationPrincipal User user) {
+        PPGAnalysisResponse response = ppgProcessingService.processPPGSignal(ownedBy(request, user));
+        return ResponseEntity.ok(ApiResponse.success("PPG signal processed successfully", response));
+    }
+
+    /**
+     * Binary variant of /analyze: the body is little-endian int16 or float32
+     * samples (X-Sample-Format, default float32) and the metadata comes in headers.
+     */
+    @PostMapping(value = "/analyze", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<PPGAnalysisResponse>> analyzeBinaryPPGSignal(
+            HttpServletRequest httpRequest,
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-Device-Id", required = false) String deviceId,
+            @RequestHeader(value = "X-Session-Id", required = false) String sessionId,
+            @RequestHeader(value = "X-Sampling-Rate", required = false) Double samplingRate,
+            @RequestHeader(value = "X-Sample-Format", required = false) String sampleFormat) throws IOException {
+        PPGAnalysisRequest request = new PPGAnalysisRequest();
+        String error = readBinaryRequest(httpRequest, user, userId, deviceId, sessionId, samplingRate, sampleFormat, request);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(error, "INVALID_BINARY_REQUEST", 400));
+        }
         PPGAnalysisResponse response = ppgProcessingService.processPPGSignal(request);
         return ResponseEntity.ok(ApiResponse.success("PPG signal processed successfully", response));
     }
 
-    @PostMapping("/realtime")
+    @PostMapping(value = "/realtime", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<PPGAnalysisResponse>> analyzeRealtimePPG(@Valid @RequestBody PPGAnalysisRequest request) {
+    public ResponseEntity<ApiResponse<PPGAnalysisResponse>> analyzeBinaryRealtimePPG(
+            HttpServletRequest httpRequest,
+            @AuthenticationPrincipal User user,
+            @RequestHeader(value = "X-User-Id", required = false) String userId,
+            @RequestHeader(value = "X-Device-Id", required = false) String deviceId,
+            @RequestHeader(value = "X-Session-Id", required = false) String sessionId,
+            @RequestHeader(value = "X-Sampling-Rate", required = false) Double samplingRate,
+            @RequestHeader(value = "X-Sample-Format", required = false) String sampleFormat) throws IOException {
+        PPGAnalysisRequest request = new PPGAnalysisRequest();
+        String error = readBinaryRequest(httpRequest, user, userId, deviceId, sessionId, samplingRate, sampleFormat, request);
+        if (error != null) {
+            return ResponseEntity.badRequest().body(ApiResponse.error(error, "INVALID_BINARY_REQUEST", 400));
+        }
         PPGAnalysisResponse response = ppgProcessingService.processRealtimePPG(request);
         return ResponseEntity.ok(ApiResponse.success("Real-time PPG signal processed successfully", response));
     }
 
-    @PostMapping("/batch")
+    @PostMapping("/analyze/async")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<ApiResponse<List<PPGAnalysisResponse>>> batchAnalyzePPG(@Valid @RequestBody List<PPGAnalysisRequest> requests) {
-        List<PPGAnalysisResponse> responses = new ArrayList<>();
-        
-        for (PPGAnalysisRequest request : requests) {
-            PPGAnalysisResponse response = ppgProcessingService.processPPGSignal(request);
-            responses.add(response);
+    public ResponseEntity<ApiResponse<AnalysisJobResponse>> submitPPGAnalysis(@Valid @RequestBody PPGAnalysisRequest request,
+                                                                              @AuthenticationPrincipal User user) {
+        try {
+            AnalysisJobResponse job = analysisJobService.submit(ownedBy(request, user), String.valueOf(user.getId()));
+            return ResponseEntity.accepted()
+                .location(URI.create("/api/v1/ppg/jobs/" + job.getJobId()))
+                .body(ApiResponse.success("PPG analysis job accepted", job));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503)
+                .body(ApiResponse.error("Analysis queue is full, retry later", "QUEUE_FULL", 503));
         }
+    }
+
+    /**
+     * Job status; with {@code waitMs} the request is held (without a servlet
+     * thread) until the job finishes or the wait elapses. Other users' jobs
+     * answer 404, as if they did not exist.
+     */
+    @GetMapping("/jobs/{jobId}")
+    @PreAuthorize("hasRole('USER')")
+    public CompletableFuture<ResponseEntity<ApiResponse<AnalysisJobResponse>>> getAnalysisJob(
+            @PathVariable String jobId, @RequestParam(defaultValue = "0") long waitMs,
+            @AuthenticationPrincipal User user) {
+        return analysisJobService.awaitStatus(jobId, String.valueOf(user.getId()), waitMs).thenApply(job -> job == null
+            ? ResponseEntity.status(404).body(ApiResponse.error("Unknown or expired job", "JOB_NOT_FOUND", 404))
+            : ResponseEntity.ok(ApiResponse.success("PPG analysis job status retrieved", job)));
+    }
+
+    /**
+     * Server-Sent Events stream of the caller's analysis results, one
+     * {@code analysis} event per finished analysis, plus heartbeat comments.
+     */
+    @GetMapping("/feed")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> subscribeToFeed(@AuthenticationPrincipal User user) {
+        try {
+            SseEmitter emitter = analysisFeedService.subscribe(String.valueOf(user.getId()));
+            return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503)
+                .body(ApiResponse.error(e.getMessage(), "FEED_FULL", 503));
+        }
+    }
+
+    @PostMapping("/realtime")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<PPGAnalysisResponse>> analyzeRealtimePPG(@Valid @RequestBody PPGAnalysisRequest request,
+                                                                              @AuthenticationPrincipal User user) {
+        PPGAnalysisResponse response = ppgProcessingService.processRealtimePPG(ownedBy(request, user));
+        return ResponseEntity.ok(ApiResponse.success("Real-time PPG signal processed successfully", response));
+    }
+
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<ApiResponse<List<PPGAnalysisResponse>>> batchAnalyzePPG(@Valid @RequestBody PPGBatchRequest requests,
+                                                                                 @AuthenticationPrincipal User user) {
+        // ppg.batch.max-size is enforced while the body is parsed
+        requests.forEach(request -> ownedBy(request, user));
+
+        // Items run in parallel; responses keep the request order
+        List<PPGAnalysisResponse> responses = batchAnalysisService.analyze(requests);
         
         return ResponseEntity.ok(ApiResponse.success("Batch PPG signals processed successfully", responses));
     }
@@ -127,9 +244,49 @@ public class PPGController {
         return ResponseEntity.ok(ApiResponse.success("Demo PPG analysis completed successfully", response));
     }
 
-    private List<Double> generateDemoPPGSignal(double samplingRate, double heartRateBPM) {
-        List<Double> signal = new ArrayList<>();
+    /**
+     * Results are pushed to the authenticated user's feed; the request's own
+     * userId is left as sent.
+     */
+    private static PPGAnalysisRequest ownedBy(PPGAnalysisRequest request, User user) {
+        request.setOwnerId(String.valueOf(user.getId()));
+        return request;
+    }
+
+    /**
+     * Fills {@code request} from the binary body and metadata headers; returns the
+     * validation error, or null.
+     */
+    private String readBinaryRequest(HttpServletRequest httpRequest, User user, String userId, String deviceId,
+                                     String sessionId, Double samplingRate, String sampleFormat,
+                                     PPGAnalysisRequest request) throws IOException {
+        if (userId == null || deviceId == null) {
+            return "X-User-Id and X-Device-Id headers are required";
+        }
+        if (samplingRate == null || !(samplingRate > 0 && samplingRate <= PPGAnalysisRequest.MAX_SAMPLING_RATE)) {
+            return "X-Sampling-Rate header must be positive and at most "
+                + (int) PPGAnalysisRequest.MAX_SAMPLING_RATE + " Hz";
+        }
+        try {
+            BinarySampleFormat format = BinarySampleFormat.of(sampleFormat);
+            request.setRawData(binarySampleReader.read(
+                httpRequest.getInputStream(), httpRequest.getContentLengthLong(), format));
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+        request.setUserId(userId);
+        ownedBy(request, user);
+        request.setDeviceId(deviceId);
+        request.setSamplingRate(samplingRate);
+        if (sessionId != null) {
+            request.setSessionId(sessionId);
+        }
+        return null;
+    }
+
+    private SampleBuffer generateDemoPPGSignal(double samplingRate, double heartRateBPM) {
         int samples = (int) (samplingRate * 10); // 10 seconds of data
+        double[] signal = new double[samples];
         double heartRateHz = heartRateBPM / 60.0;
         
         for (int i = 0; i < samples; i++) {
@@ -139,9 +296,9 @@ public class PPGController {
             double respiration = 0.05 * Math.sin(2 * Math.PI * 0.2 * t);
             double noise = 0.02 * (Math.random() - 0.5);
             double value = baseline + cardiac + respiration + noise;
-            signal.add(Math.max(0, value));
+            signal[i] = Math.max(0, value);
         }
         
-        return signal;
+        return SampleBuffer.wrap(signal);
     }
 }
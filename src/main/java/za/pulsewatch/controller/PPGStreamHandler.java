@@ -0,0 +1,283 @@
+package za.pulsewatch.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.AbstractWebSocketHandler;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import org.springframework.web.util.UriComponentsBuilder;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+import za.pulsewatch.model.BinarySampleFormat;
+import za.pulsewatch.model.SampleBuffer;
+import za.pulsewatch.security.JwtHandshakeInterceptor;
+import za.pulsewatch.service.PPGProcessingService;
+import za.pulsewatch.service.StreamingSignalProcessor;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Realtime PPG over one WebSocket per recording session, at
+ * {@code /api/v1/ppg/stream?deviceId=..&samplingRate=..[&format=int16|float32][&sessionId=..]}.
+ *
+ * Each inbound frame is a chunk of samples: a binary frame in the given format,
+ * or a text frame holding a JSON number array. Every chunk is analysed as a
+ * {@code /realtime} request and the {@link PPGAnalysisResponse} is sent back as
+ * a text frame, in order.
+ *
+ * Both directions are bounded. Inbound chunks wait in a fixed-size queue per
+ * connection; when it is full {@code ppg.stream.receive-overflow} either closes
+ * the socket with 1013 (try again later) or drops a chunk. Outbound responses
+ * are buffered up to {@code ppg.stream.send-buffer-bytes}; past that the oldest
+ * unsent responses are dropped or the socket is closed, per
+ * {@code ppg.stream.send-overflow}. A send that stalls beyond
+ * {@code ppg.stream.send-time-limit-ms} always closes the socket, whatever
+ * {@code ppg.stream.send-overflow} says.
+ */
+@Component
+public class PPGStreamHandler extends AbstractWebSocketHandler {
+
+    public enum ReceiveOverflow {
+        /** Close the socket with 1013 so the client backs off and reconnects. */
+        CLOSE,
+        /** Discard the oldest queued chunk; the latest data wins. */
+        DROP_OLDEST,
+        /** Discard the incoming chunk. */
+        DROP_NEWEST
+    }
+
+    private final PPGProcessingService ppgProcessingService;
+    private final StreamingSignalProcessor streamingSignalProcessor;
+    private final ExecutorService streamExecutor;
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Connection> connections = new ConcurrentHashMap<>();
+
+    @Value("${ppg.stream.receive-queue-frames:32}")
+    private int receiveQueueFrames;
+
+    @Value("${ppg.stream.receive-overflow:CLOSE}")
+    private ReceiveOverflow receiveOverflow;
+
+    @Value("${ppg.stream.send-time-limit-ms:10000}")
+    private int sendTimeLimitMs;
+
+    @Value("${ppg.stream.send-buffer-bytes:524288}")
+    private int sendBufferBytes;
+
+    @Value("${ppg.stream.send-overflow:DROP}")
+    private OverflowStrategy sendOverflow;
+
+    public PPGStreamHandler(PPGProcessingService ppgProcessingService,
+                            StreamingSignalProcessor streamingSignalProcessor,
+                            @Qualifier("streamExecutor") ExecutorService streamExecutor,
+                            ObjectMapper objectMapper) {
+        this.ppgProcessingService = ppgProcessingService;
+        this.streamingSignalProcessor = streamingSignalProcessor;
+        this.streamExecutor = streamExecutor;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Per-socket state. Chunks are drained by at most one task at a time, so a
+     * connection's chunks are analysed and answered in arrival order.
+     */
+    private static final class Connection {
+        final WebSocketSession session;
+        final String userId;
+        final String deviceId;
+        final String sessionId;
+        final double samplingRate;
+        final BinarySampleFormat format;
+        final BlockingQueue<SampleBuffer> frames;
+        final AtomicBoolean draining = new AtomicBoolean();
+
+        Connection(WebSocketSession session, String userId, String deviceId, String sessionId,
+                   double samplingRate, BinarySampleFormat format, int queueFrames) {
+            this.session = session;
+            this.userId = userId;
+            this.deviceId = deviceId;
+            this.sessionId = sessionId;
+            this.samplingRate = samplingRate;
+            this.format = format;
+            this.frames = new ArrayBlockingQueue<>(queueFrames);
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        MultiValueMap<String, String> params = UriComponentsBuilder.fromUri(session.getUri()).build().getQueryParams();
+        String userId = (String) session.getAttributes().get(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE);
+        String deviceId = params.getFirst("deviceId");
+        String sessionId = params.getFirst("sessionId");
+
+        double samplingRate;
+        BinarySampleFormat format;
+        try {
+            samplingRate = Double.parseDouble(params.getFirst("samplingRate"));
+            format = BinarySampleFormat.of(params.getFirst("format"));
+        } catch (NullPointerException | IllegalArgumentException e) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason("samplingRate and format query parameters are invalid"));
+            return;
+        }
+        if (deviceId == null || !(samplingRate > 0 && samplingRate <= PPGAnalysisRequest.MAX_SAMPLING_RATE)) {
+            session.close(CloseStatus.POLICY_VIOLATION.withReason(
+                "deviceId and a samplingRate between 0 and " + (int) PPGAnalysisRequest.MAX_SAMPLING_RATE + " Hz are required"));
+            return;
+        }
+
+        // Responses go through a bounded, thread-safe send buffer
+        WebSocketSession outbound = new ConcurrentWebSocketSessionDecorator(
+            session, sendTimeLimitMs, sendBufferBytes, sendOverflow);
+        connections.put(session.getId(), new Connection(outbound, userId, deviceId,
+            sessionId != null ? sessionId : UUID.randomUUID().toString(), samplingRate, format, receiveQueueFrames));
+    }
+
+    @Override
+    protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) throws Exception {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        SampleBuffer frame;
+        try {
+            frame = connection.format.decode(message.getPayload());
+        } catch (IllegalArgumentException e) {
+            session.close(CloseStatus.BAD_DATA.withReason(e.getMessage()));
+            return;
+        }
+        enqueue(connection, frame);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        Connection connection = connections.get(session.getId());
+        if (connection == null) {
+            return;
+        }
+        SampleBuffer frame;
+        try {
+            frame = objectMapper.readValue(message.getPayload(), SampleBuffer.class);
+        } catch (JsonProcessingException e) {
+            session.close(CloseStatus.BAD_DATA.withReason("Text frames must be a JSON array of samples"));
+            return;
+        }
+        enqueue(connection, frame);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) throws Exception {
+        if (session.isOpen()) {
+            session.close(CloseStatus.SERVER_ERROR);
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        Connection connection = connections.remove(session.getId());
+        if (connection != null) {
+            connection.frames.clear();
+            streamingSignalProcessor.endSession(connection.userId, connection.sessionId);
+        }
+    }
+
+    private void enqueue(Connection connection, SampleBuffer frame) throws IOException {
+        if (frame.isEmpty()) {
+            return;
+        }
+        // Inbound frames of one socket arrive one at a time, so only the drain competes for the queue
+        if (!connection.frames.offer(frame)) {
+            switch (receiveOverflow) {
+                case CLOSE -> {
+                    connection.session.close(CloseStatus.SERVICE_OVERLOAD.withReason("Receive queue full"));
+                    return;
+                }
+                case DROP_OLDEST -> {
+                    connection.frames.poll();
+                    connection.frames.offer(frame);
+                }
+                case DROP_NEWEST -> {
+                    return;
+                }
+            }
+        }
+        scheduleDrain(connection);
+    }
+
+    private void scheduleDrain(Connection connection) throws IOException {
+        if (!connection.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            streamExecutor.execute(() -> drain(connection));
+        } catch (RejectedExecutionException e) {
+            connection.draining.set(false);
+            connection.session.close(CloseStatus.SERVICE_OVERLOAD.withReason("Server busy"));
+        }
+    }
+
+    private void drain(Connection connection) {
+        try {
+            SampleBuffer frame;
+            while (connection.session.isOpen() && (frame = connection.frames.poll()) != null) {
+                analyze(connection, frame);
+            }
+        } finally {
+            connection.draining.set(false);
+        }
+
+        // A frame queued between the last poll and releasing the flag would otherwise wait for the next one
+        if (!connection.frames.isEmpty() && connection.session.isOpen()) {
+            try {
+                scheduleDrain(connection);
+            } catch (IOException e) {
+                // Close failed; the container reports the broken socket
+            }
+        }
+    }
+
+    private void analyze(Connection connection, SampleBuffer frame) {
+        PPGAnalysisRequest request = new PPGAnalysisRequest(
+            connection.userId, connection.deviceId, frame, connection.samplingRate);
+        request.setOwnerId(connection.userId);
+        request.setSessionId(connection.sessionId);
+
+        PPGAnalysisResponse response;
+        try {
+            response = ppgProcessingService.processRealtimePPG(request);
+        } catch (RuntimeException e) {
+            response = ppgProcessingService.createFailedResponse(request, "ERROR", e.getMessage());
+        }
+
+        try {
+            // Over the buffer limit this drops old responses or fails, per ppg.stream.send-overflow; over the time limit it fails
+            connection.session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        } catch (IOException | RuntimeException e) {
+            try {
+                connection.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+            } catch (IOException ignored) {
+                // Already closed
+            }
+        }
+    }
+}
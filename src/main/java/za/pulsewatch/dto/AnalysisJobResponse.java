@@ -0,0 +1,62 @@
+package za.pulsewatch.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AnalysisJobResponse {
+    private String jobId;
+    private String status; // PENDING, RUNNING, COMPLETED or FAILED
+    private LocalDateTime submittedAt;
+    private LocalDateTime completedAt;
+    private PPGAnalysisResponse result;
+
+    public AnalysisJobResponse() {}
+
+    public AnalysisJobResponse(String jobId, String status, LocalDateTime submittedAt) {
+        this.jobId = jobId;
+        this.status = status;
+        this.submittedAt = submittedAt;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public void setJobId(String jobId) {
+        this.jobId = jobId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public LocalDateTime getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(LocalDateTime submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public PPGAnalysisResponse getResult() {
+        return result;
+    }
+
+    public void setResult(PPGAnalysisResponse result) {
+        this.result = result;
+    }
+}
@@ -1,32 +1,53 @@
 package za.pulsewatch.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import jakarta.validation.constraints.DecimalMax;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
-import java.util.List;
-import java.util.UUID;
+import za.pulsewatch.model.EncodedSampleDeserializer;
+import za.pulsewatch.model.SampleBuffer;
 
 public class PPGAnalysisRequest {
     
+    // Above any camera or PPG sensor; the same limit as @DecimalMax on samplingRate
+    public static final double MAX_SAMPLING_RATE = 1000.0;
+    
     @NotNull(message = "User ID is required")
     private String userId;
     
+    // Authenticated user that submitted the request, whose feed gets the result; set by the server, never from the body
+    @JsonIgnore
+    private String ownerId;
+    
     @NotNull(message = "Device ID is required")
     private String deviceId;
     
     @NotNull(message = "Raw data is required")
-    private List<Double> rawData;
+    private SampleBuffer rawData;
+    
+    // Whether rawData came from encodedData, so a later rawData cannot replace it
+    @JsonIgnore
+    private boolean encoded;
     
     @Positive(message = "Sampling rate must be positive")
+    @DecimalMax(value = "1000.0", message = "Sampling rate must be at most 1000 Hz")
     private double samplingRate;
     
+    // Only a client-supplied id continues a realtime session's streaming state
     private String sessionId;
     
+    // Optional capture time of each sample in ms (any origin); same length as rawData
+    private SampleBuffer timestamps;
+    
+    // Optional alternative to timestamps: ms between consecutive frames (rawData.size() - 1 entries)
+    private SampleBuffer frameDeltas;
+    
     public PPGAnalysisRequest() {
-        this.sessionId = UUID.randomUUID().toString();
     }
     
-    public PPGAnalysisRequest(String userId, String deviceId, List<Double> rawData, double samplingRate) {
-        this();
+    public PPGAnalysisRequest(String userId, String deviceId, SampleBuffer rawData, double samplingRate) {
         this.userId = userId;
         this.deviceId = deviceId;
         this.rawData = rawData;
@@ -37,15 +58,44 @@ public class PPGAnalysisRequest {
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
     
+    public String getOwnerId() { return ownerId; }
+    public void setOwnerId(String ownerId) { this.ownerId = ownerId; }
+    
     public String getDeviceId() { return deviceId; }
     public void setDeviceId(String deviceId) { this.deviceId = deviceId; }
     
-    public List<Double> getRawData() { return rawData; }
-    public void setRawData(List<Double> rawData) { this.rawData = rawData; }
+    public SampleBuffer getRawData() { return rawData; }
+    public void setRawData(SampleBuffer rawData) {
+        if (encoded) {
+            throw new IllegalArgumentException("Send either rawData or encodedData, not both");
+        }
+        this.rawData = rawData;
+    }
+    
+    /**
+     * Alternative to rawData: base64 of the samples in DeltaVarintCodec format.
+     * Decoded while parsing, so it fills rawData and is never kept itself.
+     * Either field may come first; the second one is rejected.
+     */
+    @JsonProperty("encodedData")
+    @JsonDeserialize(using = EncodedSampleDeserializer.class)
+    public void setEncodedData(SampleBuffer samples) {
+        if (rawData != null) {
+            throw new IllegalArgumentException("Send either rawData or encodedData, not both");
+        }
+        this.rawData = samples;
+        this.encoded = true;
+    }
     
     public double getSamplingRate() { return samplingRate; }
     public void setSamplingRate(double samplingRate) { this.samplingRate = samplingRate; }
     
     public String getSessionId() { return sessionId; }
     public void setSessionId(String sessionId) { this.sessionId = sessionId; }
+    
+    public SampleBuffer getTimestamps() { return timestamps; }
+    public void setTimestamps(SampleBuffer timestamps) { this.timestamps = timestamps; }
+    
+    public SampleBuffer getFrameDeltas() { return frameDeltas; }
+    public void setFrameDeltas(SampleBuffer frameDeltas) { this.frameDeltas = frameDeltas; }
 }
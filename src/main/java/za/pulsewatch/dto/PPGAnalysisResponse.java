@@ -1,6 +1,7 @@
 package za.pulsewatch.dto;
 
 import za.pulsewatch.model.HealthMetrics;
+import za.pulsewatch.model.QualityGateResult;
 
 import java.time.LocalDateTime;
 
@@ -14,6 +15,11 @@ public class PPGAnalysisResponse {
     private LocalDateTime timestamp;
     private long processingTimeMs;
     private GamificationResponse gamificationResponse;
+    // Which quality gate fired, if any; null for realtime chunks
+    private QualityGateResult qualityGate;
+    // "full" or "low-resource", and why; null for realtime chunks
+    private String processingMode;
+    private String modeReason;
 
     public PPGAnalysisResponse() {
         this.timestamp = LocalDateTime.now();
@@ -63,4 +69,28 @@ public class PPGAnalysisResponse {
     public void setGamificationResponse(GamificationResponse gamificationResponse) {
         this.gamificationResponse = gamificationResponse;
     }
+
+    public QualityGateResult getQualityGate() {
+        return qualityGate;
+    }
+
+    public void setQualityGate(QualityGateResult qualityGate) {
+        this.qualityGate = qualityGate;
+    }
+
+    public String getProcessingMode() {
+        return processingMode;
+    }
+
+    public void setProcessingMode(String processingMode) {
+        this.processingMode = processingMode;
+    }
+
+    public String getModeReason() {
+        return modeReason;
+    }
+
+    public void setModeReason(String modeReason) {
+        this.modeReason = modeReason;
+    }
 }
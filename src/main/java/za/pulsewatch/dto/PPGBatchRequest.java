@@ -0,0 +1,13 @@
+package za.pulsewatch.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
+import java.util.ArrayList;
+
+/**
+ * Body of /batch: a plain JSON array of analysis requests, parsed by
+ * {@link PPGBatchRequestDeserializer} so that the size limit applies while reading.
+ */
+@JsonDeserialize(using = PPGBatchRequestDeserializer.class)
+public class PPGBatchRequest extends ArrayList<PPGAnalysisRequest> {
+}
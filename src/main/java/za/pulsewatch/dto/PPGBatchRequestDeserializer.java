@@ -0,0 +1,41 @@
+package za.pulsewatch.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import za.pulsewatch.exception.BatchLimitExceededException;
+
+import java.io.IOException;
+
+/**
+ * Reads a batch one recording at a time and stops at the first recording past
+ * {@code ppg.batch.max-size}, so an oversized batch is rejected before the rest
+ * of it is parsed. Created through the bean factory, which injects the limit.
+ */
+public class PPGBatchRequestDeserializer extends StdDeserializer<PPGBatchRequest> {
+
+    @Value("${ppg.batch.max-size:500}")
+    private int maxBatchSize = 500;
+
+    public PPGBatchRequestDeserializer() {
+        super(PPGBatchRequest.class);
+    }
+
+    @Override
+    public PPGBatchRequest deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (PPGBatchRequest) context.handleUnexpectedToken(PPGBatchRequest.class, parser);
+        }
+
+        PPGBatchRequest batch = new PPGBatchRequest();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (batch.size() == maxBatchSize) {
+                throw new BatchLimitExceededException(parser, maxBatchSize);
+            }
+            batch.add(context.readValue(parser, PPGAnalysisRequest.class));
+        }
+        return batch;
+    }
+}
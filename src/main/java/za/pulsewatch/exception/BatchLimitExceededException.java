@@ -0,0 +1,22 @@
+package za.pulsewatch.exception;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import za.pulsewatch.dto.PPGBatchRequest;
+
+/**
+ * Thrown while parsing a batch that holds more recordings than the configured maximum.
+ */
+public class BatchLimitExceededException extends MismatchedInputException {
+
+    private final int maxBatchSize;
+
+    public BatchLimitExceededException(JsonParser parser, int maxBatchSize) {
+        super(parser, "Batch exceeds the maximum of " + maxBatchSize + " recordings", PPGBatchRequest.class);
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+}
@@ -2,8 +2,10 @@ package za.pulsewatch.exception;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.springframework.web.servlet.NoHandlerFoundException;
@@ -12,6 +14,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @RestControllerAdvice
 public class GlobalExceptionHandler {
@@ -29,6 +32,57 @@ public class GlobalExceptionHandler {
         return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
     }
 
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<Map<String, Object>> handleHttpMessageNotReadableException(
+            HttpMessageNotReadableException ex) {
+        if (ex.getMostSpecificCause() instanceof SampleLimitExceededException limit) {
+            return handleSampleLimitExceededException(limit);
+        }
+        if (ex.getMostSpecificCause() instanceof BatchLimitExceededException limit) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("error", "BATCH_TOO_LARGE");
+            response.put("message", "Batch exceeds the maximum of " + limit.getMaxBatchSize() + " recordings");
+            response.put("status", 400);
+            response.put("timestamp", LocalDateTime.now());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("timestamp", LocalDateTime.now());
+        response.put("error", "INVALID_REQUEST_BODY");
+        response.put("message", "The request body could not be parsed");
+        response.put("details", ex.getMostSpecificCause().getMessage());
+        response.put("status", 400);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<Map<String, Object>> handleMethodArgumentNotValidException(
+            MethodArgumentNotValidException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("timestamp", LocalDateTime.now());
+        response.put("error", "VALIDATION_FAILED");
+        response.put("message", "The request body failed validation");
+        response.put("details", ex.getBindingResult().getFieldErrors().stream()
+            .map(error -> error.getField() + ": " + error.getDefaultMessage())
+            .collect(Collectors.joining("; ")));
+        response.put("status", 400);
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+    }
+
+    @ExceptionHandler(SampleLimitExceededException.class)
+    public ResponseEntity<Map<String, Object>> handleSampleLimitExceededException(SampleLimitExceededException ex) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", false);
+        response.put("error", "PAYLOAD_TOO_LARGE");
+        response.put("message", "Recordings are limited to " + ex.getMaxSamples() + " samples");
+        response.put("status", 413);
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(response);
+    }
+
     @ExceptionHandler(BadCredentialsException.class)
     public ResponseEntity<Map<String, Object>> handleBadCredentialsException(BadCredentialsException ex) {
         Map<String, Object> response = new HashMap<>();
@@ -0,0 +1,27 @@
+package za.pulsewatch.exception;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import za.pulsewatch.model.SampleBuffer;
+
+/**
+ * Thrown while parsing a sample array that is longer than the configured maximum,
+ * from JSON or from a binary upload (where there is no parser).
+ */
+public class SampleLimitExceededException extends MismatchedInputException {
+
+    private final int maxSamples;
+
+    public SampleLimitExceededException(JsonParser parser, int maxSamples) {
+        super(parser, "Sample array exceeds the maximum of " + maxSamples + " samples", SampleBuffer.class);
+        this.maxSamples = maxSamples;
+    }
+
+    public SampleLimitExceededException(int maxSamples) {
+        this(null, maxSamples);
+    }
+
+    public int getMaxSamples() {
+        return maxSamples;
+    }
+}
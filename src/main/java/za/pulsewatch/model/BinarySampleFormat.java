@@ -0,0 +1,83 @@
+package za.pulsewatch.model;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.ShortBuffer;
+
+/**
+ * Sample encodings accepted by the application/octet-stream upload endpoints.
+ * Samples are little-endian, back to back, with no header.
+ */
+public enum BinarySampleFormat {
+
+    /** Signed 16-bit integers, e.g. raw sensor counts. */
+    INT16(Short.BYTES) {
+        @Override
+        void decode(ByteBuffer bytes, double[] output, int count) {
+            ShortBuffer view = bytes.asShortBuffer();
+            for (int i = 0; i < count; i++) {
+                output[i] = view.get(i);
+            }
+        }
+    },
+
+    /** IEEE 754 single precision. */
+    FLOAT32(Float.BYTES) {
+        @Override
+        void decode(ByteBuffer bytes, double[] output, int count) {
+            FloatBuffer view = bytes.asFloatBuffer();
+            for (int i = 0; i < count; i++) {
+                output[i] = view.get(i);
+            }
+        }
+    };
+
+    private final int bytesPerSample;
+
+    BinarySampleFormat(int bytesPerSample) {
+        this.bytesPerSample = bytesPerSample;
+    }
+
+    public int bytesPerSample() {
+        return bytesPerSample;
+    }
+
+    /**
+     * Decodes the first {@code length} bytes of {@code body} through a typed
+     * little-endian view, straight into a new sample buffer.
+     */
+    public SampleBuffer decode(byte[] body, int length) {
+        return decode(ByteBuffer.wrap(body, 0, length));
+    }
+
+    /**
+     * Decodes the remaining bytes of {@code bytes} (e.g. a WebSocket frame's
+     * payload) without moving its position.
+     */
+    public SampleBuffer decode(ByteBuffer bytes) {
+        int length = bytes.remaining();
+        if (length % bytesPerSample != 0) {
+            throw new IllegalArgumentException(
+                "Body of " + length + " bytes is not a whole number of " + name().toLowerCase() + " samples");
+        }
+        int count = length / bytesPerSample;
+        double[] samples = new double[count];
+        decode(bytes.slice().order(ByteOrder.LITTLE_ENDIAN), samples, count);
+        return SampleBuffer.wrap(samples);
+    }
+
+    abstract void decode(ByteBuffer bytes, double[] output, int count);
+
+    /** Case-insensitive lookup; null means the default, float32. */
+    public static BinarySampleFormat of(String name) {
+        if (name == null || name.isBlank()) {
+            return FLOAT32;
+        }
+        try {
+            return valueOf(name.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sample format: " + name);
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package za.pulsewatch.model;
+
+import za.pulsewatch.exception.SampleLimitExceededException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Compact sample encoding for slowly varying signals such as camera PPG, used
+ * both in requests ({@code encodedData}) and for archiving.
+ *
+ * Layout, version 1:
+ * <pre>
+ *   byte    version (1)
+ *   varint  sample count
+ *   varint  decimal places d (0-9); samples are quantized to round(x * 10^d)
+ *   varint* zig-zag delta of each quantized sample from the previous one (from 0 for the first)
+ * </pre>
+ * Varints are little-endian base-128 with the high bit as continuation. Integer
+ * pixel averages that move by a few counts per frame take one byte per sample.
+ */
+public final class DeltaVarintCodec {
+
+    public static final int VERSION = 1;
+    public static final int MAX_DECIMALS = 9;
+
+    private DeltaVarintCodec() {}
+
+    public static byte[] encode(SampleBuffer samples, int decimals) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(samples.size() + 16);
+        try {
+            encode(samples.array(), samples.size(), decimals, out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+
+    public static void encode(double[] samples, int length, int decimals, OutputStream out) throws IOException {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("Decimal places must be between 0 and " + MAX_DECIMALS);
+        }
+        double factor = Math.pow(10, decimals);
+
+        out.write(VERSION);
+        writeVarint(out, length);
+        writeVarint(out, decimals);
+        long previous = 0;
+        for (int i = 0; i < length; i++) {
+            double scaled = samples[i] * factor;
+            if (!Double.isFinite(scaled) || Math.abs(scaled) >= 0x1p62) {
+                throw new IllegalArgumentException("Sample " + i + " cannot be quantized: " + samples[i]);
+            }
+            long quantized = Math.round(scaled);
+            long delta = quantized - previous;
+            writeVarint(out, (delta << 1) ^ (delta >> 63));
+            previous = quantized;
+        }
+    }
+
+    public static SampleBuffer decode(byte[] encoded, int maxSamples) throws IOException {
+        Decoder decoder = new Decoder(maxSamples);
+        decoder.write(encoded, 0, encoded.length);
+        return decoder.finish();
+    }
+
+    private static void writeVarint(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    /**
+     * Push decoder: bytes are written in as they arrive (e.g. straight out of a
+     * base64 stream) and decoded into the sample array, which is allocated once
+     * from the declared count. The count is checked against the limit before
+     * that allocation.
+     */
+    public static final class Decoder extends OutputStream {
+
+        private static final int VERSION_BYTE = 0;
+        private static final int COUNT = 1;
+        private static final int DECIMALS = 2;
+        private static final int SAMPLES = 3;
+        private static final int DONE = 4;
+
+        private final int maxSamples;
+
+        private int stage = VERSION_BYTE;
+        private long varint;
+        private int shift;
+
+        private double[] values;
+        private int length;
+        private double divisor;
+        private long previous;
+
+        public Decoder(int maxSamples) {
+            this.maxSamples = maxSamples;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (stage == VERSION_BYTE) {
+                if ((b & 0xFF) != VERSION) {
+                    throw new IOException("Unsupported sample encoding version " + (b & 0xFF));
+                }
+                stage = COUNT;
+                return;
+            }
+            if (stage == DONE) {
+                throw new IOException("Trailing bytes after the last sample");
+            }
+
+            varint |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) != 0) {
+                shift += 7;
+                if (shift >= 64) {
+                    throw new IOException("Malformed varint");
+                }
+                return;
+            }
+            long value = varint;
+            varint = 0;
+            shift = 0;
+
+            switch (stage) {
+                case COUNT -> {
+                    if (value < 0 || value > maxSamples) {
+                        throw new SampleLimitExceededException(maxSamples);
+                    }
+                    values = new double[(int) value];
+                    stage = DECIMALS;
+                }
+                case DECIMALS -> {
+                    if (value > MAX_DECIMALS) {
+                        throw new IOException("Unsupported decimal places " + value);
+                    }
+                    divisor = Math.pow(10, value);
+                    stage = values.length == 0 ? DONE : SAMPLES;
+                }
+                default -> {
+                    previous += (value >>> 1) ^ -(value & 1);
+                    values[length++] = previous / divisor;
+                    if (length == values.length) {
+                        stage = DONE;
+                    }
+                }
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int count) throws IOException {
+            for (int i = offset; i < offset + count; i++) {
+                write(bytes[i]);
+            }
+        }
+
+        /** The decoded samples; fails if the input stopped early. */
+        public SampleBuffer finish() throws IOException {
+            if (stage != DONE) {
+                throw new IOException("Encoded samples are truncated");
+            }
+            return SampleBuffer.wrap(values);
+        }
+    }
+}
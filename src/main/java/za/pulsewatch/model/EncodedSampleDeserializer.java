@@ -0,0 +1,44 @@
+package za.pulsewatch.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.io.IOException;
+
+/**
+ * Reads a base64 string of {@link DeltaVarintCodec} bytes into a
+ * {@link SampleBuffer}. The base64 text is decoded in chunks straight into the
+ * codec's push decoder, so neither the encoded bytes nor a boxed list is ever
+ * held in full.
+ */
+public class EncodedSampleDeserializer extends StdDeserializer<SampleBuffer> {
+
+    @Value("${ppg.samples.max-count:200000}")
+    private int maxSamples = SampleBufferDeserializer.DEFAULT_MAX_SAMPLES;
+
+    public EncodedSampleDeserializer() {
+        super(SampleBuffer.class);
+    }
+
+    @Override
+    public SampleBuffer deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            return (SampleBuffer) context.handleUnexpectedToken(SampleBuffer.class, parser);
+        }
+
+        DeltaVarintCodec.Decoder decoder = new DeltaVarintCodec.Decoder(maxSamples);
+        try {
+            parser.readBinaryValue(context.getBase64Variant(), decoder);
+            return decoder.finish();
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            throw MismatchedInputException.from(parser, SampleBuffer.class, e.getMessage());
+        }
+    }
+}
@@ -15,6 +15,11 @@ public class HealthMetrics {
     private Double heartRate; // BPM
     private Double spo2; // Blood oxygen saturation (%)
     private Double hrv; // Heart rate variability (ms)
+    private Double rmssd; // Root mean square of successive RR differences (ms)
+    private Double pnn50; // Successive RR differences over 50 ms (%)
+    private Double lfPower; // RR power in 0.04-0.15 Hz (ms²)
+    private Double hfPower; // RR power in 0.15-0.4 Hz (ms²)
+    private Double lfHfRatio; // Sympathovagal balance
     private Double stressLevel; // 0-100 scale
     private Boolean irregularHeartbeat; // true if arrhythmia detected
     private String signalQuality; // "excellent", "good", "fair", "poor"
@@ -0,0 +1,21 @@
+package za.pulsewatch.model;
+
+/**
+ * Frequency-domain HRV of one recording: power of the RR series in the low
+ * (0.04-0.15 Hz) and high (0.15-0.4 Hz) frequency bands, in ms².
+ */
+public record HrvSpectrum(double lfPower, double hfPower) {
+
+    public static final HrvSpectrum NONE = new HrvSpectrum(0.0, 0.0);
+
+    public boolean isValid() {
+        return lfPower > 0 && hfPower > 0;
+    }
+
+    /**
+     * Sympathovagal balance; 0 when either band is empty.
+     */
+    public double lfHfRatio() {
+        return isValid() ? lfPower / hfPower : 0.0;
+    }
+}
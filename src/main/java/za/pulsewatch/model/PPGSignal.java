@@ -5,18 +5,18 @@ import lombok.AllArgsConstructor;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
 public class PPGSignal {
     private String id;
-    private List<Double> rawData;
+    private SampleBuffer rawData;
     private double samplingRate; // Hz
     private LocalDateTime timestamp;
     private String deviceId;
     private String userId;
+    private double[] sampleTimes; // seconds from the first sample; null when uniformly sampled
     
     public int getSampleCount() {
         return rawData != null ? rawData.size() : 0;
@@ -0,0 +1,35 @@
+package za.pulsewatch.model;
+
+/**
+ * Outcome of the signal-quality pre-stage: the verdict, which gate decided it
+ * ("none" when every gate passed) and the indices the gates looked at.
+ */
+public record QualityGateResult(Verdict verdict,
+                                String gate,
+                                double perfusionIndex,
+                                double clippingRatio,
+                                double spectralConcentration) {
+
+    public enum Verdict {
+        // Run the full analysis
+        PASS,
+        // Usable, but only worth the cheap analysis path
+        DOWNGRADE,
+        // Skip analysis altogether
+        REJECT
+    }
+
+    public static final String NONE = "none";
+
+    public static QualityGateResult pass(double perfusionIndex, double clippingRatio, double spectralConcentration) {
+        return new QualityGateResult(Verdict.PASS, NONE, perfusionIndex, clippingRatio, spectralConcentration);
+    }
+
+    public boolean isRejected() {
+        return verdict == Verdict.REJECT;
+    }
+
+    public boolean isDowngraded() {
+        return verdict == Verdict.DOWNGRADE;
+    }
+}
@@ -0,0 +1,145 @@
+package za.pulsewatch.model;
+
+/**
+ * Beat-to-beat (RR) intervals of one recording, built once from the detected
+ * peak indices and shared by every rhythm metric.
+ *
+ * Intervals are stored in seconds in a primitive array. Summary statistics and
+ * the successive-difference metrics (RMSSD, pNN50) are each computed on first
+ * use and then cached. Instances are meant to be used by one request thread.
+ */
+public final class RRSeries {
+
+    public static final RRSeries EMPTY = new RRSeries(new double[0], new double[0]);
+
+    private final double[] intervals;
+    // Beat times in seconds, aligned so that intervals[i] ends at beatTimes[i + 1]
+    private final double[] beatTimes;
+
+    private SignalStatistics statistics;
+    private boolean successiveDifferencesComputed;
+    private double rmssd;
+    private double pnn50;
+
+    private RRSeries(double[] intervals, double[] beatTimes) {
+        this.intervals = intervals;
+        this.beatTimes = beatTimes;
+    }
+
+    public static RRSeries fromPeaks(int[] peaks, int peakCount, double samplingRate) {
+        if (peakCount < 2) {
+            return EMPTY;
+        }
+
+        double[] intervals = new double[peakCount - 1];
+        double[] beatTimes = new double[peakCount];
+        beatTimes[0] = peaks[0] / samplingRate;
+        for (int i = 1; i < peakCount; i++) {
+            beatTimes[i] = peaks[i] / samplingRate;
+            intervals[i - 1] = (peaks[i] - peaks[i - 1]) / samplingRate;
+        }
+        return new RRSeries(intervals, beatTimes);
+    }
+
+    public static RRSeries fromPeaks(int[] peaks, double samplingRate) {
+        return fromPeaks(peaks, peaks.length, samplingRate);
+    }
+
+    /**
+     * From beat times in seconds, e.g. sub-sample peak positions; the first
+     * {@code count} entries are copied.
+     */
+    public static RRSeries fromBeatTimes(double[] times, int count) {
+        if (count < 2) {
+            return EMPTY;
+        }
+
+        double[] intervals = new double[count - 1];
+        double[] beatTimes = java.util.Arrays.copyOf(times, count);
+        for (int i = 1; i < count; i++) {
+            intervals[i - 1] = beatTimes[i] - beatTimes[i - 1];
+        }
+        return new RRSeries(intervals, beatTimes);
+    }
+
+    public int size() {
+        return intervals.length;
+    }
+
+    public boolean isEmpty() {
+        return intervals.length == 0;
+    }
+
+    /**
+     * Interval array in seconds. Shared, not copied: callers must not modify it.
+     */
+    public double[] getIntervals() {
+        return intervals;
+    }
+
+    /**
+     * Beat times in seconds from the start of the recording (one more than intervals).
+     */
+    public double[] getBeatTimes() {
+        return beatTimes;
+    }
+
+    public SignalStatistics statistics() {
+        if (statistics == null) {
+            statistics = SignalStatistics.of(intervals);
+        }
+        return statistics;
+    }
+
+    /** Mean heart rate in BPM. */
+    public double heartRate() {
+        return isEmpty() ? 0.0 : 60.0 / statistics().mean();
+    }
+
+    /** Sample standard deviation of the intervals in milliseconds. */
+    public double sdnn() {
+        return size() < 2 ? 0.0 : statistics().standardDeviation() * 1000;
+    }
+
+    /** Sample standard deviation over mean interval, as a fraction. */
+    public double coefficientOfVariation() {
+        return size() < 2 ? 0.0 : statistics().standardDeviation() / statistics().mean();
+    }
+
+    /** Root mean square of successive interval differences in milliseconds. */
+    public double rmssd() {
+        computeSuccessiveDifferences();
+        return rmssd;
+    }
+
+    /** Percentage of successive interval differences larger than 50 ms. */
+    public double pnn50() {
+        computeSuccessiveDifferences();
+        return pnn50;
+    }
+
+    private void computeSuccessiveDifferences() {
+        if (successiveDifferencesComputed) {
+            return;
+        }
+        successiveDifferencesComputed = true;
+
+        int differences = intervals.length - 1;
+        if (differences < 1) {
+            return;
+        }
+
+        double sumSquares = 0.0;
+        int over50 = 0;
+        for (int i = 1; i < intervals.length; i++) {
+            double difference = intervals[i] - intervals[i - 1];
+            sumSquares += difference * difference;
+            if (Math.abs(difference) > 0.050) {
+                over50++;
+            }
+        }
+
+        rmssd = Math.sqrt(sumSquares / differences) * 1000;
+        pnn50 = 100.0 * over50 / differences;
+    }
+}
@@ -0,0 +1,84 @@
+package za.pulsewatch.model;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compact, read-only run of samples backed by a primitive {@code double[]}.
+ *
+ * Replaces {@code List<Double>} in requests and signals: a 10-minute 60 Hz
+ * recording is one 288 KB array instead of 36k boxed values plus a list. JSON
+ * is a plain array of numbers, parsed straight into the backing array by
+ * {@link SampleBufferDeserializer}.
+ */
+@JsonSerialize(using = SampleBufferSerializer.class)
+@JsonDeserialize(using = SampleBufferDeserializer.class)
+public final class SampleBuffer {
+
+    public static final SampleBuffer EMPTY = new SampleBuffer(new double[0], 0);
+
+    private final double[] values;
+    private final int length;
+
+    private SampleBuffer(double[] values, int length) {
+        this.values = values;
+        this.length = length;
+    }
+
+    /** Wraps the array without copying; the caller hands over ownership. */
+    public static SampleBuffer wrap(double[] values) {
+        return new SampleBuffer(values, values.length);
+    }
+
+    /** Wraps the first {@code length} entries of the array without copying. */
+    public static SampleBuffer wrap(double[] values, int length) {
+        if (length < 0 || length > values.length) {
+            throw new IllegalArgumentException("Length " + length + " outside array of " + values.length);
+        }
+        return new SampleBuffer(values, length);
+    }
+
+    public static SampleBuffer of(List<? extends Number> values) {
+        double[] samples = new double[values.size()];
+        for (int i = 0; i < samples.length; i++) {
+            samples[i] = values.get(i).doubleValue();
+        }
+        return new SampleBuffer(samples, samples.length);
+    }
+
+    public int size() {
+        return length;
+    }
+
+    public boolean isEmpty() {
+        return length == 0;
+    }
+
+    public double get(int index) {
+        if (index >= length) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + length);
+        }
+        return values[index];
+    }
+
+    /**
+     * The backing array, which may be longer than {@link #size()}. Shared, not
+     * copied: callers must only read it.
+     */
+    public double[] array() {
+        return values;
+    }
+
+    /** A copy of exactly {@link #size()} samples. */
+    public double[] toArray() {
+        return Arrays.copyOf(values, length);
+    }
+
+    @Override
+    public String toString() {
+        return "SampleBuffer[" + length + "]";
+    }
+}
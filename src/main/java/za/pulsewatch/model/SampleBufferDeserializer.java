@@ -0,0 +1,62 @@
+package za.pulsewatch.model;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import za.pulsewatch.exception.SampleLimitExceededException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Streams a JSON array of numbers into a {@link SampleBuffer} without boxing.
+ *
+ * The array grows geometrically while parsing and parsing stops at the first
+ * sample past {@code ppg.samples.max-count}, so an oversized payload is rejected
+ * before it is read in full. Spring's ObjectMapper creates this class through the
+ * bean factory, which injects the limit; other mappers get the default.
+ */
+public class SampleBufferDeserializer extends StdDeserializer<SampleBuffer> {
+
+    public static final int DEFAULT_MAX_SAMPLES = 200_000;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    @Value("${ppg.samples.max-count:200000}")
+    private int maxSamples = DEFAULT_MAX_SAMPLES;
+
+    public SampleBufferDeserializer() {
+        super(SampleBuffer.class);
+    }
+
+    public SampleBufferDeserializer(int maxSamples) {
+        this();
+        this.maxSamples = maxSamples;
+    }
+
+    @Override
+    public SampleBuffer deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (SampleBuffer) context.handleUnexpectedToken(SampleBuffer.class, parser);
+        }
+
+        double[] values = new double[Math.min(INITIAL_CAPACITY, maxSamples)];
+        int length = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.VALUE_NUMBER_INT && token != JsonToken.VALUE_NUMBER_FLOAT) {
+                return (SampleBuffer) context.handleUnexpectedToken(SampleBuffer.class, token, parser,
+                    "Expected a number at sample %d", length);
+            }
+            if (length == maxSamples) {
+                throw new SampleLimitExceededException(parser, maxSamples);
+            }
+            if (length == values.length) {
+                values = Arrays.copyOf(values, Math.min(maxSamples, length * 2));
+            }
+            values[length++] = parser.getDoubleValue();
+        }
+        return SampleBuffer.wrap(values, length);
+    }
+}
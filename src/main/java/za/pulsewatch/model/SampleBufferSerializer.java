@@ -0,0 +1,23 @@
+package za.pulsewatch.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Writes a {@link SampleBuffer} as a plain JSON array of numbers.
+ */
+public class SampleBufferSerializer extends StdSerializer<SampleBuffer> {
+
+    public SampleBufferSerializer() {
+        super(SampleBuffer.class);
+    }
+
+    @Override
+    public void serialize(SampleBuffer buffer, JsonGenerator generator, SerializerProvider provider)
+            throws IOException {
+        generator.writeArray(buffer.array(), 0, buffer.size());
+    }
+}
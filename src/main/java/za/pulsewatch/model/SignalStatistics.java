@@ -0,0 +1,135 @@
+package za.pulsewatch.model;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Summary statistics of a sample series, gathered in a single pass.
+ *
+ * Mean and variance use Welford's update, so long recordings with a large DC
+ * offset do not lose precision. Variance is stored as the sum of squared
+ * deviations; use {@link #variance()} for the sample (n - 1) estimate and
+ * {@link #populationVariance()} for the n estimate.
+ */
+public record SignalStatistics(int count,
+                               double mean,
+                               double sumSquaredDeviations,
+                               double min,
+                               double max,
+                               int zeroCrossings,
+                               double energy) {
+
+    public static final SignalStatistics EMPTY = new SignalStatistics(0, 0.0, 0.0, 0.0, 0.0, 0, 0.0);
+
+    public static SignalStatistics of(double[] values, int length) {
+        return of(i -> values[i], length);
+    }
+
+    public static SignalStatistics of(float[] values, int length) {
+        return of(i -> values[i], length);
+    }
+
+    public static SignalStatistics of(double[] values) {
+        return of(values, values.length);
+    }
+
+    private static SignalStatistics of(IntToDoubleFunction values, int length) {
+        if (length == 0) {
+            return EMPTY;
+        }
+
+        double mean = 0.0;
+        double m2 = 0.0;
+        double min = values.applyAsDouble(0);
+        double max = min;
+        double energy = 0.0;
+        int zeroCrossings = 0;
+        boolean previousPositive = min > 0;
+
+        for (int i = 0; i < length; i++) {
+            double value = values.applyAsDouble(i);
+
+            double delta = value - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (value - mean);
+
+            if (value < min) min = value;
+            if (value > max) max = value;
+            energy += value * value;
+
+            boolean positive = value > 0;
+            if (positive != previousPositive) {
+                zeroCrossings++;
+            }
+            previousPositive = positive;
+        }
+
+        return new SignalStatistics(length, mean, m2, min, max, zeroCrossings, energy);
+    }
+
+    /**
+     * Statistics of the peak-to-peak intervals in seconds, without materialising them.
+     */
+    public static SignalStatistics ofIntervals(int[] peaks, int peakCount, double samplingRate) {
+        if (peakCount < 2) {
+            return EMPTY;
+        }
+
+        int count = peakCount - 1;
+        double mean = 0.0;
+        double m2 = 0.0;
+        double min = Double.MAX_VALUE;
+        double max = -Double.MAX_VALUE;
+        double energy = 0.0;
+
+        for (int i = 0; i < count; i++) {
+            double interval = (peaks[i + 1] - peaks[i]) / samplingRate;
+
+            double delta = interval - mean;
+            mean += delta / (i + 1);
+            m2 += delta * (interval - mean);
+
+            if (interval < min) min = interval;
+            if (interval > max) max = interval;
+            energy += interval * interval;
+        }
+
+        return new SignalStatistics(count, mean, m2, min, max, 0, energy);
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double variance() {
+        return count > 1 ? sumSquaredDeviations / (count - 1) : 0.0;
+    }
+
+    public double populationVariance() {
+        return count > 0 ? sumSquaredDeviations / count : 0.0;
+    }
+
+    public double standardDeviation() {
+        return Math.sqrt(variance());
+    }
+
+    public double populationStandardDeviation() {
+        return Math.sqrt(populationVariance());
+    }
+
+    public double range() {
+        return max - min;
+    }
+
+    public double zeroCrossingRate() {
+        return count > 0 ? (double) zeroCrossings / count : 0.0;
+    }
+
+    /**
+     * Ratio of squared mean to variance in decibels; 0 for a flat (or single-sample)
+     * series, which has no variance to compare against.
+     */
+    public double snr() {
+        double variance = variance();
+        return variance > 0 ? 10 * Math.log10((mean * mean) / variance) : 0.0;
+    }
+}
@@ -22,6 +22,15 @@ public class UserStats {
         this.lastCheckDate = LocalDate.now().minusDays(1);
     }
     
+    public UserStats(UserStats other) {
+        this.userId = other.userId;
+        this.currentStreak = other.currentStreak;
+        this.longestStreak = other.longestStreak;
+        this.totalSessions = other.totalSessions;
+        this.averageHealthScore = other.averageHealthScore;
+        this.lastCheckDate = other.lastCheckDate;
+    }
+    
     // Getters and Setters
     public String getUserId() { return userId; }
     public void setUserId(String userId) { this.userId = userId; }
@@ -14,9 +14,13 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.Set;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    // Endpoints that browsers open without the ability to set an Authorization header
+    private static final Set<String> STREAM_PATHS = Set.of("/api/v1/ppg/stream", "/api/v1/ppg/feed");
     
     @Autowired
     private UserDetailsService userDetailsService;
@@ -35,6 +39,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
             jwt = authorizationHeader.substring(7);
+        } else if (isStreamHandshake(request)) {
+            // Browsers cannot set headers on WebSocket or EventSource requests; accept the token as a query parameter there only
+            jwt = request.getParameter("access_token");
+        }
+        
+        if (jwt != null) {
             try {
                 username = jwtUtil.extractUsername(jwt);
             } catch (Exception e) {
@@ -55,4 +65,14 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
         filterChain.doFilter(request, response);
     }
+
+    private static boolean isStreamHandshake(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!STREAM_PATHS.contains(path)) {
+            return false;
+        }
+        String accept = request.getHeader("Accept");
+        return "websocket".equalsIgnoreCase(request.getHeader("Upgrade"))
+            || (accept != null && accept.contains("text/event-stream"));
+    }
 }
@@ -16,6 +16,7 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import za.pulsewatch.service.UserDetailsServiceImpl;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.http.HttpServletResponse;
 
 @Configuration
@@ -52,7 +53,11 @@ public class SecurityConfig {
         http.csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .authorizeHttpRequests(auth -> 
-                    auth.requestMatchers("/api/v1/auth/**", "/api/v1/ppg/status", "/error").permitAll()
+                    // Async dispatches resume a request that was already authorized: the long-polled
+                    // job status (a CompletableFuture) and the SSE feed would otherwise be refused
+                    // when their result is dispatched back
+                    auth.dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        .requestMatchers("/api/v1/auth/**", "/api/v1/ppg/status", "/error").permitAll()
                         .requestMatchers("/api/v1/ppg/**", "/api/v1/test/protected", "/api/v1/test/admin").authenticated()
                         .anyRequest().authenticated()
                 )
@@ -0,0 +1,151 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Linear-time beat detector with an adaptive amplitude threshold and a
+ * physiological refractory period.
+ *
+ * A sample is a beat candidate when it is a local maximum and rises above
+ * {@code min + fraction * (max - min)} of a window centred on it. The window
+ * extremes come from two monotonic deques, so each sample is pushed and popped
+ * at most once. Candidates closer than the refractory period (derived from the
+ * highest plausible heart rate) to the previous beat replace it only if they are
+ * taller, which drops ripples on the systolic upstroke. Later candidates must
+ * also rise by the same threshold out of the trough since the previous beat,
+ * which rejects the dicrotic wave riding on the diastolic decay.
+ */
+@Service
+public class AdaptivePeakDetector {
+
+    @Value("${ppg.peaks.threshold-fraction:0.4}")
+    private double thresholdFraction = 0.4;
+
+    @Value("${ppg.peaks.max-heart-rate:220}")
+    private double maxHeartRate = 220;
+
+    // Half-width of the amplitude window in seconds
+    @Value("${ppg.peaks.window-seconds:1.0}")
+    private double windowSeconds = 1.0;
+
+    // Deque storage reused by every call on the same thread
+    private final ThreadLocal<int[][]> deques = ThreadLocal.withInitial(() -> new int[][] {new int[0], new int[0]});
+
+    /**
+     * Detects beats in the first {@code length} samples and writes their indices
+     * to {@code peaks}, returning how many were found. {@code peaks} must hold at
+     * least {@link SignalProcessor#peakCapacity(int)} entries.
+     */
+    public int detect(double[] signal, int length, double samplingRate, int[] peaks) {
+        return detect(i -> signal[i], length, samplingRate, peaks);
+    }
+
+    /**
+     * Single-precision variant of {@link #detect(double[], int, double, int[])}.
+     */
+    public int detect(float[] signal, int length, double samplingRate, int[] peaks) {
+        return detect(i -> signal[i], length, samplingRate, peaks);
+    }
+
+    private int detect(IntToDoubleFunction signal, int length, double samplingRate, int[] peaks) {
+        if (length < 3 || samplingRate <= 0) {
+            return 0;
+        }
+
+        int refractory = Math.max(1, (int) Math.ceil(samplingRate * 60.0 / maxHeartRate));
+        int half = Math.max(1, (int) Math.round(windowSeconds * samplingRate));
+        int capacity = Math.min(2 * half + 1, length);
+
+        int[][] buffers = deques(capacity);
+        int[] maxDeque = buffers[0];
+        int[] minDeque = buffers[1];
+        int maxHead = 0, maxSize = 0;
+        int minHead = 0, minSize = 0;
+
+        int count = 0;
+        int lastPeak = -1;
+        // Lowest sample since the last accepted beat, for the prominence check
+        double trough = Double.MAX_VALUE;
+
+        // j is the newest sample in the window; i = j - half is the sample being judged
+        for (int j = 0; j < length + half; j++) {
+            int i = j - half;
+
+            // Drop indices that fall out of the window [i - half, i + half]
+            int oldest = i - half;
+            while (maxSize > 0 && maxDeque[maxHead] < oldest) {
+                maxHead = (maxHead + 1) % capacity;
+                maxSize--;
+            }
+            while (minSize > 0 && minDeque[minHead] < oldest) {
+                minHead = (minHead + 1) % capacity;
+                minSize--;
+            }
+
+            if (j < length) {
+                double value = signal.applyAsDouble(j);
+                while (maxSize > 0 && signal.applyAsDouble(maxDeque[(maxHead + maxSize - 1) % capacity]) <= value) {
+                    maxSize--;
+                }
+                maxDeque[(maxHead + maxSize) % capacity] = j;
+                maxSize++;
+
+                while (minSize > 0 && signal.applyAsDouble(minDeque[(minHead + minSize - 1) % capacity]) >= value) {
+                    minSize--;
+                }
+                minDeque[(minHead + minSize) % capacity] = j;
+                minSize++;
+            }
+
+            if (i <= 0 || i >= length - 1) {
+                continue;
+            }
+
+            double value = signal.applyAsDouble(i);
+            trough = Math.min(trough, value);
+            if (!(value > signal.applyAsDouble(i - 1) && value >= signal.applyAsDouble(i + 1))) {
+                continue;
+            }
+
+            double windowMax = signal.applyAsDouble(maxDeque[maxHead]);
+            double windowMin = signal.applyAsDouble(minDeque[minHead]);
+            double threshold = thresholdFraction * (windowMax - windowMin);
+            if (windowMax <= windowMin || value < windowMin + threshold) {
+                continue;
+            }
+
+            if (lastPeak >= 0 && i - lastPeak < refractory) {
+                // Too close to the previous beat: keep whichever is taller
+                if (value > signal.applyAsDouble(lastPeak)) {
+                    peaks[count - 1] = i;
+                    lastPeak = i;
+                    trough = value;
+                }
+                continue;
+            }
+
+            // A dicrotic wave barely rises out of the preceding trough; a new beat does
+            if (value - trough < threshold) {
+                continue;
+            }
+
+            peaks[count++] = i;
+            lastPeak = i;
+            trough = value;
+        }
+
+        return count;
+    }
+
+    private int[][] deques(int capacity) {
+        int[][] buffers = deques.get();
+        if (buffers[0].length < capacity) {
+            buffers = new int[][] {new int[capacity], new int[capacity]};
+            deques.set(buffers);
+        }
+        return buffers;
+    }
+}
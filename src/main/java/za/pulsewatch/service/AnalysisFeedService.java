@@ -0,0 +1,240 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Server-Sent Events feed of each user's analysis results.
+ *
+ * Subscribers are servlet async requests, so an idle subscriber holds a
+ * connection but no thread. Publishing reads the registry without locking and
+ * hands the writes to the feed pool, so analysis never waits on a slow client.
+ * A periodic heartbeat keeps proxies from closing idle streams and finds dead
+ * ones; any emitter whose write fails, times out or completes is dropped.
+ *
+ * Writes block, so a client that stops reading holds the thread writing to it.
+ * Heartbeats are split into {@code ppg.feed.heartbeat-shards} tasks, one per
+ * slice of users, and skip streams that are still mid-write, so a stuck client
+ * delays at most its own slice. A write in flight longer than
+ * {@code ppg.feed.write-timeout-ms} marks the stream stalled: it is dropped and
+ * never written to again, and the stuck write fails once the connection does.
+ */
+@Service
+public class AnalysisFeedService {
+
+    public static final String EVENT_NAME = "analysis";
+
+    private final ExecutorService executor;
+
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+
+    @Value("${ppg.feed.max-subscribers:50000}")
+    private int maxSubscribers = 50000;
+
+    @Value("${ppg.feed.max-subscribers-per-user:5}")
+    private int maxSubscribersPerUser = 5;
+
+    // Clients reconnect (EventSource does so itself) when a stream times out
+    @Value("${ppg.feed.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs = 1800000;
+
+    @Value("${ppg.feed.heartbeat-shards:16}")
+    private int heartbeatShards = 16;
+
+    @Value("${ppg.feed.write-timeout-ms:10000}")
+    private long writeTimeoutMs = 10000;
+
+    public AnalysisFeedService(@Qualifier("feedExecutor") ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Opens a stream of the user's results.
+     *
+     * @throws RejectedExecutionException if the node or the user is at the subscriber limit
+     */
+    public SseEmitter subscribe(String userId) {
+        return subscribe(userId, new SseEmitter(emitterTimeoutMs));
+    }
+
+    SseEmitter subscribe(String userId, SseEmitter emitter) {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Feed subscriber limit reached");
+        }
+
+        Subscriber subscriber = new Subscriber(emitter);
+        boolean[] added = {false};
+        subscribers.compute(userId, (key, existing) -> {
+            Set<Subscriber> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxSubscribersPerUser) {
+                added[0] = set.add(subscriber);
+            }
+            return set.isEmpty() ? null : set;
+        });
+        if (!added[0]) {
+            subscriberCount.decrementAndGet();
+            throw new RejectedExecutionException("Too many feed subscriptions for user " + userId);
+        }
+
+        emitter.onCompletion(() -> remove(userId, subscriber));
+        emitter.onError(error -> remove(userId, subscriber));
+        emitter.onTimeout(() -> {
+            remove(userId, subscriber);
+            emitter.complete();
+        });
+        return emitter;
+    }
+
+    /**
+     * Pushes a finished analysis to the subscribers of {@code ownerId}, the
+     * authenticated user that submitted it. Best effort: when the feed pool is
+     * saturated the event is dropped, the result itself is unaffected.
+     */
+    public void publish(String ownerId, PPGAnalysisResponse response) {
+        if (ownerId == null) {
+            return;
+        }
+        Set<Subscriber> userSubscribers = subscribers.get(ownerId);
+        if (userSubscribers == null || userSubscribers.isEmpty()) {
+            return;
+        }
+
+        try {
+            executor.execute(() -> {
+                long now = System.nanoTime();
+                for (Subscriber subscriber : userSubscribers) {
+                    if (dropIfStalled(ownerId, subscriber, now)) {
+                        continue;
+                    }
+                    send(ownerId, subscriber, SseEmitter.event()
+                        .name(EVENT_NAME)
+                        .id(response.getSessionId())
+                        .data(response, MediaType.APPLICATION_JSON));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Subscribers miss this event; nothing else depends on it
+        }
+    }
+
+    /**
+     * Comment frame to every subscriber, one task per shard of users; a stream
+     * whose peer has gone fails the write and is removed.
+     */
+    @Scheduled(fixedDelayString = "${ppg.feed.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        if (subscriberCount.get() == 0) {
+            return;
+        }
+        int shards = Math.max(1, heartbeatShards);
+        for (int shard = 0; shard < shards; shard++) {
+            int current = shard;
+            try {
+                executor.execute(() -> sendHeartbeats(current, shards));
+            } catch (RejectedExecutionException e) {
+                // The feed pool is busy writing; the next heartbeat will catch up
+                return;
+            }
+        }
+    }
+
+    private void sendHeartbeats(int shard, int shards) {
+        long now = System.nanoTime();
+        subscribers.forEach((userId, userSubscribers) -> {
+            if (Math.floorMod(userId.hashCode(), shards) != shard) {
+                return;
+            }
+            for (Subscriber subscriber : userSubscribers) {
+                // A stream mid-write is alive as far as proxies are concerned
+                if (!dropIfStalled(userId, subscriber, now) && !subscriber.isWriting()) {
+                    send(userId, subscriber, SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        });
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private boolean dropIfStalled(String userId, Subscriber subscriber, long now) {
+        if (subscriber.writingFor(now) <= TimeUnit.MILLISECONDS.toNanos(writeTimeoutMs)) {
+            return false;
+        }
+        // Completing would wait on the stuck write; the write fails once the connection does
+        remove(userId, subscriber);
+        return true;
+    }
+
+    private void send(String userId, Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        subscriber.writeStarted();
+        try {
+            subscriber.emitter.send(event);
+        } catch (IOException | IllegalStateException e) {
+            // The client is gone or the emitter already completed
+            remove(userId, subscriber);
+        } finally {
+            subscriber.writeFinished();
+        }
+    }
+
+    private void remove(String userId, Subscriber subscriber) {
+        boolean[] removed = {false};
+        subscribers.computeIfPresent(userId, (key, userSubscribers) -> {
+            removed[0] = userSubscribers.remove(subscriber);
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+        if (removed[0]) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    /** An emitter and when its oldest unfinished write started. */
+    private static final class Subscriber {
+
+        final SseEmitter emitter;
+        private final AtomicInteger writers = new AtomicInteger();
+        private volatile long writingSince;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void writeStarted() {
+            if (writers.getAndIncrement() == 0) {
+                writingSince = System.nanoTime();
+            }
+        }
+
+        void writeFinished() {
+            if (writers.decrementAndGet() == 0) {
+                writingSince = 0;
+            }
+        }
+
+        boolean isWriting() {
+            return writers.get() > 0;
+        }
+
+        long writingFor(long now) {
+            long since = writingSince;
+            return since == 0 ? 0 : now - since;
+        }
+    }
+}
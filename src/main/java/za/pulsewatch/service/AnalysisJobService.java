@@ -0,0 +1,155 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import za.pulsewatch.dto.AnalysisJobResponse;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asynchronous analysis: requests are accepted immediately, analyzed on the
+ * analysis worker pool and their results kept for a while to be polled.
+ *
+ * The store is bounded; finished jobs are evicted once their TTL has passed,
+ * and submissions are refused while the store or the worker queue is full.
+ */
+@Service
+public class AnalysisJobService {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final PPGProcessingService ppgProcessingService;
+    private final ExecutorService executor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    @Value("${ppg.async.max-jobs:10000}")
+    private int maxJobs = 10000;
+
+    // How long a finished result stays retrievable
+    @Value("${ppg.async.result-ttl-ms:600000}")
+    private long resultTtlMs = 600000;
+
+    @Value("${ppg.async.max-wait-ms:30000}")
+    private long maxWaitMs = 30000;
+
+    public AnalysisJobService(PPGProcessingService ppgProcessingService,
+                              @Qualifier("analysisExecutor") ExecutorService executor) {
+        this.ppgProcessingService = ppgProcessingService;
+        this.executor = executor;
+    }
+
+    /**
+     * Queues the request for analysis and returns its pending status. The job is
+     * bound to {@code ownerId}; only that user can read it back.
+     *
+     * @throws RejectedExecutionException if the store or the worker queue is full
+     */
+    public AnalysisJobResponse submit(PPGAnalysisRequest request, String ownerId) {
+        if (jobs.size() >= maxJobs) {
+            evictExpiredJobs();
+            if (jobs.size() >= maxJobs) {
+                throw new RejectedExecutionException("Analysis job store is full");
+            }
+        }
+
+        Job job = new Job(UUID.randomUUID().toString(), ownerId);
+        jobs.put(job.id, job);
+        try {
+            executor.execute(() -> run(job, request));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.id);
+            throw e;
+        }
+        return job.toResponse();
+    }
+
+    /**
+     * Long-poll for a job's status: completes as soon as the job finishes, or with
+     * its current status after {@code waitMs} (capped at ppg.async.max-wait-ms).
+     * Completes with null if the job is unknown, has expired or belongs to another
+     * user, so a job id reveals nothing to anyone but its owner. No thread is held
+     * while waiting.
+     */
+    public CompletableFuture<AnalysisJobResponse> awaitStatus(String jobId, String ownerId, long waitMs) {
+        Job job = jobs.get(jobId);
+        if (job == null || !job.ownerId.equals(ownerId)) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long wait = Math.max(0, Math.min(waitMs, maxWaitMs));
+        if (wait == 0 || job.done.isDone()) {
+            return CompletableFuture.completedFuture(job.toResponse());
+        }
+        return job.done.copy()
+            .completeOnTimeout(null, wait, TimeUnit.MILLISECONDS)
+            .thenApply(ignored -> job.toResponse());
+    }
+
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    @Scheduled(fixedDelayString = "${ppg.async.eviction-interval-ms:60000}")
+    public void evictExpiredJobs() {
+        long cutoff = System.currentTimeMillis() - resultTtlMs;
+        jobs.values().removeIf(job -> job.done.isDone() && job.completedAtMillis < cutoff);
+    }
+
+    private void run(Job job, PPGAnalysisRequest request) {
+        job.status = RUNNING;
+        PPGAnalysisResponse response;
+        try {
+            response = ppgProcessingService.processPPGSignal(request);
+        } catch (RuntimeException e) {
+            response = ppgProcessingService.createFailedResponse(
+                request, "ERROR", "Error processing PPG signal: " + e.getMessage());
+        }
+        job.result = response;
+        job.completedAt = LocalDateTime.now();
+        job.completedAtMillis = System.currentTimeMillis();
+        job.status = "SUCCESS".equals(response.getStatus()) || "REJECTED".equals(response.getStatus())
+            ? COMPLETED
+            : FAILED;
+        job.done.complete(null);
+    }
+
+    private static final class Job {
+        final String id;
+        final String ownerId;
+        final LocalDateTime submittedAt = LocalDateTime.now();
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+        volatile String status = PENDING;
+        volatile PPGAnalysisResponse result;
+        volatile LocalDateTime completedAt;
+        volatile long completedAtMillis;
+
+        Job(String id, String ownerId) {
+            this.id = id;
+            this.ownerId = ownerId;
+        }
+
+        AnalysisJobResponse toResponse() {
+            AnalysisJobResponse response = new AnalysisJobResponse(id, status, submittedAt);
+            if (done.isDone()) {
+                response.setCompletedAt(completedAt);
+                response.setResult(result);
+            }
+            return response;
+        }
+    }
+}
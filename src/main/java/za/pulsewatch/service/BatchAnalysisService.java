@@ -0,0 +1,128 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Analyzes the items of a batch in parallel on the bounded batch executor.
+ *
+ * Results come back in request order. Every item is isolated: a failure, a
+ * timeout or a full queue turns into that item's own error response and never
+ * holds up or fails the rest of the batch.
+ */
+@Service
+public class BatchAnalysisService {
+
+    public static final String STATUS_TIMEOUT = "TIMEOUT";
+    public static final String STATUS_BUSY = "BUSY";
+    public static final String STATUS_ERROR = "ERROR";
+
+    private final PPGProcessingService ppgProcessingService;
+    private final ExecutorService executor;
+
+    @Value("${ppg.batch.max-size:500}")
+    private int maxBatchSize = 500;
+
+    // Measured from when the item starts running, not from when it was queued
+    @Value("${ppg.batch.item-timeout-ms:30000}")
+    private long itemTimeoutMs = 30000;
+
+    public BatchAnalysisService(PPGProcessingService ppgProcessingService,
+                                @Qualifier("batchExecutor") ExecutorService executor) {
+        this.ppgProcessingService = ppgProcessingService;
+        this.executor = executor;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public List<PPGAnalysisResponse> analyze(List<PPGAnalysisRequest> requests) {
+        if (requests.size() > maxBatchSize) {
+            throw new IllegalArgumentException(
+                "Batch of " + requests.size() + " exceeds the maximum of " + maxBatchSize);
+        }
+
+        // Submit everything first so the pool works on the whole batch at once
+        List<BatchItem> items = new ArrayList<>(requests.size());
+        for (PPGAnalysisRequest request : requests) {
+            BatchItem item = new BatchItem(request);
+            try {
+                item.future = executor.submit(() -> {
+                    item.startedAt = System.currentTimeMillis();
+                    return ppgProcessingService.processPPGSignal(request);
+                });
+            } catch (RejectedExecutionException e) {
+                item.result = failed(request, STATUS_BUSY, "Batch queue is full, retry later");
+            }
+            items.add(item);
+        }
+
+        // Collect in request order
+        List<PPGAnalysisResponse> responses = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            responses.add(item.result != null ? item.result : await(item));
+        }
+        return responses;
+    }
+
+    private PPGAnalysisResponse await(BatchItem item) {
+        try {
+            while (true) {
+                long startedAt = item.startedAt;
+                // Still queued: wait a full timeout, then look again
+                long waitMs = startedAt == 0
+                    ? itemTimeoutMs
+                    : Math.max(0, startedAt + itemTimeoutMs - System.currentTimeMillis());
+                try {
+                    return item.future.get(waitMs, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    if (startedAt != 0 && System.currentTimeMillis() - startedAt >= itemTimeoutMs) {
+                        item.future.cancel(true);
+                        return failed(item.request, STATUS_TIMEOUT,
+                            "PPG analysis exceeded " + itemTimeoutMs + " ms");
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            return failed(item.request, STATUS_ERROR, "Error processing PPG signal: " + e.getCause().getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            item.future.cancel(true);
+            return failed(item.request, STATUS_ERROR, "Batch processing was interrupted");
+        }
+    }
+
+    private PPGAnalysisResponse failed(PPGAnalysisRequest request, String status, String message) {
+        if (request == null) {
+            PPGAnalysisResponse response = new PPGAnalysisResponse();
+            response.setStatus(status);
+            response.setMessage(message);
+            return response;
+        }
+        return ppgProcessingService.createFailedResponse(request, status, message);
+    }
+
+    private static final class BatchItem {
+        final PPGAnalysisRequest request;
+        Future<PPGAnalysisResponse> future;
+        PPGAnalysisResponse result;
+        volatile long startedAt;
+
+        BatchItem(PPGAnalysisRequest request) {
+            this.request = request;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import za.pulsewatch.exception.SampleLimitExceededException;
+import za.pulsewatch.model.BinarySampleFormat;
+import za.pulsewatch.model.SampleBuffer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Reads a binary sample upload body. The body is read once into a byte array
+ * sized from Content-Length and then decoded by the format's typed view; the
+ * sample limit is enforced before any byte is read when the length is declared,
+ * and as soon as it is passed otherwise.
+ */
+@Service
+public class BinarySampleReader {
+
+    private static final int INITIAL_CAPACITY = 8192;
+
+    @Value("${ppg.samples.max-count:200000}")
+    private int maxSamples = 200000;
+
+    public SampleBuffer read(InputStream body, long contentLength, BinarySampleFormat format) throws IOException {
+        long maxBytes = (long) maxSamples * format.bytesPerSample();
+        if (contentLength > maxBytes) {
+            throw new SampleLimitExceededException(maxSamples);
+        }
+
+        // Exact size when declared; otherwise grow, refusing as soon as the limit is passed
+        byte[] bytes = new byte[contentLength >= 0 ? (int) contentLength : (int) Math.min(INITIAL_CAPACITY, maxBytes)];
+        int length = 0;
+        while (true) {
+            if (length == bytes.length) {
+                if (contentLength >= 0) {
+                    break;
+                }
+                if (length == maxBytes) {
+                    if (body.read() != -1) {
+                        throw new SampleLimitExceededException(maxSamples);
+                    }
+                    break;
+                }
+                bytes = Arrays.copyOf(bytes, (int) Math.min(maxBytes, (long) length * 2));
+            }
+            int read = body.read(bytes, length, bytes.length - length);
+            if (read < 0) {
+                break;
+            }
+            length += read;
+        }
+        return format.decode(bytes, length);
+    }
+}
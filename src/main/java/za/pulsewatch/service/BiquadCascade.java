@@ -0,0 +1,158 @@
+package za.pulsewatch.service;
+
+/**
+ * Cascade of second-order IIR sections (biquads) in transposed direct form II.
+ * Coefficients are immutable so a single instance can be shared between threads;
+ * all filter state lives in caller-owned arrays.
+ */
+public final class BiquadCascade {
+
+    // Samples widened per step of the single-precision path
+    private static final int BLOCK_SIZE = 256;
+
+    // Per section: b0, b1, b2, a1, a2 (a0 normalised to 1)
+    private final double[] coefficients;
+    private final int sections;
+
+    BiquadCascade(double[] coefficients) {
+        this.coefficients = coefficients;
+        this.sections = coefficients.length / 5;
+    }
+
+    public int getSections() {
+        return sections;
+    }
+
+    /**
+     * Number of doubles a state array must hold for {@link #filter(double[], int, double[])}.
+     */
+    public int stateSize() {
+        return sections * 2;
+    }
+
+    /**
+     * Filters the first {@code length} samples in place, starting from rest.
+     */
+    public void filter(double[] signal, int length) {
+        filter(signal, length, new double[stateSize()]);
+    }
+
+    /**
+     * Filters the first {@code length} samples in place, continuing from and
+     * updating {@code state}. Lets a stream be filtered chunk by chunk.
+     */
+    public void filter(double[] signal, int length, double[] state) {
+        for (int s = 0; s < sections; s++) {
+            int c = s * 5;
+            double b0 = coefficients[c];
+            double b1 = coefficients[c + 1];
+            double b2 = coefficients[c + 2];
+            double a1 = coefficients[c + 3];
+            double a2 = coefficients[c + 4];
+            double z1 = state[s * 2];
+            double z2 = state[s * 2 + 1];
+
+            for (int i = 0; i < length; i++) {
+                double x = signal[i];
+                double y = b0 * x + z1;
+                z1 = b1 * x - a1 * y + z2;
+                z2 = b2 * x - a2 * y;
+                signal[i] = y;
+            }
+
+            state[s * 2] = z1;
+            state[s * 2 + 1] = z2;
+        }
+    }
+
+    /**
+     * Single-precision variant of {@link #filter(double[], int, double[])}. Samples
+     * are widened a block at a time and run through the double cascade, so the
+     * arithmetic and the delay line stay in double; only the samples are stored as float.
+     */
+    public void filter(float[] signal, int length, double[] state) {
+        filterBlocks(signal, length, state, false);
+    }
+
+    /**
+     * Zero-phase filtering: runs the cascade forwards and then backwards so the
+     * phase shifts cancel and peaks stay where they are in time. Each pass starts
+     * from the steady state for its first sample to keep edge transients small.
+     */
+    public void filtfilt(double[] signal, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        double[] state = new double[stateSize()];
+
+        steadyState(signal[0], state);
+        filter(signal, length, state);
+
+        reverse(signal, length);
+        steadyState(signal[0], state);
+        filter(signal, length, state);
+        reverse(signal, length);
+    }
+
+    /**
+     * Single-precision variant of {@link #filtfilt(double[], int)}; the backward
+     * pass walks the blocks from the end instead of reversing the samples.
+     */
+    public void filtfilt(float[] signal, int length) {
+        if (length == 0) {
+            return;
+        }
+
+        double[] state = new double[stateSize()];
+
+        steadyState(signal[0], state);
+        filterBlocks(signal, length, state, false);
+
+        steadyState(signal[length - 1], state);
+        filterBlocks(signal, length, state, true);
+    }
+
+    /**
+     * Fills {@code state} with the delay-line values the cascade would hold after
+     * seeing the constant input {@code x} forever.
+     */
+    public void steadyState(double x, double[] state) {
+        double input = x;
+        for (int s = 0; s < sections; s++) {
+            int c = s * 5;
+            double b0 = coefficients[c];
+            double b1 = coefficients[c + 1];
+            double b2 = coefficients[c + 2];
+            double a1 = coefficients[c + 3];
+            double a2 = coefficients[c + 4];
+
+            double output = input * (b0 + b1 + b2) / (1 + a1 + a2);
+            state[s * 2] = output - b0 * input;
+            state[s * 2 + 1] = b2 * input - a2 * output;
+            input = output;
+        }
+    }
+
+    private static void reverse(double[] signal, int length) {
+        for (int i = 0, j = length - 1; i < j; i++, j--) {
+            double tmp = signal[i];
+            signal[i] = signal[j];
+            signal[j] = tmp;
+        }
+    }
+
+    private void filterBlocks(float[] signal, int length, double[] state, boolean backwards) {
+        double[] block = new double[Math.min(BLOCK_SIZE, length)];
+        for (int done = 0; done < length; done += BLOCK_SIZE) {
+            int size = Math.min(BLOCK_SIZE, length - done);
+            for (int i = 0; i < size; i++) {
+                block[i] = signal[backwards ? length - 1 - done - i : done + i];
+            }
+            filter(block, size, state);
+            for (int i = 0; i < size; i++) {
+                signal[backwards ? length - 1 - done - i : done + i] = (float) block[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package za.pulsewatch.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Butterworth bandpass design as a highpass cascade followed by a lowpass cascade,
+ * each of the requested order, discretised with the bilinear transform.
+ *
+ * Designs are cached per (samplingRate, lowFreq, highFreq, order). Clients only
+ * send a handful of distinct camera rates, so the cache stays tiny; it is still
+ * capped so arbitrary rates cannot grow it without bound.
+ */
+public final class ButterworthBandpass {
+
+    private static final int MAX_CACHED_DESIGNS = 64;
+
+    private static final ConcurrentMap<DesignKey, BiquadCascade> DESIGNS = new ConcurrentHashMap<>();
+
+    private record DesignKey(double samplingRate, double lowFreq, double highFreq, int order) {}
+
+    private ButterworthBandpass() {}
+
+    public static BiquadCascade design(double samplingRate, double lowFreq, double highFreq, int order) {
+        DesignKey key = new DesignKey(samplingRate, lowFreq, highFreq, order);
+
+        BiquadCascade cascade = DESIGNS.get(key);
+        if (cascade != null) {
+            return cascade;
+        }
+
+        cascade = createDesign(samplingRate, lowFreq, highFreq, order);
+        if (DESIGNS.size() < MAX_CACHED_DESIGNS) {
+            BiquadCascade existing = DESIGNS.putIfAbsent(key, cascade);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return cascade;
+    }
+
+    private static BiquadCascade createDesign(double samplingRate, double lowFreq, double highFreq, int order) {
+        if (order < 1) {
+            throw new IllegalArgumentException("Filter order must be at least 1");
+        }
+
+        double nyquist = samplingRate / 2;
+        // Keep the lowpass corner safely below Nyquist for very low frame rates
+        boolean applyLowpass = highFreq < nyquist * 0.95;
+        boolean applyHighpass = lowFreq > 0 && lowFreq < nyquist;
+
+        int sectionsPerStage = (order + 1) / 2;
+        int sections = (applyHighpass ? sectionsPerStage : 0) + (applyLowpass ? sectionsPerStage : 0);
+        double[] coefficients = new double[sections * 5];
+
+        int offset = 0;
+        if (applyHighpass) {
+            offset = addStage(coefficients, offset, lowFreq, samplingRate, order, true);
+        }
+        if (applyLowpass) {
+            addStage(coefficients, offset, highFreq, samplingRate, order, false);
+        }
+
+        return new BiquadCascade(coefficients);
+    }
+
+    private static int addStage(double[] coefficients, int offset, double cutoff, double samplingRate,
+                                int order, boolean highpass) {
+        double w0 = 2 * Math.PI * cutoff / samplingRate;
+
+        // Second-order sections, one per conjugate pole pair of the analog prototype
+        for (int k = 0; k < order / 2; k++) {
+            double q = 1.0 / (2 * Math.sin((2 * k + 1) * Math.PI / (2 * order)));
+            double cos = Math.cos(w0);
+            double alpha = Math.sin(w0) / (2 * q);
+            double a0 = 1 + alpha;
+
+            double b0 = highpass ? (1 + cos) / 2 : (1 - cos) / 2;
+            double b1 = highpass ? -(1 + cos) : 1 - cos;
+
+            coefficients[offset] = b0 / a0;
+            coefficients[offset + 1] = b1 / a0;
+            coefficients[offset + 2] = b0 / a0;
+            coefficients[offset + 3] = -2 * cos / a0;
+            coefficients[offset + 4] = (1 - alpha) / a0;
+            offset += 5;
+        }
+
+        // Odd orders carry one real pole, stored as a degenerate biquad
+        if (order % 2 == 1) {
+            double k = Math.tan(w0 / 2);
+            double norm = 1 / (1 + k);
+
+            coefficients[offset] = highpass ? norm : k * norm;
+            coefficients[offset + 1] = highpass ? -norm : k * norm;
+            coefficients[offset + 2] = 0;
+            coefficients[offset + 3] = (k - 1) * norm;
+            coefficients[offset + 4] = 0;
+            offset += 5;
+        }
+
+        return offset;
+    }
+}
@@ -0,0 +1,54 @@
+package za.pulsewatch.service;
+
+import za.pulsewatch.model.RRSeries;
+import za.pulsewatch.model.SignalStatistics;
+
+/**
+ * Reference engine: runs the configured {@link SignalPipeline}s in double precision.
+ */
+public class DoubleSignalEngine implements SignalEngine {
+
+    private final SignalPipelines pipelines;
+    private final AdaptivePeakDetector peakDetector;
+    private final SpectralHeartRateEstimator spectralEstimator;
+
+    public DoubleSignalEngine(SignalPipelines pipelines,
+                              AdaptivePeakDetector peakDetector,
+                              SpectralHeartRateEstimator spectralEstimator) {
+        this.pipelines = pipelines;
+        this.peakDetector = peakDetector;
+        this.spectralEstimator = spectralEstimator;
+    }
+
+    @Override
+    public String name() {
+        return "double";
+    }
+
+    @Override
+    public int bytesPerSample() {
+        return Double.BYTES;
+    }
+
+    @Override
+    public Result analyze(double[] samples, int length, double samplingRate, String pipeline, boolean withSpectrum) {
+        double[] processed = new double[length];
+        pipelines.get(pipeline).run(samples, length, samplingRate, processed);
+
+        int[] peaks = new int[SignalProcessor.peakCapacity(length)];
+        int peakCount = peakDetector.detect(processed, length, samplingRate, peaks);
+
+        // Sub-sample beat times in seconds; every stage is zero-phase
+        double[] beatTimes = new double[peakCount];
+        for (int i = 0; i < peakCount; i++) {
+            beatTimes[i] = SignalProcessor.refinePeak(processed, length, peaks[i]) / samplingRate;
+        }
+
+        SpectralHeartRateEstimator.Estimate spectrum = withSpectrum
+            ? spectralEstimator.estimate(processed, length, samplingRate)
+            : SpectralHeartRateEstimator.Estimate.NONE;
+
+        return new Result(RRSeries.fromBeatTimes(beatTimes, peakCount),
+            SignalStatistics.of(processed, length), spectrum);
+    }
+}
@@ -0,0 +1,66 @@
+package za.pulsewatch.service;
+
+import za.pulsewatch.model.SignalStatistics;
+
+/**
+ * A stage that maps every sample through the same affine function
+ * {@code y = scale * x + offset}, whose coefficients may depend on the mean and
+ * extremes of the stage input (DC removal, min-max normalisation, inversion).
+ *
+ * Because an affine map carries the input's mean, min and max along exactly, a
+ * run of adjacent element-wise stages needs only one reduction over the original
+ * samples and one mapping pass, however many stages the run has.
+ * {@link SignalPipeline} fuses such runs automatically.
+ */
+public interface ElementWiseStage extends SignalStage {
+
+    /**
+     * Coefficients for an input with the given mean and extremes.
+     */
+    Affine coefficients(double mean, double min, double max);
+
+    /**
+     * Whether {@link #coefficients} reads its arguments; stages with constant
+     * coefficients let a fused run skip the reduction pass.
+     */
+    default boolean needsStatistics() {
+        return true;
+    }
+
+    @Override
+    default void process(double[] signal, int length, double samplingRate, double[] scratch) {
+        // Stand-alone execution; inside a pipeline the stage runs as part of a fused group
+        SignalKernels kernels = ScalarSignalKernels.INSTANCE;
+        Affine affine = needsStatistics() && length > 0
+            ? coefficients(kernels.sum(signal, length) / length, kernels.min(signal, length), kernels.max(signal, length))
+            : coefficients(0.0, 0.0, 0.0);
+        kernels.affine(signal, length, affine.scale(), affine.offset(), signal);
+    }
+
+    @Override
+    default void process(float[] signal, int length, double samplingRate, float[] scratch) {
+        SignalStatistics statistics = needsStatistics() ? SignalStatistics.of(signal, length) : SignalStatistics.EMPTY;
+        coefficients(statistics.mean(), statistics.min(), statistics.max()).apply(signal, length);
+    }
+
+    record Affine(double scale, double offset) {
+
+        public static final Affine IDENTITY = new Affine(1.0, 0.0);
+
+        public double apply(double x) {
+            return scale * x + offset;
+        }
+
+        /** Maps the first {@code length} samples in place. */
+        public void apply(float[] signal, int length) {
+            for (int i = 0; i < length; i++) {
+                signal[i] = (float) apply(signal[i]);
+            }
+        }
+
+        /** This map applied after {@code first}. */
+        public Affine after(Affine first) {
+            return new Affine(scale * first.scale, scale * first.offset + offset);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package za.pulsewatch.service;
+
+import org.jtransforms.fft.DoubleFFT_1D;
+import org.jtransforms.fft.FloatFFT_1D;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Shared pool of JTransforms FFT plans, one per transform length.
+ *
+ * Building a plan precomputes its twiddle tables, which costs about as much as a
+ * transform. Plans are read-only afterwards, so one instance per length serves
+ * every thread. Callers should pad to {@link #paddedLength(int)} so that only
+ * power-of-two plans are ever created.
+ */
+public final class FftPlans {
+
+    // Largest transform we are willing to plan (2^20 samples)
+    public static final int MAX_LENGTH = 1 << 20;
+
+    private static final ConcurrentMap<Integer, DoubleFFT_1D> PLANS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Integer, FloatFFT_1D> FLOAT_PLANS = new ConcurrentHashMap<>();
+
+    private FftPlans() {}
+
+    public static DoubleFFT_1D forLength(int length) {
+        if (Integer.bitCount(length) != 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("FFT length must be a power of two no larger than " + MAX_LENGTH);
+        }
+        return PLANS.computeIfAbsent(length, DoubleFFT_1D::new);
+    }
+
+    /** Single-precision plan, for the float32 engine's half-size work buffer. */
+    public static FloatFFT_1D forFloatLength(int length) {
+        if (Integer.bitCount(length) != 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("FFT length must be a power of two no larger than " + MAX_LENGTH);
+        }
+        return FLOAT_PLANS.computeIfAbsent(length, FloatFFT_1D::new);
+    }
+
+    /**
+     * Smallest power of two that holds {@code length} samples, capped at {@link #MAX_LENGTH}.
+     */
+    public static int paddedLength(int length) {
+        if (length <= 1) {
+            return 1;
+        }
+        int padded = Integer.highestOneBit(length - 1) << 1;
+        return Math.min(padded, MAX_LENGTH);
+    }
+}
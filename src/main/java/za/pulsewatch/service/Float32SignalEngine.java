@@ -0,0 +1,66 @@
+package za.pulsewatch.service;
+
+import za.pulsewatch.model.RRSeries;
+import za.pulsewatch.model.SignalStatistics;
+
+/**
+ * Low-memory engine: the same configured pipelines run in single precision, so the
+ * processed copy, the pipeline scratch and the FFT work buffer (up to four times
+ * the recording, after padding) are half the size of the double engine's. Filter
+ * state and the reductions still accumulate in double, which keeps beat timing
+ * and the statistics within float rounding of the reference engine.
+ *
+ * The parsed request is not affected: {@link za.pulsewatch.model.SampleBuffer}
+ * is double-backed, so a recording still arrives as 8 bytes per sample and the
+ * engine reads it from there. For an N-sample recording the double engine holds
+ * about 8N (input) + 8N (processed) + 8N (scratch) + up to 32N (FFT) bytes; this
+ * one about 8N + 4N + 4N + 16N, i.e. a little over half.
+ */
+public class Float32SignalEngine implements SignalEngine {
+
+    private final SignalPipelines pipelines;
+    private final AdaptivePeakDetector peakDetector;
+    private final SpectralHeartRateEstimator spectralEstimator;
+
+    public Float32SignalEngine(SignalPipelines pipelines,
+                               AdaptivePeakDetector peakDetector,
+                               SpectralHeartRateEstimator spectralEstimator) {
+        this.pipelines = pipelines;
+        this.peakDetector = peakDetector;
+        this.spectralEstimator = spectralEstimator;
+    }
+
+    @Override
+    public String name() {
+        return "float32";
+    }
+
+    @Override
+    public int bytesPerSample() {
+        return Float.BYTES;
+    }
+
+    @Override
+    public Result analyze(double[] samples, int length, double samplingRate, String pipeline, boolean withSpectrum) {
+        float[] processed = new float[length];
+        for (int i = 0; i < length; i++) {
+            processed[i] = (float) samples[i];
+        }
+        pipelines.get(pipeline).run(processed, length, samplingRate);
+
+        int[] peaks = new int[SignalProcessor.peakCapacity(length)];
+        int peakCount = peakDetector.detect(processed, length, samplingRate, peaks);
+
+        double[] beatTimes = new double[peakCount];
+        for (int i = 0; i < peakCount; i++) {
+            beatTimes[i] = SignalProcessor.refinePeak(processed, length, peaks[i]) / samplingRate;
+        }
+
+        SpectralHeartRateEstimator.Estimate spectrum = withSpectrum
+            ? spectralEstimator.estimate(processed, length, samplingRate)
+            : SpectralHeartRateEstimator.Estimate.NONE;
+
+        return new Result(RRSeries.fromBeatTimes(beatTimes, peakCount),
+            SignalStatistics.of(processed, length), spectrum);
+    }
+}
@@ -0,0 +1,183 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import za.pulsewatch.model.HrvSpectrum;
+import za.pulsewatch.model.RRSeries;
+
+import java.util.Arrays;
+
+/**
+ * LF/HF heart rate variability from an unevenly sampled RR series.
+ *
+ * Uses the fast Lomb-Scargle periodogram of Press and Rybicki: each interval is
+ * extirpolated onto a regular grid with 4-point Lagrange weights, so the sums the
+ * periodogram needs at every frequency come out of two pooled FFTs instead of an
+ * O(n * frequencies) loop. Only the last {@code ppg.hrv.spectral.max-window-seconds}
+ * of beats are analysed, which fixes the largest grid and hence the worst-case
+ * cost per request.
+ */
+@Service
+public class FrequencyDomainHrvAnalyzer {
+
+    private static final double LF_LOW = 0.04;  // Hz
+    private static final double LF_HIGH = 0.15; // Hz
+    private static final double HF_HIGH = 0.4;  // Hz
+    // Highest frequency evaluated; a little above the HF band edge
+    private static final double MAX_FREQUENCY = 0.5;
+    // Grid points each sample is spread over
+    private static final int EXTIRPOLATION_POINTS = 4;
+    private static final int MIN_INTERVALS = 8;
+
+    @Value("${ppg.hrv.spectral.enabled:true}")
+    private boolean enabled = true;
+
+    // Frequency grid oversampling relative to 1 / duration
+    @Value("${ppg.hrv.spectral.oversampling:4}")
+    private int oversampling = 4;
+
+    // One full LF cycle (1 / 0.04 Hz) needs 25 s of beats
+    @Value("${ppg.hrv.spectral.min-duration-seconds:25}")
+    private double minDurationSeconds = 25;
+
+    @Value("${ppg.hrv.spectral.max-window-seconds:300}")
+    private double maxWindowSeconds = 300;
+
+    // Per-thread extirpolation grids, grown on demand
+    private final ThreadLocal<double[][]> grids = ThreadLocal.withInitial(() -> new double[][] {new double[0], new double[0]});
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public HrvSpectrum analyze(RRSeries rrSeries) {
+        if (!enabled || rrSeries.size() < MIN_INTERVALS) {
+            return HrvSpectrum.NONE;
+        }
+
+        // intervals[i] is observed at the beat that ends it, beatTimes[i + 1]
+        double[] intervals = rrSeries.getIntervals();
+        double[] beatTimes = rrSeries.getBeatTimes();
+        int end = intervals.length;
+        double lastTime = beatTimes[end];
+        int start = 0;
+        while (lastTime - beatTimes[start + 1] > maxWindowSeconds) {
+            start++;
+        }
+        int n = end - start;
+        double firstTime = beatTimes[start + 1];
+        double duration = lastTime - firstTime;
+        if (n < MIN_INTERVALS || duration < minDurationSeconds) {
+            return HrvSpectrum.NONE;
+        }
+
+        double mean = 0.0;
+        for (int i = start; i < end; i++) {
+            mean += intervals[i];
+        }
+        mean /= n;
+
+        // Frequencies df, 2df, ... up to MAX_FREQUENCY; the grid must resolve twice the highest one
+        double df = 1.0 / (duration * oversampling);
+        int frequencies = (int) Math.ceil(MAX_FREQUENCY / df);
+        int gridLength = FftPlans.paddedLength(4 * EXTIRPOLATION_POINTS * frequencies);
+        double[][] buffers = grids(gridLength);
+        double[] values = buffers[0];
+        double[] weights = buffers[1];
+        Arrays.fill(values, 0, gridLength, 0.0);
+        Arrays.fill(weights, 0, gridLength, 0.0);
+
+        // Position on the grid is time scaled so that bin k of the FFT is frequency k * df
+        double scale = gridLength * df;
+        for (int i = start; i < end; i++) {
+            double position = (beatTimes[i + 1] - firstTime) * scale;
+            double doubled = (2 * position) % gridLength;
+            // Intervals in ms, so band powers come out in ms²
+            extirpolate((intervals[i] - mean) * 1000, values, gridLength, position);
+            extirpolate(1.0, weights, gridLength, doubled);
+        }
+
+        FftPlans.forLength(gridLength).realForward(values);
+        FftPlans.forLength(gridLength).realForward(weights);
+
+        // Scale the periodogram to a one-sided PSD using the mean beat spacing
+        double psdScale = duration / n;
+        double lfPower = 0.0;
+        double hfPower = 0.0;
+        for (int k = 1; k <= frequencies; k++) {
+            double frequency = k * df;
+            if (frequency < LF_LOW || frequency >= HF_HIGH) {
+                continue;
+            }
+            double power = psdScale * periodogram(values, weights, k, n) * df;
+            if (frequency < LF_HIGH) {
+                lfPower += power;
+            } else {
+                hfPower += power;
+            }
+        }
+
+        return new HrvSpectrum(lfPower, hfPower);
+    }
+
+    /**
+     * Lomb-Scargle term (cterm + sterm) at bin {@code k}, from the transformed data
+     * grid and the transformed weight grid evaluated at twice the frequency.
+     */
+    private static double periodogram(double[] values, double[] weights, int k, int n) {
+        // realForward layout: [2k] = Re(k), [2k + 1] = Im(k); the sign convention cancels out below
+        double valueRe = values[2 * k];
+        double valueIm = values[2 * k + 1];
+        double weightRe = weights[2 * k];
+        double weightIm = weights[2 * k + 1];
+
+        double hypotenuse = Math.hypot(weightRe, weightIm);
+        if (hypotenuse == 0) {
+            return 0.0;
+        }
+        // cos and sin of 2 * omega * tau, then of omega * tau by the half-angle formulas
+        double cos2 = 0.5 * weightRe / hypotenuse;
+        double sin2 = 0.5 * weightIm / hypotenuse;
+        double cos = Math.sqrt(0.5 + cos2);
+        double sin = Math.copySign(Math.sqrt(Math.max(0.0, 0.5 - cos2)), sin2);
+
+        double denominator = 0.5 * n + cos2 * weightRe + sin2 * weightIm;
+        double cosTerm = cos * valueRe + sin * valueIm;
+        double sinTerm = cos * valueIm - sin * valueRe;
+        double result = 0.0;
+        if (denominator > 0) {
+            result += cosTerm * cosTerm / denominator;
+        }
+        if (n - denominator > 0) {
+            result += sinTerm * sinTerm / (n - denominator);
+        }
+        return result;
+    }
+
+    /**
+     * Adds {@code value} at fractional grid position {@code position}, spread over the
+     * nearest grid points with Lagrange interpolation weights.
+     */
+    private static void extirpolate(double value, double[] grid, int gridLength, double position) {
+        int first = (int) Math.floor(position - 0.5 * EXTIRPOLATION_POINTS + 1);
+        first = Math.max(0, Math.min(first, gridLength - EXTIRPOLATION_POINTS));
+        for (int node = first; node < first + EXTIRPOLATION_POINTS; node++) {
+            double weight = 1.0;
+            for (int other = first; other < first + EXTIRPOLATION_POINTS; other++) {
+                if (other != node) {
+                    weight *= (position - other) / (node - other);
+                }
+            }
+            grid[node] += value * weight;
+        }
+    }
+
+    private double[][] grids(int length) {
+        double[][] buffers = grids.get();
+        if (buffers[0].length < length) {
+            buffers = new double[][] {new double[length], new double[length]};
+            grids.set(buffers);
+        }
+        return buffers;
+    }
+}
@@ -6,36 +6,51 @@ import za.pulsewatch.model.UserStats;
 
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Streaks, achievements and coaching per user.
+ *
+ * Safe under concurrent analyses without a service-wide lock. A published
+ * {@link UserStats} is never modified: updates build a copy and swap it in with
+ * a compare-and-set on the user's entry, retrying if another request got there
+ * first, so readers always see a consistent snapshot. Achievements are keyed by
+ * id and claimed with putIfAbsent, so each is awarded once.
+ */
 @Service
 public class GamificationService {
 
-    private final Map<String, UserStats> userStats = new HashMap<>();
-    private final Map<String, List<Achievement>> userAchievements = new HashMap<>();
+    private final Map<String, UserStats> userStats = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Achievement>> userAchievements = new ConcurrentHashMap<>();
 
     /**
      * Track daily monitoring streak
      */
     public int updateStreak(String userId, LocalDate date) {
-        UserStats stats = getUserStats(userId);
-        
-        if (date.equals(stats.getLastCheckDate())) {
-            return stats.getCurrentStreak();
+        while (true) {
+            UserStats stats = getUserStats(userId);
+            
+            // Already counted for this day, or a late request for an earlier one
+            if (!date.isAfter(stats.getLastCheckDate())) {
+                return stats.getCurrentStreak();
+            }
+            
+            UserStats updated = new UserStats(stats);
+            if (date.equals(stats.getLastCheckDate().plusDays(1))) {
+                updated.setCurrentStreak(stats.getCurrentStreak() + 1);
+                updated.setLongestStreak(Math.max(stats.getLongestStreak(), updated.getCurrentStreak()));
+            } else {
+                updated.setCurrentStreak(1);
+            }
+            
+            updated.setLastCheckDate(date);
+            updated.setTotalSessions(stats.getTotalSessions() + 1);
+            
+            // Swap only if no other request replaced the snapshot meanwhile
+            if (userStats.replace(userId, stats, updated)) {
+                return updated.getCurrentStreak();
+            }
         }
-        
-        if (date.equals(stats.getLastCheckDate().plusDays(1))) {
-            stats.setCurrentStreak(stats.getCurrentStreak() + 1);
-            stats.setLongestStreak(Math.max(stats.getLongestStreak(), stats.getCurrentStreak()));
-        } else {
-            stats.setCurrentStreak(1);
-        }
-        
-        stats.setLastCheckDate(date);
-        stats.setTotalSessions(stats.getTotalSessions() + 1);
-        
-
-        
-        return stats.getCurrentStreak();
     }
 
     /**
@@ -117,10 +132,8 @@ public class GamificationService {
                 "Completed 200 monitoring sessions"));
         }
         
-        // Add new achievements
-        for (Achievement achievement : newAchievements) {
-            addAchievement(userId, achievement);
-        }
+        // Add new achievements; a concurrent request may have claimed one first
+        newAchievements.removeIf(achievement -> !addAchievement(userId, achievement));
         
         return newAchievements;
     }
@@ -185,7 +198,8 @@ public class GamificationService {
     }
 
     /**
-     * Get user statistics
+     * Get user statistics. The returned snapshot is never modified; call again
+     * for newer values.
      */
     public UserStats getUserStats(String userId) {
         return userStats.computeIfAbsent(userId, k -> {
@@ -200,13 +214,22 @@ public class GamificationService {
         });
     }
 
+    /**
+     * Achievements the user holds, in no particular order.
+     */
+    public List<Achievement> getAchievements(String userId) {
+        Map<String, Achievement> achievements = userAchievements.get(userId);
+        return achievements == null ? new ArrayList<>() : new ArrayList<>(achievements.values());
+    }
+
     private boolean hasAchievement(String userId, String achievementId) {
-        return userAchievements.getOrDefault(userId, new ArrayList<>())
-                .stream().anyMatch(a -> a.getId().equals(achievementId));
+        Map<String, Achievement> achievements = userAchievements.get(userId);
+        return achievements != null && achievements.containsKey(achievementId);
     }
 
-    private void addAchievement(String userId, Achievement achievement) {
-        userAchievements.computeIfAbsent(userId, k -> new ArrayList<>()).add(achievement);
+    private boolean addAchievement(String userId, Achievement achievement) {
+        return userAchievements.computeIfAbsent(userId, k -> new ConcurrentHashMap<>())
+                .putIfAbsent(achievement.getId(), achievement) == null;
     }
 
     private Achievement createAchievement(String id, String name, String description) {
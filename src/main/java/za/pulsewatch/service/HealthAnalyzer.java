@@ -1,19 +1,45 @@
 package za.pulsewatch.service;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import za.pulsewatch.model.HealthMetrics;
+import za.pulsewatch.model.HrvSpectrum;
 import za.pulsewatch.model.PPGSignal;
+import za.pulsewatch.model.RRSeries;
+import za.pulsewatch.model.SampleBuffer;
+import za.pulsewatch.model.SignalStatistics;
 
 import java.time.LocalDateTime;
-import java.util.List;
 
 @Service
 public class HealthAnalyzer {
     
+    // Relative disagreement above which the spectral estimate overrides peak counting
+    private static final double HEART_RATE_TOLERANCE = 0.2;
+    
     private final SignalProcessor signalProcessor;
+    private final SignalEngine signalEngine;
+    private final StreamingSignalProcessor streamingProcessor;
+    private final FrequencyDomainHrvAnalyzer frequencyDomainHrv;
+    private final SignalDecimator signalDecimator;
+    private final UniformResampler resampler;
+    
+    // "peaks", "spectral" or "hybrid"
+    @Value("${ppg.heart-rate.estimator:hybrid}")
+    private String heartRateEstimator = "hybrid";
     
-    public HealthAnalyzer(SignalProcessor signalProcessor) {
+    public HealthAnalyzer(SignalProcessor signalProcessor,
+                          SignalEngine signalEngine,
+                          StreamingSignalProcessor streamingProcessor,
+                          FrequencyDomainHrvAnalyzer frequencyDomainHrv,
+                          SignalDecimator signalDecimator,
+                          UniformResampler resampler) {
         this.signalProcessor = signalProcessor;
+        this.signalEngine = signalEngine;
+        this.streamingProcessor = streamingProcessor;
+        this.frequencyDomainHrv = frequencyDomainHrv;
+        this.signalDecimator = signalDecimator;
+        this.resampler = resampler;
     }
     
     public HealthMetrics analyzePPGSignal(PPGSignal ppgSignal) {
@@ -21,18 +47,52 @@ public class HealthAnalyzer {
             return createErrorMetrics("Invalid PPG signal data");
         }
         
-        List<Double> rawData = ppgSignal.getRawData();
+        SampleBuffer rawData = ppgSignal.getRawData();
         double samplingRate = ppgSignal.getSamplingRate();
+        int length = rawData.size();
         
-        // Preprocess the signal
-        List<Double> processedSignal = signalProcessor.preprocessSignal(rawData, samplingRate);
+        if (length == 0) {
+            return createErrorMetrics("Signal processing failed");
+        }
+        
+        // Samples are already primitive; every stage below only reads them
+        double[] samples = rawData.array();
+        
+        // Jittery frame times are resampled onto a uniform grid first
+        if (ppgSignal.getSampleTimes() != null) {
+            UniformResampler.Resampled resampled = resampler.resample(samples, ppgSignal.getSampleTimes(), length);
+            return analyzeSamples(ppgSignal, resampled.samples(), resampled.length(), resampled.samplingRate());
+        }
         
-        if (processedSignal.isEmpty()) {
+        return analyzeSamples(ppgSignal, samples, length, samplingRate);
+    }
+    
+    /**
+     * Analyzes uniformly sampled, already unboxed data; {@code samples} is only read.
+     * {@code ppgSignal} supplies the user and device identifiers.
+     */
+    public HealthMetrics analyzeSamples(PPGSignal ppgSignal, double[] samples, int length, double samplingRate) {
+        if (length == 0) {
             return createErrorMetrics("Signal processing failed");
         }
         
-        // Detect peaks for heart rate calculation
-        List<Integer> peaks = signalProcessor.detectPeaks(processedSignal);
+        // High-frame-rate input is brought down to the canonical analysis rate first
+        PolyphaseDecimator decimator = signalDecimator.decimatorFor(samplingRate);
+        if (decimator.getFactor() > 1) {
+            double[] decimated = new double[decimator.outputLength(length)];
+            decimator.decimate(samples, length, decimated);
+            samples = decimated;
+            length = decimated.length;
+            samplingRate /= decimator.getFactor();
+        }
+        
+        // Preprocess through the "full" pipeline and detect beats in the configured engine
+        SignalEngine.Result analysis = signalEngine.analyze(
+            samples, length, samplingRate, SignalPipelines.FULL, !"peaks".equals(heartRateEstimator));
+        
+        // One set of signal statistics and one interval series, shared by every metric below
+        SignalStatistics signalStats = analysis.signalStats();
+        RRSeries rrSeries = analysis.rrSeries();
         
         // Calculate health metrics
         HealthMetrics metrics = new HealthMetrics();
@@ -42,28 +102,34 @@ public class HealthAnalyzer {
         metrics.setTimestamp(LocalDateTime.now());
         
         // Signal quality assessment
-        String signalQuality = signalProcessor.assessSignalQuality(processedSignal);
+        String signalQuality = signalProcessor.assessSignalQuality(signalStats);
         metrics.setSignalQuality(signalQuality);
         
         // Calculate heart rate
-        if (peaks.size() >= 2) {
-            double heartRate = signalProcessor.calculateHeartRate(peaks, samplingRate);
-            metrics.setHeartRate(Math.round(heartRate * 10.0) / 10.0);
-        } else {
-            metrics.setHeartRate(0.0);
-        }
+        double heartRate = estimateHeartRate(rrSeries, analysis.spectrum());
+        metrics.setHeartRate(Math.round(heartRate * 10.0) / 10.0);
         
-        // Calculate HRV
-        if (peaks.size() >= 3) {
-            double hrv = signalProcessor.calculateHRV(peaks, samplingRate);
+        // Calculate HRV; needs at least two intervals, i.e. three beats
+        if (rrSeries.size() >= 2) {
+            double hrv = rrSeries.sdnn();
             metrics.setHrv(Math.round(hrv * 10.0) / 10.0);
+            metrics.setRmssd(Math.round(rrSeries.rmssd() * 10.0) / 10.0);
+            metrics.setPnn50(Math.round(rrSeries.pnn50() * 10.0) / 10.0);
+            
+            // LF/HF balance, when the recording is long enough to resolve the LF band
+            HrvSpectrum spectrum = frequencyDomainHrv.analyze(rrSeries);
+            if (spectrum.isValid()) {
+                metrics.setLfPower(Math.round(spectrum.lfPower() * 10.0) / 10.0);
+                metrics.setHfPower(Math.round(spectrum.hfPower() * 10.0) / 10.0);
+                metrics.setLfHfRatio(Math.round(spectrum.lfHfRatio() * 100.0) / 100.0);
+            }
             
             // Estimate stress level based on HRV
-            double stressLevel = estimateStressLevel(hrv);
+            double stressLevel = estimateStressLevel(hrv, spectrum);
             metrics.setStressLevel(stressLevel);
             
             // Detect arrhythmia
-            boolean hasArrhythmia = signalProcessor.detectArrhythmia(peaks, samplingRate);
+            boolean hasArrhythmia = signalProcessor.detectArrhythmia(rrSeries.statistics());
             metrics.setIrregularHeartbeat(hasArrhythmia);
         } else {
             metrics.setHrv(0.0);
@@ -72,12 +138,75 @@ public class HealthAnalyzer {
         }
         
         // SpO2 estimation (placeholder - would need dual-wavelength data)
-        double spo2 = estimateSpO2(processedSignal, signalQuality);
+        double spo2 = estimateSpO2(signalQuality);
         metrics.setSpo2(spo2);
         
         return metrics;
     }
     
+    /**
+     * Analyzes one chunk of a realtime session, continuing from the state left by
+     * the session's previous chunks (keyed by the owner and the signal id).
+     */
+    public HealthMetrics analyzeRealtimeChunk(PPGSignal ppgSignal, String ownerId) {
+        if (ppgSignal == null || ppgSignal.getRawData() == null) {
+            return createErrorMetrics("Invalid PPG signal data");
+        }
+        
+        SampleBuffer rawData = ppgSignal.getRawData();
+        int length = rawData.size();
+        double[] samples = rawData.array();
+        
+        double[] processedChunk = new double[length];
+        StreamingSignalProcessor.ChunkResult result = streamingProcessor.processChunk(
+            ownerId, ppgSignal.getId(), samples, length, ppgSignal.getSamplingRate(), processedChunk);
+        
+        HealthMetrics metrics = new HealthMetrics();
+        metrics.setId(java.util.UUID.randomUUID().toString());
+        metrics.setUserId(ppgSignal.getUserId());
+        metrics.setDeviceId(ppgSignal.getDeviceId());
+        metrics.setTimestamp(LocalDateTime.now());
+        
+        String signalQuality = signalProcessor.assessSignalQuality(processedChunk, length);
+        metrics.setSignalQuality(signalQuality);
+        metrics.setHeartRate(Math.round(result.heartRate() * 10.0) / 10.0);
+        
+        // HRV needs at least two intervals, i.e. three beats seen so far in the session
+        if (result.intervalCount() >= 2) {
+            metrics.setHrv(Math.round(result.hrv() * 10.0) / 10.0);
+            metrics.setStressLevel(estimateStressLevel(result.hrv()));
+            metrics.setIrregularHeartbeat(result.irregular());
+        } else {
+            metrics.setHrv(0.0);
+            metrics.setStressLevel(0.0);
+            metrics.setIrregularHeartbeat(false);
+        }
+        
+        metrics.setSpo2(estimateSpO2(signalQuality));
+        
+        return metrics;
+    }
+    
+    private double estimateHeartRate(RRSeries rrSeries, SpectralHeartRateEstimator.Estimate spectrum) {
+        double peakHeartRate = rrSeries.heartRate();
+        
+        if ("peaks".equals(heartRateEstimator)) {
+            return peakHeartRate;
+        }
+        
+        double spectralHeartRate = spectrum.heartRate();
+        if ("spectral".equals(heartRateEstimator) || peakHeartRate == 0.0) {
+            return spectralHeartRate;
+        }
+        
+        // Hybrid: trust peak counting unless it clearly disagrees with the dominant frequency
+        if (spectralHeartRate > 0
+                && Math.abs(peakHeartRate - spectralHeartRate) > HEART_RATE_TOLERANCE * spectralHeartRate) {
+            return spectralHeartRate;
+        }
+        return peakHeartRate;
+    }
+    
     private HealthMetrics createErrorMetrics(String errorMessage) {
         HealthMetrics metrics = new HealthMetrics();
         metrics.setId(java.util.UUID.randomUUID().toString());
@@ -91,6 +220,18 @@ public class HealthAnalyzer {
         return metrics;
     }
     
+    private double estimateStressLevel(double hrv, HrvSpectrum spectrum) {
+        double stressLevel = estimateStressLevel(hrv);
+        if (!spectrum.isValid()) {
+            return stressLevel;
+        }
+        
+        // Higher LF/HF means sympathetic dominance: 40 at balance, +/-20 per doubling
+        double spectralStress = 40.0 + 20.0 * Math.log(spectrum.lfHfRatio()) / Math.log(2);
+        spectralStress = Math.max(20.0, Math.min(80.0, spectralStress));
+        return (stressLevel + spectralStress) / 2;
+    }
+    
     private double estimateStressLevel(double hrv) {
         // HRV-based stress estimation
         // Lower HRV generally indicates higher stress
@@ -105,7 +246,7 @@ public class HealthAnalyzer {
         }
     }
     
-    private double estimateSpO2(List<Double> signal, String signalQuality) {
+    private double estimateSpO2(String signalQuality) {
         // This is a simplified SpO2 estimation
         // In reality, this would require dual-wavelength PPG data (red and infrared)
         
@@ -161,6 +302,9 @@ public class HealthAnalyzer {
         if (metrics.getHrv() > 0) {
             summary.append(String.format("HRV: %.1f ms\n", metrics.getHrv()));
             summary.append(String.format("Stress Level: %.1f/100\n", metrics.getStressLevel()));
+            if (metrics.getLfHfRatio() != null) {
+                summary.append(String.format("LF/HF Ratio: %.2f\n", metrics.getLfHfRatio()));
+            }
         }
         
         if (metrics.getIrregularHeartbeat()) {
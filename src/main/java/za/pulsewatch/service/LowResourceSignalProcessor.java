@@ -1,34 +1,57 @@
 package za.pulsewatch.service;
 
 import org.springframework.stereotype.Service;
+import za.pulsewatch.model.RRSeries;
+import za.pulsewatch.model.SignalStatistics;
 
 import java.util.List;
 
 @Service
 public class LowResourceSignalProcessor {
 
+    private final SignalKernels kernels;
+    private final SignalPipelines pipelines;
+    private final AdaptivePeakDetector peakDetector;
+
+    public LowResourceSignalProcessor(SignalKernels kernels, SignalPipelines pipelines, AdaptivePeakDetector peakDetector) {
+        this.kernels = kernels;
+        this.pipelines = pipelines;
+        this.peakDetector = peakDetector;
+    }
+
     /**
      * Optimized signal processing for low-resource environments
      * Uses simpler algorithms that require less computational power
      */
     
     public double[] preprocessLowResource(List<Double> rawData) {
-        // Simple preprocessing without complex filtering
-        double[] processed = new double[rawData.size()];
-        
-        // Basic DC removal (subtract mean)
-        double mean = rawData.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        for (int i = 0; i < rawData.size(); i++) {
-            processed[i] = rawData.get(i) - mean;
-        }
-        
-        // Simple smoothing with moving average (3-point)
-        double[] smoothed = new double[processed.length];
-        for (int i = 1; i < processed.length - 1; i++) {
-            smoothed[i] = (processed[i-1] + processed[i] + processed[i+1]) / 3.0;
-        }
-        
-        return smoothed;
+        return preprocessLowResource(SignalProcessor.toArray(rawData));
+    }
+    
+    /**
+     * Runs the "low-resource" pipeline (DC removal and a 3-point moving average by
+     * default) in place; the sampling rate is not needed by its stages.
+     */
+    public double[] preprocessLowResource(double[] samples) {
+        return preprocessLowResource(samples, samples.length);
+    }
+    
+    public double[] preprocessLowResource(double[] samples, int length) {
+        pipelines.get(SignalPipelines.LOW_RESOURCE).run(samples, length, 0.0, samples);
+        return samples;
+    }
+    
+    /**
+     * Linear-time peak detection with adaptive threshold and refractory period
+     */
+    public int[] detectPeaksLowResource(double[] signal, double samplingRate) {
+        return detectPeaksLowResource(signal, signal.length, samplingRate);
+    }
+    
+    public int[] detectPeaksLowResource(double[] signal, int length, double samplingRate) {
+        int[] peaks = new int[SignalProcessor.peakCapacity(length)];
+        int count = peakDetector.detect(signal, length, samplingRate, peaks);
+        return java.util.Arrays.copyOf(peaks, count);
     }
     
     /**
@@ -50,25 +73,27 @@ public class LowResourceSignalProcessor {
      * Calculate heart rate with minimal computation
      */
     public double calculateHeartRateLowResource(int[] peakIndices, double samplingRate) {
-        if (peakIndices.length < 2) return 0.0;
-        
+        return calculateHeartRateLowResource(RRSeries.fromPeaks(peakIndices, samplingRate));
+    }
+    
+    public double calculateHeartRateLowResource(RRSeries rrSeries) {
         // Simple average interval calculation
-        double totalInterval = 0;
-        for (int i = 1; i < peakIndices.length; i++) {
-            totalInterval += (peakIndices[i] - peakIndices[i-1]) / samplingRate;
-        }
-        
-        double avgInterval = totalInterval / (peakIndices.length - 1);
-        return 60.0 / avgInterval; // Convert to BPM
+        return rrSeries.heartRate();
     }
     
     /**
      * Simple SpO2 estimation based on signal quality
      */
     public double estimateSpO2LowResource(double[] signal) {
+        return estimateSpO2FromRange(getSignalRange(signal));
+    }
+    
+    public double estimateSpO2LowResource(SignalStatistics signalStats) {
+        return estimateSpO2FromRange(signalStats.range());
+    }
+    
+    private double estimateSpO2FromRange(double signalRange) {
         // Simple signal quality assessment
-        double signalRange = getSignalRange(signal);
-        
         if (signalRange < 0.1) return 0.0; // Poor signal
         
         // Basic estimation based on signal characteristics
@@ -80,20 +105,14 @@ public class LowResourceSignalProcessor {
      * Simple HRV calculation using standard deviation
      */
     public double calculateHRVLowResource(int[] peakIndices, double samplingRate) {
-        if (peakIndices.length < 3) return 0.0;
-        
-        double[] intervals = new double[peakIndices.length - 1];
-        for (int i = 0; i < intervals.length; i++) {
-            intervals[i] = (peakIndices[i+1] - peakIndices[i]) / samplingRate;
-        }
-        
-        // Calculate standard deviation
-        double mean = java.util.Arrays.stream(intervals).average().orElse(0.0);
-        double variance = java.util.Arrays.stream(intervals)
-                .map(i -> Math.pow(i - mean, 2))
-                .average().orElse(0.0);
+        return calculateHRVLowResource(RRSeries.fromPeaks(peakIndices, samplingRate));
+    }
+    
+    public double calculateHRVLowResource(RRSeries rrSeries) {
+        if (rrSeries.size() < 2) return 0.0;
         
-        return Math.sqrt(variance);
+        // Population standard deviation of intervals in seconds
+        return rrSeries.statistics().populationStandardDeviation();
     }
     
     /**
@@ -112,26 +131,21 @@ public class LowResourceSignalProcessor {
      * Simple arrhythmia detection
      */
     public boolean detectArrhythmiaLowResource(int[] peakIndices, double samplingRate) {
-        if (peakIndices.length < 3) return false;
-        
-        double[] intervals = new double[peakIndices.length - 1];
-        for (int i = 0; i < intervals.length; i++) {
-            intervals[i] = (peakIndices[i+1] - peakIndices[i]) / samplingRate;
-        }
+        return detectArrhythmiaLowResource(RRSeries.fromPeaks(peakIndices, samplingRate));
+    }
+    
+    public boolean detectArrhythmiaLowResource(RRSeries rrSeries) {
+        if (rrSeries.size() < 2) return false;
         
         // Check coefficient of variation
-        double mean = java.util.Arrays.stream(intervals).average().orElse(0.0);
-        double stdDev = Math.sqrt(java.util.Arrays.stream(intervals)
-                .map(i -> Math.pow(i - mean, 2))
-                .average().orElse(0.0));
-        
-        double cv = stdDev / mean;
+        SignalStatistics intervals = rrSeries.statistics();
+        double cv = intervals.populationStandardDeviation() / intervals.mean();
         return cv > 0.15; // Simple threshold for irregularity
     }
     
     private double getSignalRange(double[] signal) {
-        double max = java.util.Arrays.stream(signal).max().orElse(0.0);
-        double min = java.util.Arrays.stream(signal).min().orElse(0.0);
-        return max - min;
+        if (signal.length == 0) return 0.0;
+        
+        return kernels.max(signal, signal.length) - kernels.min(signal, signal.length);
     }
 }
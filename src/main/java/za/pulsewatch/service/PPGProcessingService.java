@@ -6,12 +6,16 @@ import za.pulsewatch.dto.PPGAnalysisRequest;
 import za.pulsewatch.dto.PPGAnalysisResponse;
 import za.pulsewatch.model.HealthMetrics;
 import za.pulsewatch.model.PPGSignal;
+import za.pulsewatch.model.QualityGateResult;
+import za.pulsewatch.model.RRSeries;
+import za.pulsewatch.model.SignalStatistics;
 import za.pulsewatch.dto.GamificationResponse;
 import za.pulsewatch.model.Achievement;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
+import java.util.UUID;
 
 @Service
 public class PPGProcessingService {
@@ -19,24 +23,55 @@ public class PPGProcessingService {
     private final HealthAnalyzer healthAnalyzer;
     private final MessagePublisher messagePublisher;
     private final LowResourceSignalProcessor lowResourceSignalProcessor;
+    private final SignalEngine signalEngine;
     private final GamificationService gamificationService;
+    private final SignalQualityGate qualityGate;
+    private final UniformResampler resampler;
+    private final ProcessingModeSelector modeSelector;
+    private final AnalysisFeedService analysisFeedService;
 
     @Autowired
     public PPGProcessingService(HealthAnalyzer healthAnalyzer, 
                               MessagePublisher messagePublisher,
                               LowResourceSignalProcessor lowResourceSignalProcessor,
-                              GamificationService gamificationService) {
+                              SignalEngine signalEngine,
+                              GamificationService gamificationService,
+                              SignalQualityGate qualityGate,
+                              UniformResampler resampler,
+                              ProcessingModeSelector modeSelector,
+                              AnalysisFeedService analysisFeedService) {
         this.healthAnalyzer = healthAnalyzer;
         this.messagePublisher = messagePublisher;
         this.lowResourceSignalProcessor = lowResourceSignalProcessor;
+        this.signalEngine = signalEngine;
         this.gamificationService = gamificationService;
+        this.qualityGate = qualityGate;
+        this.resampler = resampler;
+        this.modeSelector = modeSelector;
+        this.analysisFeedService = analysisFeedService;
     }
 
     public PPGAnalysisResponse processPPGSignal(PPGAnalysisRequest request) {
+        return process(request, false);
+    }
+
+    private PPGAnalysisResponse process(PPGAnalysisRequest request, boolean realtime) {
         long startTime = System.currentTimeMillis();
-        
+        modeSelector.requestStarted();
+        try {
+            PPGAnalysisResponse response = analyze(request, realtime, startTime);
+            
+            // Push to the submitter's live feed; hands off without waiting for subscribers
+            analysisFeedService.publish(request.getOwnerId(), response);
+            return response;
+        } finally {
+            modeSelector.requestFinished(System.currentTimeMillis() - startTime);
+        }
+    }
+
+    private PPGAnalysisResponse analyze(PPGAnalysisRequest request, boolean realtime, long startTime) {
         PPGAnalysisResponse response = new PPGAnalysisResponse(
-            request.getSessionId(),
+            responseId(request),
             request.getUserId(),
             request.getDeviceId()
         );
@@ -51,15 +86,61 @@ public class PPGProcessingService {
             ppgSignal.setDeviceId(request.getDeviceId());
             ppgSignal.setTimestamp(LocalDateTime.now());
 
-            // Check if low-resource mode should be used
-            boolean useLowResource = shouldUseLowResourceMode(request);
+            // Full or low-resource analysis, from the recording and the current load
+            ProcessingModeSelector.ModeDecision mode =
+                modeSelector.decide(request.getRawData().size(), request.getSamplingRate());
+            
+            // Cheap quality gate before the expensive stages; realtime chunks are too short for it
+            double[] samples = null;
+            int length = 0;
+            double samplingRate = request.getSamplingRate();
+            if (!realtime) {
+                // Parsed straight into a primitive buffer; every stage below only reads it
+                samples = request.getRawData().array();
+                length = request.getRawData().size();
+                
+                // Jittery frame times are resampled onto a uniform grid once, for every stage below
+                double[] sampleTimes = UniformResampler.sampleTimes(
+                    request.getTimestamps(), request.getFrameDeltas(), length);
+                if (sampleTimes != null) {
+                    UniformResampler.Resampled resampled = resampler.resample(samples, sampleTimes, length);
+                    samples = resampled.samples();
+                    length = resampled.length();
+                    samplingRate = resampled.samplingRate();
+                }
+                
+                QualityGateResult gate = qualityGate.evaluate(samples, length, samplingRate);
+                response.setQualityGate(gate);
+                
+                if (gate.isRejected()) {
+                    response.setMetrics(createRejectedMetrics(request));
+                    response.setStatus("REJECTED");
+                    response.setMessage("PPG signal rejected by quality gate: " + gate.gate());
+                    messagePublisher.publishAnalysisResult(response);
+                    response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+                    return response;
+                }
+                // A marginal recording only gets the cheap analysis
+                if (gate.isDowngraded()) {
+                    mode = new ProcessingModeSelector.ModeDecision(ProcessingModeSelector.LOW_RESOURCE, "quality-gate");
+                }
+                response.setProcessingMode(mode.mode());
+                response.setModeReason(mode.reason());
+            }
             
             // Analyze the signal
             HealthMetrics metrics;
-            if (useLowResource) {
-                metrics = processLowResource(request);
+            if (realtime) {
+                // Realtime chunks continue the session's streaming state, if the client named one
+                metrics = healthAnalyzer.analyzeRealtimeChunk(ppgSignal, request.getOwnerId());
+            } else if (mode.isLowResource()) {
+                metrics = processLowResource(request, samples, length, samplingRate);
             } else {
-                metrics = healthAnalyzer.analyzePPGSignal(ppgSignal);
+                metrics = healthAnalyzer.analyzeSamples(ppgSignal, samples, length, samplingRate);
+            }
+            if (response.getQualityGate() != null && response.getQualityGate().isDowngraded()
+                    && !"poor".equals(metrics.getSignalQuality())) {
+                metrics.setSignalQuality("fair");
             }
             
             // Apply gamification
@@ -89,7 +170,7 @@ public class PPGProcessingService {
     }
 
     public PPGAnalysisResponse processRealtimePPG(PPGAnalysisRequest request) {
-        PPGAnalysisResponse response = processPPGSignal(request);
+        PPGAnalysisResponse response = process(request, true);
         
         // Publish realtime update
         messagePublisher.publishRealtimeUpdate(request.getUserId(), response);
@@ -97,32 +178,32 @@ public class PPGProcessingService {
         return response;
     }
 
-    private boolean shouldUseLowResourceMode(PPGAnalysisRequest request) {
-        // Logic to determine if low-resource mode should be used
-        return request.getRawData().size() < 1000 || request.getSamplingRate() < 30;
-    }
-
-    private HealthMetrics processLowResource(PPGAnalysisRequest request) {
-        double[] processed = lowResourceSignalProcessor.preprocessLowResource(request.getRawData());
-        int[] peaks = lowResourceSignalProcessor.detectPeaksLowResource(processed);
+    private HealthMetrics processLowResource(PPGAnalysisRequest request, double[] samples, int length,
+                                             double samplingRate) {
+        // The "low-resource" pipeline and beat detection, in the configured engine
+        SignalEngine.Result analysis = signalEngine.analyze(
+            samples, length, samplingRate, SignalPipelines.LOW_RESOURCE, false);
         
         HealthMetrics metrics = new HealthMetrics();
         metrics.setUserId(request.getUserId());
         metrics.setDeviceId(request.getDeviceId());
         
-        double samplingRate = request.getSamplingRate();
+        // Statistics and the interval series come out of one engine pass; every metric reads from these
+        SignalStatistics signalStats = analysis.signalStats();
+        RRSeries rrSeries = analysis.rrSeries();
         
         // Calculate metrics using low-resource algorithms
-        metrics.setHeartRate(lowResourceSignalProcessor.calculateHeartRateLowResource(peaks, samplingRate));
-        metrics.setSpo2(lowResourceSignalProcessor.estimateSpO2LowResource(processed));
-        metrics.setHrv(lowResourceSignalProcessor.calculateHRVLowResource(peaks, samplingRate));
+        metrics.setHeartRate(lowResourceSignalProcessor.calculateHeartRateLowResource(rrSeries));
+        metrics.setSpo2(lowResourceSignalProcessor.estimateSpO2LowResource(signalStats));
+        metrics.setHrv(lowResourceSignalProcessor.calculateHRVLowResource(rrSeries));
+        metrics.setRmssd(rrSeries.rmssd());
+        metrics.setPnn50(rrSeries.pnn50());
         metrics.setStressLevel(lowResourceSignalProcessor.calculateStressLevelLowResource(
             metrics.getHrv()));
-        metrics.setIrregularHeartbeat(lowResourceSignalProcessor.detectArrhythmiaLowResource(peaks, samplingRate));
+        metrics.setIrregularHeartbeat(lowResourceSignalProcessor.detectArrhythmiaLowResource(rrSeries));
         
         // Signal quality estimation
-        double signalRange = getSignalRange(processed);
-        metrics.setSignalQuality(signalRange < 0.1 ? "poor" : "good");
+        metrics.setSignalQuality(signalStats.range() < 0.1 ? "poor" : "good");
         
         return metrics;
     }
@@ -171,10 +252,31 @@ public class PPGProcessingService {
         );
     }
 
-    private double getSignalRange(double[] signal) {
-        double max = java.util.Arrays.stream(signal).max().orElse(0.0);
-        double min = java.util.Arrays.stream(signal).min().orElse(0.0);
-        return max - min;
+    /**
+     * Response for a request that never produced metrics, e.g. a batch item that
+     * timed out or could not be queued.
+     */
+    public PPGAnalysisResponse createFailedResponse(PPGAnalysisRequest request, String status, String message) {
+        PPGAnalysisResponse response = new PPGAnalysisResponse(
+            responseId(request),
+            request.getUserId(),
+            request.getDeviceId()
+        );
+        response.setStatus(status);
+        response.setMessage(message);
+        response.setMetrics(createErrorMetrics(request.getUserId()));
+        return response;
+    }
+
+    // Requests without a session id still get a unique id on their response
+    private static String responseId(PPGAnalysisRequest request) {
+        return request.getSessionId() != null ? request.getSessionId() : UUID.randomUUID().toString();
+    }
+
+    private HealthMetrics createRejectedMetrics(PPGAnalysisRequest request) {
+        HealthMetrics metrics = createErrorMetrics(request.getUserId());
+        metrics.setDeviceId(request.getDeviceId());
+        return metrics;
     }
 
     private HealthMetrics createErrorMetrics(String userId) {
@@ -0,0 +1,122 @@
+package za.pulsewatch.service;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Integer-factor decimator with a linear-phase FIR anti-alias filter.
+ *
+ * The filter is a Hamming-windowed sinc with its cutoff at the output Nyquist
+ * frequency and {@code tapsPerPhase} taps per polyphase branch. It is only
+ * evaluated at the retained output instants, which is the polyphase form of
+ * filter-then-downsample: the cost is about {@code tapsPerPhase} multiply-adds
+ * per input sample, whatever the factor. The filter is centred, so output
+ * sample {@code k} lines up exactly with input sample {@code k * factor}.
+ *
+ * Designs are cached per (factor, tapsPerPhase), capped like the bandpass designs.
+ */
+public final class PolyphaseDecimator {
+
+    private static final int MAX_CACHED_DESIGNS = 64;
+
+    private static final ConcurrentMap<DesignKey, PolyphaseDecimator> DESIGNS = new ConcurrentHashMap<>();
+
+    private record DesignKey(int factor, int tapsPerPhase) {}
+
+    private final int factor;
+    private final int half;
+    private final double[] taps;
+
+    private PolyphaseDecimator(int factor, int tapsPerPhase) {
+        this.factor = factor;
+        this.half = tapsPerPhase * factor / 2;
+        this.taps = design(factor, 2 * half + 1);
+    }
+
+    public static PolyphaseDecimator of(int factor, int tapsPerPhase) {
+        if (factor < 1) {
+            throw new IllegalArgumentException("Decimation factor must be at least 1");
+        }
+        if (tapsPerPhase < 2) {
+            throw new IllegalArgumentException("Decimator needs at least 2 taps per phase");
+        }
+        DesignKey key = new DesignKey(factor, tapsPerPhase);
+        PolyphaseDecimator decimator = DESIGNS.get(key);
+        if (decimator != null) {
+            return decimator;
+        }
+
+        decimator = new PolyphaseDecimator(factor, tapsPerPhase);
+        if (DESIGNS.size() < MAX_CACHED_DESIGNS) {
+            PolyphaseDecimator existing = DESIGNS.putIfAbsent(key, decimator);
+            if (existing != null) {
+                return existing;
+            }
+        }
+        return decimator;
+    }
+
+    public int getFactor() {
+        return factor;
+    }
+
+    public int outputLength(int inputLength) {
+        return (inputLength + factor - 1) / factor;
+    }
+
+    /**
+     * Filters and downsamples the first {@code length} samples of {@code input} into
+     * {@code output}, which must hold {@link #outputLength(int)} samples. Samples
+     * beyond either end are taken to repeat the edge value.
+     */
+    public void decimate(double[] input, int length, double[] output) {
+        int outputs = outputLength(length);
+        if (factor == 1) {
+            System.arraycopy(input, 0, output, 0, length);
+            return;
+        }
+
+        for (int k = 0; k < outputs; k++) {
+            int start = k * factor - half;
+            double sum = 0.0;
+            if (start >= 0 && start + taps.length <= length) {
+                // Interior: contiguous dot product
+                for (int j = 0; j < taps.length; j++) {
+                    sum += taps[j] * input[start + j];
+                }
+            } else {
+                for (int j = 0; j < taps.length; j++) {
+                    int index = Math.max(0, Math.min(length - 1, start + j));
+                    sum += taps[j] * input[index];
+                }
+            }
+            output[k] = sum;
+        }
+    }
+
+    private static double[] design(int factor, int length) {
+        double[] taps = new double[length];
+        if (factor == 1) {
+            taps[length / 2] = 1.0;
+            return taps;
+        }
+
+        // Cutoff at the output Nyquist, in cycles per input sample
+        double cutoff = 0.5 / factor;
+        int centre = length / 2;
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            int n = i - centre;
+            double sinc = n == 0 ? 2 * cutoff : Math.sin(2 * Math.PI * cutoff * n) / (Math.PI * n);
+            double window = 0.54 - 0.46 * Math.cos(2 * Math.PI * i / (length - 1));
+            taps[i] = sinc * window;
+            sum += taps[i];
+        }
+
+        // Unity gain at DC
+        for (int i = 0; i < length; i++) {
+            taps[i] /= sum;
+        }
+        return taps;
+    }
+}
@@ -0,0 +1,181 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntSupplier;
+
+/**
+ * Chooses between the full and the low-resource analysis for each request.
+ *
+ * Besides the static rules (short recording, low sampling rate) it watches three
+ * load signals: requests currently in flight, the depth of any registered work
+ * queues, and the p95 of recent processing latencies. Crossing any limit switches
+ * the service into degraded mode; it only returns to full analysis once every
+ * signal has fallen below {@code recovery-ratio} of its limit and the
+ * last overload is at least {@code min-dwell-ms} old, so it does not flap at the edge.
+ */
+@Service
+public class ProcessingModeSelector {
+
+    public static final String FULL = "full";
+    public static final String LOW_RESOURCE = "low-resource";
+
+    @Value("${ppg.load.enabled:true}")
+    private boolean enabled = true;
+
+    // 0 means twice the number of available processors
+    @Value("${ppg.load.max-in-flight:0}")
+    private int maxInFlight = 0;
+
+    @Value("${ppg.load.max-queue-depth:100}")
+    private int maxQueueDepth = 100;
+
+    @Value("${ppg.load.max-p95-latency-ms:500}")
+    private long maxP95LatencyMs = 500;
+
+    @Value("${ppg.load.recovery-ratio:0.7}")
+    private double recoveryRatio = 0.7;
+
+    @Value("${ppg.load.min-dwell-ms:5000}")
+    private long minDwellMs = 5000;
+
+    // Number of recent latencies the p95 is taken over
+    private static final int LATENCY_WINDOW = 256;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLongArray latencies = new AtomicLongArray(LATENCY_WINDOW);
+    private final AtomicLong latencyCount = new AtomicLong();
+    private final Map<String, IntSupplier> queues = new ConcurrentHashMap<>();
+
+    private volatile boolean degraded;
+    private volatile long degradedSince;
+
+    /**
+     * Mode chosen for one request and why, e.g. "in-flight 40 >= 32".
+     */
+    public record ModeDecision(String mode, String reason) {
+
+        public boolean isLowResource() {
+            return LOW_RESOURCE.equals(mode);
+        }
+    }
+
+    /**
+     * Registers a work queue whose depth counts towards the load; executors call
+     * this once at startup.
+     */
+    public void registerQueue(String name, IntSupplier depth) {
+        queues.put(name, depth);
+    }
+
+    /** Marks a request as started; pair with {@link #requestFinished(long)}. */
+    public void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    public void requestFinished(long latencyMs) {
+        inFlight.decrementAndGet();
+        long slot = latencyCount.getAndIncrement() % LATENCY_WINDOW;
+        latencies.set((int) slot, latencyMs);
+    }
+
+    public ModeDecision decide(int sampleCount, double samplingRate) {
+        // Static rules: these recordings are not worth the full pipeline at any load
+        if (sampleCount < 1000) {
+            return new ModeDecision(LOW_RESOURCE, "short-recording");
+        }
+        if (samplingRate < 30) {
+            return new ModeDecision(LOW_RESOURCE, "low-sampling-rate");
+        }
+        if (!enabled) {
+            return new ModeDecision(FULL, "nominal");
+        }
+
+        int inFlightLimit = maxInFlight > 0 ? maxInFlight : Runtime.getRuntime().availableProcessors() * 2;
+        int currentInFlight = inFlight.get();
+        int queueDepth = queueDepth();
+        long p95 = p95LatencyMs();
+
+        String overload = null;
+        if (currentInFlight >= inFlightLimit) {
+            overload = "in-flight " + currentInFlight + " >= " + inFlightLimit;
+        } else if (queueDepth >= maxQueueDepth) {
+            overload = "queue-depth " + queueDepth + " >= " + maxQueueDepth;
+        } else if (p95 >= maxP95LatencyMs) {
+            overload = "p95-latency " + p95 + "ms >= " + maxP95LatencyMs + "ms";
+        }
+
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            if (overload != null) {
+                // Dwell time counts from the last overloaded decision
+                degraded = true;
+                degradedSince = now;
+                return new ModeDecision(LOW_RESOURCE, overload);
+            }
+
+            if (degraded) {
+                boolean cleared = currentInFlight < inFlightLimit * recoveryRatio
+                    && queueDepth < maxQueueDepth * recoveryRatio
+                    && p95 < maxP95LatencyMs * recoveryRatio;
+                if (!cleared || now - degradedSince < minDwellMs) {
+                    return new ModeDecision(LOW_RESOURCE, "recovering");
+                }
+                degraded = false;
+            }
+        }
+        return new ModeDecision(FULL, "nominal");
+    }
+
+    public boolean isDegraded() {
+        return degraded;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (IntSupplier queue : queues.values()) {
+            depth += queue.getAsInt();
+        }
+        return depth;
+    }
+
+    public long p95LatencyMs() {
+        int samples = (int) Math.min(latencyCount.get(), LATENCY_WINDOW);
+        if (samples == 0) {
+            return 0;
+        }
+
+        // The p95 is the tail-th largest latency (13th of 256): keep just that many
+        // largest values, ascending, instead of sorting the window on every decision
+        int tail = samples - (int) Math.ceil(0.95 * samples) + 1;
+        long[] largest = new long[tail];
+        int kept = 0;
+        for (int i = 0; i < samples; i++) {
+            long value = latencies.get(i);
+            if (kept < tail) {
+                int j = kept++;
+                for (; j > 0 && largest[j - 1] > value; j--) {
+                    largest[j] = largest[j - 1];
+                }
+                largest[j] = value;
+            } else if (value > largest[0]) {
+                int j = 1;
+                for (; j < tail && largest[j] < value; j++) {
+                    largest[j - 1] = largest[j];
+                }
+                largest[j - 1] = value;
+            }
+        }
+        return largest[0];
+    }
+}
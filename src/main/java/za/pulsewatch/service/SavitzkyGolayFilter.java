@@ -0,0 +1,152 @@
+package za.pulsewatch.service;
+
+import org.apache.commons.math3.linear.MatrixUtils;
+import org.apache.commons.math3.linear.QRDecomposition;
+import org.apache.commons.math3.linear.RealMatrix;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Savitzky-Golay smoother: a least-squares polynomial fit over a sliding window,
+ * applied as a convolution with precomputed coefficients.
+ *
+ * For a window of {@code 2m + 1} samples the coefficient matrix has one row per
+ * position in the window. The middle row is the ordinary smoothing kernel; the
+ * other rows evaluate the same fit off-centre and are used for the first and last
+ * {@code m} samples, so the edges are fitted rather than truncated.
+ */
+public final class SavitzkyGolayFilter {
+
+    private static final ConcurrentMap<KernelKey, SavitzkyGolayFilter> KERNELS = new ConcurrentHashMap<>();
+
+    private record KernelKey(int windowSize, int polynomialOrder) {}
+
+    private final int windowSize;
+    private final int halfWindow;
+    // Middle row of the coefficient matrix, used for the interior convolution
+    private final double[] centreKernel;
+    // Row-major windowSize x windowSize: row r evaluates the fit at offset r - halfWindow
+    private final double[] coefficients;
+
+    private SavitzkyGolayFilter(int windowSize, int polynomialOrder) {
+        this.windowSize = windowSize;
+        this.halfWindow = windowSize / 2;
+        this.coefficients = computeCoefficients(windowSize, polynomialOrder);
+        this.centreKernel = new double[windowSize];
+        System.arraycopy(coefficients, halfWindow * windowSize, centreKernel, 0, windowSize);
+    }
+
+    public static SavitzkyGolayFilter of(int windowSize, int polynomialOrder) {
+        if (windowSize < 3 || windowSize % 2 == 0) {
+            throw new IllegalArgumentException("Savitzky-Golay window must be odd and at least 3");
+        }
+        if (polynomialOrder < 0 || polynomialOrder >= windowSize) {
+            throw new IllegalArgumentException("Polynomial order must be between 0 and window size - 1");
+        }
+        return KERNELS.computeIfAbsent(new KernelKey(windowSize, polynomialOrder),
+                key -> new SavitzkyGolayFilter(key.windowSize(), key.polynomialOrder()));
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Smooths the first {@code length} samples of {@code input} into {@code output}.
+     * The two arrays must not overlap. Signals shorter than the window are copied
+     * through unchanged.
+     */
+    public void smooth(double[] input, int length, double[] output) {
+        smooth(input, length, output, ScalarSignalKernels.INSTANCE);
+    }
+
+    /**
+     * As {@link #smooth(double[], int, double[])}, running the interior
+     * convolution on the given kernels.
+     */
+    public void smooth(double[] input, int length, double[] output, SignalKernels kernels) {
+        if (length < windowSize) {
+            System.arraycopy(input, 0, output, 0, length);
+            return;
+        }
+
+        // Left edge: fit over the first window, evaluated off-centre
+        for (int i = 0; i < halfWindow; i++) {
+            output[i] = dot(i, input, 0);
+        }
+
+        // Interior: plain symmetric convolution
+        kernels.convolve(input, length, centreKernel, output);
+
+        // Right edge: fit over the last window
+        int lastWindowStart = length - windowSize;
+        for (int i = length - halfWindow; i < length; i++) {
+            output[i] = dot(i - lastWindowStart, input, lastWindowStart);
+        }
+    }
+
+    /**
+     * Single-precision variant of {@link #smooth(double[], int, double[])},
+     * accumulating in double.
+     */
+    public void smooth(float[] input, int length, float[] output) {
+        if (length < windowSize) {
+            System.arraycopy(input, 0, output, 0, length);
+            return;
+        }
+
+        for (int i = 0; i < length; i++) {
+            // Edges use the off-centre rows of the first or last full window
+            int start = Math.max(0, Math.min(i - halfWindow, length - windowSize));
+            int offset = (i - start) * windowSize;
+            double sum = 0.0;
+            for (int j = 0; j < windowSize; j++) {
+                sum += coefficients[offset + j] * input[start + j];
+            }
+            output[i] = (float) sum;
+        }
+    }
+
+    private double dot(int row, double[] input, int start) {
+        int offset = row * windowSize;
+        double sum = 0.0;
+        for (int j = 0; j < windowSize; j++) {
+            sum += coefficients[offset + j] * input[start + j];
+        }
+        return sum;
+    }
+
+    private static double[] computeCoefficients(int windowSize, int polynomialOrder) {
+        int half = windowSize / 2;
+        int terms = polynomialOrder + 1;
+
+        // Vandermonde design matrix over window offsets -half..half
+        RealMatrix design = MatrixUtils.createRealMatrix(windowSize, terms);
+        for (int i = 0; i < windowSize; i++) {
+            double power = 1.0;
+            for (int j = 0; j < terms; j++) {
+                design.setEntry(i, j, power);
+                power *= i - half;
+            }
+        }
+
+        // Least-squares projection: row j maps window samples to polynomial coefficient j
+        RealMatrix projection = new QRDecomposition(design).getSolver().getInverse();
+
+        double[] result = new double[windowSize * windowSize];
+        for (int row = 0; row < windowSize; row++) {
+            double t = row - half;
+            for (int col = 0; col < windowSize; col++) {
+                double value = 0.0;
+                double power = 1.0;
+                for (int j = 0; j < terms; j++) {
+                    value += projection.getEntry(j, col) * power;
+                    power *= t;
+                }
+                result[row * windowSize + col] = value;
+            }
+        }
+        return result;
+    }
+}
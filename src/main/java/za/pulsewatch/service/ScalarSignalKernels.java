@@ -0,0 +1,91 @@
+package za.pulsewatch.service;
+
+/**
+ * Plain-loop kernels; always available.
+ */
+final class ScalarSignalKernels implements SignalKernels {
+
+    static final ScalarSignalKernels INSTANCE = new ScalarSignalKernels();
+
+    private ScalarSignalKernels() {}
+
+    @Override
+    public String name() {
+        return "scalar";
+    }
+
+    @Override
+    public double sum(double[] values, int length) {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(double[] values, int length) {
+        if (length <= 0) {
+            return 0.0;
+        }
+        double min = values[0];
+        for (int i = 1; i < length; i++) {
+            if (values[i] < min) min = values[i];
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] values, int length) {
+        if (length <= 0) {
+            return 0.0;
+        }
+        double max = values[0];
+        for (int i = 1; i < length; i++) {
+            if (values[i] > max) max = values[i];
+        }
+        return max;
+    }
+
+    @Override
+    public void subtract(double[] values, int length, double offset, double[] output) {
+        for (int i = 0; i < length; i++) {
+            output[i] = values[i] - offset;
+        }
+    }
+
+    @Override
+    public void normalize(double[] values, int length, double min, double range) {
+        for (int i = 0; i < length; i++) {
+            values[i] = (values[i] - min) / range;
+        }
+    }
+
+    @Override
+    public void affine(double[] values, int length, double scale, double offset, double[] output) {
+        for (int i = 0; i < length; i++) {
+            output[i] = scale * values[i] + offset;
+        }
+    }
+
+    @Override
+    public void movingAverage3(double[] values, int length, double[] output) {
+        for (int i = 1; i < length - 1; i++) {
+            output[i] = (values[i - 1] + values[i] + values[i + 1]) / 3.0;
+        }
+    }
+
+    @Override
+    public void convolve(double[] input, int length, double[] kernel, double[] output) {
+        int taps = kernel.length;
+        int half = taps / 2;
+        for (int i = half; i < length - half; i++) {
+            int start = i - half;
+            double sum = 0.0;
+            for (int j = 0; j < taps; j++) {
+                sum += kernel[j] * input[start + j];
+            }
+            output[i] = sum;
+        }
+    }
+}
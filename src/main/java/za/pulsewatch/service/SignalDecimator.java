@@ -0,0 +1,45 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Front-end that brings high-frame-rate input down to a canonical analysis rate
+ * before the preprocessing pipeline runs.
+ *
+ * The factor is the largest integer that keeps the output at or above
+ * {@code ppg.decimation.target-rate}, so 240 fps becomes 26.7 Hz and 120 fps
+ * becomes 30 Hz. Input already near the target passes through untouched, and so
+ * does input that would need more than {@code ppg.decimation.max-factor}: the
+ * anti-alias filter grows with the factor, so an absurd rate must not size it.
+ */
+@Service
+public class SignalDecimator {
+
+    @Value("${ppg.decimation.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ppg.decimation.target-rate:25}")
+    private double targetRate = 25;
+
+    @Value("${ppg.decimation.taps-per-phase:8}")
+    private int tapsPerPhase = 8;
+
+    @Value("${ppg.decimation.max-factor:40}")
+    private int maxFactor = 40;
+
+    /**
+     * Decimation factor for the given input rate; 1 means no decimation.
+     */
+    public int factorFor(double samplingRate) {
+        if (!enabled || targetRate <= 0 || samplingRate < 2 * targetRate) {
+            return 1;
+        }
+        double factor = Math.floor(samplingRate / targetRate);
+        return factor <= maxFactor ? (int) factor : 1;
+    }
+
+    public PolyphaseDecimator decimatorFor(double samplingRate) {
+        return PolyphaseDecimator.of(factorFor(samplingRate), tapsPerPhase);
+    }
+}
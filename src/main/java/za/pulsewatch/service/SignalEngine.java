@@ -0,0 +1,38 @@
+package za.pulsewatch.service;
+
+import za.pulsewatch.model.RRSeries;
+import za.pulsewatch.model.SignalStatistics;
+
+/**
+ * Preprocessing and beat detection behind one API, so callers do not care about
+ * the numeric representation of the working buffers.
+ *
+ * The double engine is the reference. The float32 engine keeps its working
+ * buffers in single precision, halving them; the parsed input stays double, so
+ * a concurrent recording holds a little over half the memory it would otherwise.
+ * Which one is wired in depends on the active profile: "offline" gets float32,
+ * everything else (including "cloud") gets double.
+ */
+public interface SignalEngine {
+
+    /** "double" or "float32", for diagnostics. */
+    String name();
+
+    /** Bytes each sample occupies in the engine's working buffers. */
+    int bytesPerSample();
+
+    /**
+     * Runs the named pipeline ({@link SignalPipelines#FULL} or
+     * {@link SignalPipelines#LOW_RESOURCE}) over uniformly sampled data, detects
+     * beats and, if {@code withSpectrum}, estimates the dominant cardiac frequency.
+     * {@code samples} is only read.
+     */
+    Result analyze(double[] samples, int length, double samplingRate, String pipeline, boolean withSpectrum);
+
+    /**
+     * Everything downstream metrics need; the processed waveform itself is not kept.
+     */
+    record Result(RRSeries rrSeries,
+                  SignalStatistics signalStats,
+                  SpectralHeartRateEstimator.Estimate spectrum) {}
+}
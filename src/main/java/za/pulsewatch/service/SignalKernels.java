@@ -0,0 +1,83 @@
+package za.pulsewatch.service;
+
+/**
+ * Element-wise kernels on the hot preprocessing paths.
+ *
+ * Two implementations exist: a plain scalar one and one built on the incubating
+ * JDK Vector API. The vector module is only usable when the JVM is started with
+ * {@code --add-modules jdk.incubator.vector}, so the implementation is chosen
+ * once at startup via {@link #select(String)} and the scalar kernels remain the
+ * fallback everywhere else.
+ */
+public interface SignalKernels {
+
+    String VECTOR_MODULE = "jdk.incubator.vector";
+
+    /** "vector" or "scalar", for diagnostics. */
+    String name();
+
+    double sum(double[] values, int length);
+
+    /** Smallest of the first {@code length} values; 0.0 when there are none, as in SignalStatistics.EMPTY. */
+    double min(double[] values, int length);
+
+    /** Largest of the first {@code length} values; 0.0 when there are none. */
+    double max(double[] values, int length);
+
+    /**
+     * {@code output[i] = values[i] - offset}. Input and output may be the same array.
+     */
+    void subtract(double[] values, int length, double offset, double[] output);
+
+    /**
+     * {@code values[i] = (values[i] - min) / range}, in place.
+     */
+    void normalize(double[] values, int length, double min, double range);
+
+    /**
+     * {@code output[i] = scale * values[i] + offset}. Input and output may be the same array.
+     */
+    void affine(double[] values, int length, double scale, double offset, double[] output);
+
+    /**
+     * Centred three-point moving average into {@code output}; the first and last
+     * samples are left at zero. Input and output must not overlap.
+     */
+    void movingAverage3(double[] values, int length, double[] output);
+
+    /**
+     * Symmetric FIR convolution for the interior samples
+     * {@code kernel.length / 2 <= i < length - kernel.length / 2}:
+     * {@code output[i] = sum_j kernel[j] * input[i - kernel.length / 2 + j]}.
+     * Edge samples of {@code output} are left untouched.
+     */
+    void convolve(double[] input, int length, double[] kernel, double[] output);
+
+    static boolean isVectorApiAvailable() {
+        return ModuleLayer.boot().findModule(VECTOR_MODULE).isPresent();
+    }
+
+    /**
+     * Picks the implementation for {@code mode}: "scalar", "vector", or "auto"
+     * (vector when the module is present and the CPU offers more than one lane).
+     */
+    static SignalKernels select(String mode) {
+        switch (mode == null ? "auto" : mode.toLowerCase()) {
+            case "scalar":
+                return ScalarSignalKernels.INSTANCE;
+            case "vector":
+                if (!isVectorApiAvailable()) {
+                    throw new IllegalStateException(
+                        "Vector kernels requested but the JVM was started without --add-modules " + VECTOR_MODULE);
+                }
+                return new VectorSignalKernels();
+            case "auto":
+                if (isVectorApiAvailable() && VectorSignalKernels.preferredLanes() > 1) {
+                    return new VectorSignalKernels();
+                }
+                return ScalarSignalKernels.INSTANCE;
+            default:
+                throw new IllegalArgumentException("Unknown SIMD mode: " + mode);
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package za.pulsewatch.service;
+
+import za.pulsewatch.model.SignalStatistics;
+import za.pulsewatch.service.ElementWiseStage.Affine;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An ordered, immutable chain of {@link SignalStage}s.
+ *
+ * At build time every run of adjacent {@link ElementWiseStage}s is compiled into
+ * one fused step: the input's mean and extremes are gathered once, carried through
+ * each stage's affine map, and the composed map is applied in a single kernel pass.
+ * Block stages run in place and share one per-thread scratch buffer, so a warm
+ * pipeline allocates nothing per call.
+ */
+public final class SignalPipeline {
+
+    private final String name;
+    private final List<SignalStage> stages;
+    // Stages after fusion; fused runs appear as a single FusedStage
+    private final SignalStage[] steps;
+    private final SignalKernels kernels;
+
+    private final ThreadLocal<double[]> scratch = ThreadLocal.withInitial(() -> new double[0]);
+    private final ThreadLocal<float[]> floatScratch = ThreadLocal.withInitial(() -> new float[0]);
+
+    private SignalPipeline(String name, List<SignalStage> stages, SignalKernels kernels) {
+        this.name = name;
+        this.stages = Collections.unmodifiableList(new ArrayList<>(stages));
+        this.kernels = kernels;
+        this.steps = fuse(stages, kernels);
+    }
+
+    public static Builder builder(String name, SignalKernels kernels) {
+        return new Builder(name, kernels);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /** Stages as configured, before fusion. */
+    public List<SignalStage> getStages() {
+        return stages;
+    }
+
+    /** Number of passes actually executed per run, after fusion. */
+    public int getStepCount() {
+        return steps.length;
+    }
+
+    /**
+     * Runs the pipeline over the first {@code length} samples of {@code input},
+     * writing the result to {@code output}. Input and output may be the same array.
+     */
+    public void run(double[] input, int length, double samplingRate, double[] output) {
+        if (length == 0) {
+            return;
+        }
+
+        int first = 0;
+        if (steps.length > 0 && steps[0] instanceof FusedStage fused) {
+            // A leading fused step reads straight from the input, saving the copy
+            fused.apply(input, length, output);
+            first = 1;
+        } else if (input != output) {
+            System.arraycopy(input, 0, output, 0, length);
+        }
+
+        double[] buffer = scratchBuffer(length);
+        for (int i = first; i < steps.length; i++) {
+            steps[i].process(output, length, samplingRate, buffer);
+        }
+    }
+
+    public double[] run(double[] input, double samplingRate) {
+        double[] output = new double[input.length];
+        run(input, input.length, samplingRate, output);
+        return output;
+    }
+
+    /**
+     * Runs the pipeline in single precision, in place over the first
+     * {@code length} samples. Stages without a float implementation run through
+     * the widening default of {@link SignalStage}.
+     */
+    public void run(float[] signal, int length, double samplingRate) {
+        if (length == 0) {
+            return;
+        }
+
+        float[] buffer = floatScratch.get();
+        if (buffer.length < length) {
+            buffer = new float[length];
+            floatScratch.set(buffer);
+        }
+        for (SignalStage step : steps) {
+            step.process(signal, length, samplingRate, buffer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        List<String> names = new ArrayList<>(stages.size());
+        for (SignalStage stage : stages) {
+            names.add(stage.name());
+        }
+        return name + names;
+    }
+
+    private double[] scratchBuffer(int length) {
+        double[] buffer = scratch.get();
+        if (buffer.length < length) {
+            buffer = new double[length];
+            scratch.set(buffer);
+        }
+        return buffer;
+    }
+
+    private static SignalStage[] fuse(List<SignalStage> stages, SignalKernels kernels) {
+        List<SignalStage> steps = new ArrayList<>();
+        List<ElementWiseStage> run = new ArrayList<>();
+        for (SignalStage stage : stages) {
+            if (stage instanceof ElementWiseStage elementWise) {
+                run.add(elementWise);
+                continue;
+            }
+            if (!run.isEmpty()) {
+                steps.add(new FusedStage(run, kernels));
+                run = new ArrayList<>();
+            }
+            steps.add(stage);
+        }
+        if (!run.isEmpty()) {
+            steps.add(new FusedStage(run, kernels));
+        }
+        return steps.toArray(new SignalStage[0]);
+    }
+
+    /**
+     * A run of element-wise stages executed as one reduction plus one mapping pass.
+     */
+    private static final class FusedStage implements SignalStage {
+
+        private final ElementWiseStage[] members;
+        private final boolean needsStatistics;
+        private final SignalKernels kernels;
+
+        FusedStage(List<ElementWiseStage> members, SignalKernels kernels) {
+            this.members = members.toArray(new ElementWiseStage[0]);
+            this.kernels = kernels;
+            boolean needs = false;
+            for (ElementWiseStage member : members) {
+                needs |= member.needsStatistics();
+            }
+            this.needsStatistics = needs;
+        }
+
+        @Override
+        public String name() {
+            StringBuilder name = new StringBuilder();
+            for (ElementWiseStage member : members) {
+                name.append(name.length() == 0 ? "" : "+").append(member.name());
+            }
+            return name.toString();
+        }
+
+        @Override
+        public void process(double[] signal, int length, double samplingRate, double[] scratch) {
+            apply(signal, length, signal);
+        }
+
+        @Override
+        public void process(float[] signal, int length, double samplingRate, float[] scratch) {
+            SignalStatistics statistics = needsStatistics ? SignalStatistics.of(signal, length) : SignalStatistics.EMPTY;
+            compose(statistics.mean(), statistics.min(), statistics.max()).apply(signal, length);
+        }
+
+        void apply(double[] input, int length, double[] output) {
+            double mean = 0.0, min = 0.0, max = 0.0;
+            if (needsStatistics && length > 0) {
+                mean = kernels.sum(input, length) / length;
+                min = kernels.min(input, length);
+                max = kernels.max(input, length);
+            }
+
+            Affine composed = compose(mean, min, max);
+            kernels.affine(input, length, composed.scale(), composed.offset(), output);
+        }
+
+        private Affine compose(double mean, double min, double max) {
+            // Carry the statistics through each map while composing the maps
+            Affine composed = Affine.IDENTITY;
+            for (ElementWiseStage member : members) {
+                Affine affine = member.coefficients(mean, min, max);
+                double mappedMin = affine.apply(min);
+                double mappedMax = affine.apply(max);
+                mean = affine.apply(mean);
+                min = Math.min(mappedMin, mappedMax);
+                max = Math.max(mappedMin, mappedMax);
+                composed = affine.after(composed);
+            }
+            return composed;
+        }
+    }
+
+    public static final class Builder {
+
+        private final String name;
+        private final SignalKernels kernels;
+        private final List<SignalStage> stages = new ArrayList<>();
+
+        private Builder(String name, SignalKernels kernels) {
+            this.name = name;
+            this.kernels = kernels;
+        }
+
+        public Builder stage(SignalStage stage) {
+            stages.add(stage);
+            return this;
+        }
+
+        public SignalPipeline build() {
+            return new SignalPipeline(name, stages, kernels);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.EnumerablePropertySource;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Named preprocessing pipelines assembled from configuration.
+ *
+ * {@code ppg.pipeline.<name>} lists stage names in order, e.g.
+ * {@code ppg.pipeline.full=remove-dc,bandpass,savitzky-golay,normalize}. Every
+ * configured pipeline is built when the service is created, so an unknown stage
+ * or invalid filter setting fails startup rather than a request. "full" and
+ * "low-resource" have built-in defaults matching the original fixed sequences.
+ */
+@Service
+public class SignalPipelines {
+
+    public static final String FULL = "full";
+    public static final String LOW_RESOURCE = "low-resource";
+
+    private static final String PROPERTY_PREFIX = "ppg.pipeline.";
+    private static final String DEFAULT_FULL = "remove-dc,bandpass,savitzky-golay,normalize";
+    private static final String DEFAULT_LOW_RESOURCE = "remove-dc,moving-average";
+
+    private static final double LOW_FREQ = 0.5;  // Hz
+    private static final double HIGH_FREQ = 5.0; // Hz
+
+    private final int smoothingWindow;
+    private final int smoothingOrder;
+    private final int filterOrder;
+    private final boolean zeroPhaseFilter;
+
+    private final SignalKernels kernels;
+    private final Environment environment;
+    private final Map<String, SignalPipeline> pipelines;
+
+    @Autowired
+    public SignalPipelines(SignalKernels kernels, Environment environment,
+                           @Value("${ppg.smoothing.window:5}") int smoothingWindow,
+                           @Value("${ppg.smoothing.polynomial-order:2}") int smoothingOrder,
+                           @Value("${ppg.filter.order:2}") int filterOrder,
+                           @Value("${ppg.filter.zero-phase:true}") boolean zeroPhaseFilter) {
+        this.kernels = kernels;
+        this.environment = environment;
+        this.smoothingWindow = smoothingWindow;
+        this.smoothingOrder = smoothingOrder;
+        this.filterOrder = filterOrder;
+        this.zeroPhaseFilter = zeroPhaseFilter;
+
+        Map<String, SignalPipeline> built = new HashMap<>();
+        for (String name : configuredNames()) {
+            built.put(name, build(name));
+        }
+        this.pipelines = Map.copyOf(built);
+    }
+
+    /** Default smoothing and filter settings; for use outside a Spring context. */
+    public SignalPipelines(SignalKernels kernels, Environment environment) {
+        this(kernels, environment, 5, 2, 2, true);
+    }
+
+    public SignalPipeline get(String name) {
+        SignalPipeline pipeline = pipelines.get(name);
+        if (pipeline == null) {
+            throw new IllegalArgumentException("No signal pipeline configured for '" + name + "'");
+        }
+        return pipeline;
+    }
+
+    private Set<String> configuredNames() {
+        Set<String> names = new TreeSet<>(Set.of(FULL, LOW_RESOURCE));
+        if (environment instanceof ConfigurableEnvironment configurable) {
+            for (var source : configurable.getPropertySources()) {
+                if (source instanceof EnumerablePropertySource<?> enumerable) {
+                    for (String property : enumerable.getPropertyNames()) {
+                        if (property.startsWith(PROPERTY_PREFIX)) {
+                            names.add(property.substring(PROPERTY_PREFIX.length()));
+                        }
+                    }
+                }
+            }
+        }
+        return names;
+    }
+
+    private SignalPipeline build(String name) {
+        String defaultStages = switch (name) {
+            case FULL -> DEFAULT_FULL;
+            case LOW_RESOURCE -> DEFAULT_LOW_RESOURCE;
+            default -> null;
+        };
+        String configured = environment != null
+            ? environment.getProperty(PROPERTY_PREFIX + name, defaultStages == null ? "" : defaultStages)
+            : defaultStages;
+        if (configured == null || configured.isBlank()) {
+            throw new IllegalArgumentException("No signal pipeline configured for '" + name + "'");
+        }
+
+        SignalPipeline.Builder builder = SignalPipeline.builder(name, kernels);
+        for (String stageName : configured.split(",")) {
+            builder.stage(createStage(stageName.trim()));
+        }
+        return builder.build();
+    }
+
+    private SignalStage createStage(String stageName) {
+        return switch (stageName) {
+            case SignalStages.REMOVE_DC -> SignalStages.removeDc();
+            case SignalStages.INVERT -> SignalStages.invert();
+            case SignalStages.NORMALIZE -> SignalStages.normalize();
+            case SignalStages.BANDPASS -> SignalStages.bandpass(LOW_FREQ, HIGH_FREQ, filterOrder, zeroPhaseFilter);
+            case SignalStages.SAVITZKY_GOLAY -> SignalStages.savitzkyGolay(smoothingWindow, smoothingOrder, kernels);
+            case SignalStages.MOVING_AVERAGE -> SignalStages.movingAverage(kernels);
+            default -> throw new IllegalArgumentException("Unknown signal stage: " + stageName);
+        };
+    }
+}
@@ -1,187 +1,220 @@
 package za.pulsewatch.service;
 
-import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.springframework.stereotype.Service;
+import za.pulsewatch.model.SignalStatistics;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 @Service
 public class SignalProcessor {
-    
-    private static final double LOW_FREQ = 0.5;  // Hz
-    private static final double HIGH_FREQ = 5.0; // Hz
-    private static final int WINDOW_SIZE = 5;
-    
+
+    private final SignalPipelines pipelines;
+    private final AdaptivePeakDetector peakDetector;
+
+    public SignalProcessor(SignalPipelines pipelines, AdaptivePeakDetector peakDetector) {
+        this.pipelines = pipelines;
+        this.peakDetector = peakDetector;
+    }
+
     public List<Double> preprocessSignal(List<Double> rawData, double samplingRate) {
         if (rawData == null || rawData.isEmpty()) {
             return Collections.emptyList();
         }
-        
-        // Step 1: Remove DC component
-        List<Double> detrended = removeDCComponent(rawData);
-        
-        // Step 2: Apply bandpass filter (0.5-5 Hz for PPG)
-        List<Double> filtered = applyBandpassFilter(detrended, samplingRate);
-        
-        // Step 3: Smooth signal using Savitzky-Golay filter
-        List<Double> smoothed = applySavitzkyGolayFilter(filtered, WINDOW_SIZE);
-        
-        // Step 4: Normalize signal
-        return normalizeSignal(smoothed);
-    }
-    
-    private List<Double> removeDCComponent(List<Double> signal) {
-        double mean = signal.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
-        return signal.stream()
-                .map(val -> val - mean)
-                .collect(Collectors.toList());
-    }
-    
-    private List<Double> applyBandpassFilter(List<Double> signal, double samplingRate) {
-        // Butterworth bandpass filter implementation
-        double lowCutoff = LOW_FREQ / (samplingRate / 2);
-        double highCutoff = HIGH_FREQ / (samplingRate / 2);
-        
-        // Simple IIR filter implementation
-        return applyButterworthFilter(signal, lowCutoff, highCutoff);
-    }
-    
-    private List<Double> applyButterworthFilter(List<Double> signal, double lowCutoff, double highCutoff) {
-        List<Double> filtered = new ArrayList<>(signal);
-        
-        // Simple implementation - in production, use proper filter design
-        double alpha = 0.1; // smoothing factor
-        
-        for (int i = 1; i < filtered.size(); i++) {
-            filtered.set(i, alpha * filtered.get(i) + (1 - alpha) * filtered.get(i - 1));
-        }
-        
-        return filtered;
-    }
-    
-    private List<Double> applySavitzkyGolayFilter(List<Double> signal, int windowSize) {
-        if (signal.size() < windowSize) {
-            return signal;
-        }
-        
-        List<Double> smoothed = new ArrayList<>(signal.size());
-        int halfWindow = windowSize / 2;
-        
-        for (int i = 0; i < signal.size(); i++) {
-            int start = Math.max(0, i - halfWindow);
-            int end = Math.min(signal.size(), i + halfWindow + 1);
-            
-            DescriptiveStatistics stats = new DescriptiveStatistics();
-            for (int j = start; j < end; j++) {
-                stats.addValue(signal.get(j));
-            }
-            
-            smoothed.add(stats.getMean());
-        }
-        
-        return smoothed;
-    }
-    
-    private List<Double> normalizeSignal(List<Double> signal) {
-        if (signal.isEmpty()) return signal;
-        
-        double min = signal.stream().mapToDouble(Double::doubleValue).min().orElse(0.0);
-        double max = signal.stream().mapToDouble(Double::doubleValue).max().orElse(1.0);
-        double range = max - min;
-        
-        if (range == 0) {
-            return signal.stream().map(val -> 0.0).collect(Collectors.toList());
-        }
-        
-        return signal.stream()
-                .map(val -> (val - min) / range)
-                .collect(Collectors.toList());
-    }
-    
+
+        double[] processed = preprocessSignal(toArray(rawData), samplingRate);
+
+        List<Double> result = new ArrayList<>(processed.length);
+        for (double value : processed) {
+            result.add(value);
+        }
+        return result;
+    }
+
+    public double[] preprocessSignal(double[] rawData, double samplingRate) {
+        if (rawData == null || rawData.length == 0) {
+            return new double[0];
+        }
+
+        double[] output = new double[rawData.length];
+        preprocessSignal(rawData, rawData.length, samplingRate, output);
+        return output;
+    }
+
+    /**
+     * Runs the "full" pipeline (DC removal, bandpass, smoothing, normalisation by
+     * default) over the first {@code length} samples of {@code rawData}, writing the
+     * result into the caller-supplied {@code output} buffer. No intermediate arrays
+     * are allocated once the pipeline's scratch buffer is warm.
+     */
+    public void preprocessSignal(double[] rawData, int length, double samplingRate, double[] output) {
+        pipelines.get(SignalPipelines.FULL).run(rawData, length, samplingRate, output);
+    }
+
     public List<Integer> detectPeaks(List<Double> signal) {
-        List<Integer> peaks = new ArrayList<>();
-        
-        if (signal.size() < 3) {
-            return peaks;
-        }
-        
-        for (int i = 1; i < signal.size() - 1; i++) {
-            if (signal.get(i) > signal.get(i - 1) && 
-                signal.get(i) > signal.get(i + 1) &&
-                signal.get(i) > 0.3) { // amplitude threshold
-                peaks.add(i);
+        int[] peaks = detectPeaks(toArray(signal));
+
+        List<Integer> result = new ArrayList<>(peaks.length);
+        for (int peak : peaks) {
+            result.add(peak);
+        }
+        return result;
+    }
+
+    public int[] detectPeaks(double[] signal) {
+        int[] peaks = new int[peakCapacity(signal.length)];
+        int count = detectPeaks(signal, signal.length, peaks);
+        return Arrays.copyOf(peaks, count);
+    }
+
+    /**
+     * Beat detection with an adaptive threshold and a refractory period derived
+     * from {@code samplingRate}. Writes the indices of detected peaks into
+     * {@code peaks} and returns how many were found. The buffer must hold at least
+     * {@link #peakCapacity(int)} entries.
+     */
+    public int detectPeaks(double[] signal, int length, double samplingRate, int[] peaks) {
+        return peakDetector.detect(signal, length, samplingRate, peaks);
+    }
+
+    /**
+     * Fixed-threshold local maxima, for callers that do not know the sampling rate.
+     * Accepts every local maximum above 0.3, including dicrotic notches; prefer
+     * {@link #detectPeaks(double[], int, double, int[])}.
+     */
+    public int detectPeaks(double[] signal, int length, int[] peaks) {
+        int count = 0;
+
+        if (length < 3) {
+            return count;
+        }
+
+        for (int i = 1; i < length - 1; i++) {
+            if (signal[i] > signal[i - 1] &&
+                signal[i] > signal[i + 1] &&
+                signal[i] > 0.3) { // amplitude threshold
+                peaks[count++] = i;
             }
         }
-        
-        return peaks;
+
+        return count;
+    }
+
+    /**
+     * Fractional position of the peak at {@code index}, from a parabola through it
+     * and its two neighbours. Edge samples are returned as they are.
+     */
+    public static double refinePeak(double[] signal, int length, int index) {
+        if (index <= 0 || index >= length - 1) {
+            return index;
+        }
+        return refinePeak(index, signal[index - 1], signal[index], signal[index + 1]);
+    }
+
+    public static double refinePeak(float[] signal, int length, int index) {
+        if (index <= 0 || index >= length - 1) {
+            return index;
+        }
+        return refinePeak(index, signal[index - 1], signal[index], signal[index + 1]);
+    }
+
+    private static double refinePeak(int index, double left, double centre, double right) {
+        double denominator = left - 2 * centre + right;
+        if (denominator >= 0) {
+            return index;
+        }
+        return index + 0.5 * (left - right) / denominator;
+    }
+
+    /**
+     * Upper bound on the number of strict local maxima in a signal of the given length.
+     */
+    public static int peakCapacity(int length) {
+        return length / 2 + 1;
     }
-    
+
     public double calculateHeartRate(List<Integer> peaks, double samplingRate) {
-        if (peaks.size() < 2) {
+        return calculateHeartRate(toIntArray(peaks), peaks.size(), samplingRate);
+    }
+
+    public double calculateHeartRate(int[] peaks, int peakCount, double samplingRate) {
+        if (peakCount < 2) {
             return 0.0;
         }
-        
-        List<Double> intervals = new ArrayList<>();
-        for (int i = 1; i < peaks.size(); i++) {
-            double interval = (peaks.get(i) - peaks.get(i - 1)) / samplingRate;
-            intervals.add(interval);
-        }
-        
-        double avgInterval = intervals.stream().mapToDouble(Double::doubleValue).average().orElse(0.0);
+
+        // Mean of consecutive intervals telescopes to (last - first) / (n - 1)
+        double avgInterval = (peaks[peakCount - 1] - peaks[0]) / samplingRate / (peakCount - 1);
         return 60.0 / avgInterval; // Convert to BPM
     }
-    
-    public double calculateHRV(List<Integer> peaks, double samplingRate) {
-        if (peaks.size() < 3) {
+
+    public double calculateHeartRate(SignalStatistics intervals) {
+        if (intervals.isEmpty()) {
             return 0.0;
         }
-        
-        List<Double> intervals = new ArrayList<>();
-        for (int i = 1; i < peaks.size(); i++) {
-            double interval = (peaks.get(i) - peaks.get(i - 1)) / samplingRate * 1000; // Convert to ms
-            intervals.add(interval);
+
+        return 60.0 / intervals.mean(); // Convert to BPM
+    }
+
+    public double calculateHRV(List<Integer> peaks, double samplingRate) {
+        return calculateHRV(toIntArray(peaks), peaks.size(), samplingRate);
+    }
+
+    public double calculateHRV(int[] peaks, int peakCount, double samplingRate) {
+        return calculateHRV(SignalStatistics.ofIntervals(peaks, peakCount, samplingRate));
+    }
+
+    /**
+     * SDNN in milliseconds from precomputed interval statistics (seconds).
+     */
+    public double calculateHRV(SignalStatistics intervals) {
+        if (intervals.count() < 2) {
+            return 0.0;
         }
-        
-        DescriptiveStatistics stats = new DescriptiveStatistics();
-        intervals.forEach(stats::addValue);
-        
-        return stats.getStandardDeviation(); // SDNN in milliseconds
+
+        return intervals.standardDeviation() * 1000; // SDNN in milliseconds
     }
-    
+
     public boolean detectArrhythmia(List<Integer> peaks, double samplingRate) {
-        if (peaks.size() < 3) {
+        return detectArrhythmia(toIntArray(peaks), peaks.size(), samplingRate);
+    }
+
+    public boolean detectArrhythmia(int[] peaks, int peakCount, double samplingRate) {
+        return detectArrhythmia(SignalStatistics.ofIntervals(peaks, peakCount, samplingRate));
+    }
+
+    public boolean detectArrhythmia(SignalStatistics intervals) {
+        if (intervals.count() < 2) {
             return false;
         }
-        
-        List<Double> intervals = new ArrayList<>();
-        for (int i = 1; i < peaks.size(); i++) {
-            double interval = (peaks.get(i) - peaks.get(i - 1)) / samplingRate;
-            intervals.add(interval);
-        }
-        
-        DescriptiveStatistics stats = new DescriptiveStatistics();
-        intervals.forEach(stats::addValue);
-        
-        double mean = stats.getMean();
-        double stdDev = stats.getStandardDeviation();
-        
+
         // Check for irregular intervals (coefficient of variation > 15%)
-        double cv = (stdDev / mean) * 100;
+        double cv = (intervals.standardDeviation() / intervals.mean()) * 100;
         return cv > 15.0;
     }
-    
+
     public String assessSignalQuality(List<Double> signal) {
         if (signal == null || signal.isEmpty()) {
             return "poor";
         }
-        
-        DescriptiveStatistics stats = new DescriptiveStatistics();
-        signal.forEach(stats::addValue);
-        
-        double snr = calculateSNR(signal);
-        double zeroCrossingRate = calculateZeroCrossingRate(signal);
-        
+
+        return assessSignalQuality(toArray(signal), signal.size());
+    }
+
+    public String assessSignalQuality(double[] signal, int length) {
+        if (signal == null || length == 0) {
+            return "poor";
+        }
+
+        return assessSignalQuality(SignalStatistics.of(signal, length));
+    }
+
+    public String assessSignalQuality(SignalStatistics stats) {
+        if (stats.isEmpty()) {
+            return "poor";
+        }
+
+        double snr = stats.snr();
+        double zeroCrossingRate = stats.zeroCrossingRate();
+
         if (snr > 20 && zeroCrossingRate < 0.3) {
             return "excellent";
         } else if (snr > 10 && zeroCrossingRate < 0.5) {
@@ -192,26 +225,20 @@ public class SignalProcessor {
             return "poor";
         }
     }
-    
-    private double calculateSNR(List<Double> signal) {
-        // Simple SNR estimation
-        DescriptiveStatistics stats = new DescriptiveStatistics();
-        signal.forEach(stats::addValue);
-        
-        double signalPower = Math.pow(stats.getMean(), 2);
-        double noisePower = Math.pow(stats.getStandardDeviation(), 2);
-        
-        return 10 * Math.log10(signalPower / noisePower);
-    }
-    
-    private double calculateZeroCrossingRate(List<Double> signal) {
-        int zeroCrossings = 0;
-        for (int i = 1; i < signal.size(); i++) {
-            if ((signal.get(i - 1) > 0 && signal.get(i) <= 0) || 
-                (signal.get(i - 1) <= 0 && signal.get(i) > 0)) {
-                zeroCrossings++;
-            }
+
+    static double[] toArray(List<Double> values) {
+        double[] array = new double[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
+        }
+        return array;
+    }
+
+    private static int[] toIntArray(List<Integer> values) {
+        int[] array = new int[values.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = values.get(i);
         }
-        return (double) zeroCrossings / signal.size();
+        return array;
     }
 }
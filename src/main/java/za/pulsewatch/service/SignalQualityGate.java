@@ -0,0 +1,137 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import za.pulsewatch.model.QualityGateResult;
+import za.pulsewatch.model.QualityGateResult.Verdict;
+
+/**
+ * Cheap signal-quality index computed on the raw samples before any filtering.
+ *
+ * Three gates run in order of cost and the first to fire decides:
+ * <ul>
+ *   <li>perfusion index (AC / DC in %) rejects a flat or finger-off-lens trace,</li>
+ *   <li>clipping ratio (share of samples pinned at either extreme) rejects a
+ *       saturated sensor,</li>
+ *   <li>spectral concentration of a block-averaged copy decimated to about
+ *       12.5 Hz rejects or downgrades recordings with no dominant cardiac rhythm.</li>
+ * </ul>
+ * The whole check is one pass over the samples plus a small FFT.
+ */
+@Service
+public class SignalQualityGate {
+
+    public static final String PERFUSION_INDEX = "perfusion-index";
+    public static final String CLIPPING = "clipping";
+    public static final String SPECTRAL_CONCENTRATION = "spectral-concentration";
+
+    // Enough bandwidth for the 0.5-5 Hz cardiac band after decimation
+    private static final double DECIMATED_RATE = 12.5;
+    // Samples within this fraction of the range from an extreme count as clipped
+    private static final double CLIPPING_TOLERANCE = 0.0001;
+
+    private final SpectralHeartRateEstimator spectralEstimator;
+
+    @Value("${ppg.quality.gate.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${ppg.quality.gate.min-perfusion-index:0.05}")
+    private double minPerfusionIndex = 0.05;
+
+    @Value("${ppg.quality.gate.max-clipping-ratio:0.1}")
+    private double maxClippingRatio = 0.1;
+
+    @Value("${ppg.quality.gate.reject-concentration:0.2}")
+    private double rejectConcentration = 0.2;
+
+    @Value("${ppg.quality.gate.downgrade-concentration:0.35}")
+    private double downgradeConcentration = 0.35;
+
+    // Per-thread decimation buffer, grown on demand
+    private final ThreadLocal<double[]> decimationBuffer = ThreadLocal.withInitial(() -> new double[0]);
+
+    public SignalQualityGate(SpectralHeartRateEstimator spectralEstimator) {
+        this.spectralEstimator = spectralEstimator;
+    }
+
+    public QualityGateResult evaluate(double[] samples, int length, double samplingRate) {
+        if (!enabled || length == 0 || samplingRate <= 0) {
+            return QualityGateResult.pass(0.0, 0.0, 0.0);
+        }
+
+        // Pass 1: DC level and extremes
+        double sum = 0.0;
+        double min = samples[0];
+        double max = samples[0];
+        for (int i = 0; i < length; i++) {
+            double value = samples[i];
+            sum += value;
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+        double mean = sum / length;
+        double range = max - min;
+
+        // Perfusion index only means something on raw intensities with a positive DC level
+        double perfusionIndex = mean > 0 ? 100.0 * range / mean : 0.0;
+        if (range == 0 || (mean > 0 && perfusionIndex < minPerfusionIndex)) {
+            return new QualityGateResult(Verdict.REJECT, PERFUSION_INDEX, perfusionIndex, 0.0, 0.0);
+        }
+
+        // Pass 2: clipping, fused with block-average decimation
+        int factor = Math.max(1, (int) (samplingRate / DECIMATED_RATE));
+        int decimatedLength = length / factor;
+        double[] decimated = buffer(decimatedLength);
+        double tolerance = CLIPPING_TOLERANCE * range;
+        int clipped = 0;
+        for (int block = 0; block < decimatedLength; block++) {
+            double blockSum = 0.0;
+            int offset = block * factor;
+            for (int j = 0; j < factor; j++) {
+                double value = samples[offset + j];
+                blockSum += value;
+                if (value - min <= tolerance || max - value <= tolerance) {
+                    clipped++;
+                }
+            }
+            decimated[block] = blockSum / factor;
+        }
+        // The tail that does not fill a block still counts towards clipping
+        for (int i = decimatedLength * factor; i < length; i++) {
+            if (samples[i] - min <= tolerance || max - samples[i] <= tolerance) {
+                clipped++;
+            }
+        }
+        double clippingRatio = (double) clipped / length;
+        if (clippingRatio > maxClippingRatio) {
+            return new QualityGateResult(Verdict.REJECT, CLIPPING, perfusionIndex, clippingRatio, 0.0);
+        }
+
+        // Too short to resolve the cardiac band: leave the verdict to the later stages
+        SpectralHeartRateEstimator.Estimate estimate =
+            spectralEstimator.estimate(decimated, decimatedLength, samplingRate / factor);
+        if (!estimate.isValid()) {
+            return QualityGateResult.pass(perfusionIndex, clippingRatio, 0.0);
+        }
+        double concentration = estimate.concentration();
+        if (concentration < rejectConcentration) {
+            return new QualityGateResult(Verdict.REJECT, SPECTRAL_CONCENTRATION,
+                perfusionIndex, clippingRatio, concentration);
+        }
+        if (concentration < downgradeConcentration) {
+            return new QualityGateResult(Verdict.DOWNGRADE, SPECTRAL_CONCENTRATION,
+                perfusionIndex, clippingRatio, concentration);
+        }
+
+        return QualityGateResult.pass(perfusionIndex, clippingRatio, concentration);
+    }
+
+    private double[] buffer(int length) {
+        double[] buffer = decimationBuffer.get();
+        if (buffer.length < length) {
+            buffer = new double[length];
+            decimationBuffer.set(buffer);
+        }
+        return buffer;
+    }
+}
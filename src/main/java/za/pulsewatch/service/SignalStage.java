@@ -0,0 +1,33 @@
+package za.pulsewatch.service;
+
+/**
+ * One step of a {@link SignalPipeline}, run in place over the first
+ * {@code length} samples of {@code signal}.
+ *
+ * {@code scratch} is a per-thread buffer of at least {@code length} samples owned
+ * by the pipeline; stages may overwrite it freely but must not keep it.
+ */
+public interface SignalStage {
+
+    /** Name used in pipeline configuration, e.g. "bandpass". */
+    String name();
+
+    void process(double[] signal, int length, double samplingRate, double[] scratch);
+
+    /**
+     * Single-precision variant, used by the float32 engine. The default widens the
+     * samples into double buffers, runs {@link #process(double[], int, double, double[])}
+     * and narrows the result back; stages on the float path override it to avoid
+     * the copies.
+     */
+    default void process(float[] signal, int length, double samplingRate, float[] scratch) {
+        double[] widened = new double[length];
+        for (int i = 0; i < length; i++) {
+            widened[i] = signal[i];
+        }
+        process(widened, length, samplingRate, new double[length]);
+        for (int i = 0; i < length; i++) {
+            signal[i] = (float) widened[i];
+        }
+    }
+}
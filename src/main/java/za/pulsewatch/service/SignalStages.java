@@ -0,0 +1,169 @@
+package za.pulsewatch.service;
+
+import za.pulsewatch.service.ElementWiseStage.Affine;
+
+/**
+ * Built-in pipeline stages. Names match the ones accepted in
+ * {@code ppg.pipeline.*} configuration.
+ */
+public final class SignalStages {
+
+    public static final String REMOVE_DC = "remove-dc";
+    public static final String INVERT = "invert";
+    public static final String NORMALIZE = "normalize";
+    public static final String BANDPASS = "bandpass";
+    public static final String SAVITZKY_GOLAY = "savitzky-golay";
+    public static final String MOVING_AVERAGE = "moving-average";
+
+    private SignalStages() {}
+
+    /** Subtracts the mean. */
+    public static ElementWiseStage removeDc() {
+        return new ElementWiseStage() {
+            @Override
+            public String name() {
+                return REMOVE_DC;
+            }
+
+            @Override
+            public Affine coefficients(double mean, double min, double max) {
+                return new Affine(1.0, -mean);
+            }
+        };
+    }
+
+    /** Flips the sign; camera PPG rises as blood volume, and so absorption, falls. */
+    public static ElementWiseStage invert() {
+        return new ElementWiseStage() {
+            @Override
+            public String name() {
+                return INVERT;
+            }
+
+            @Override
+            public Affine coefficients(double mean, double min, double max) {
+                return new Affine(-1.0, 0.0);
+            }
+
+            @Override
+            public boolean needsStatistics() {
+                return false;
+            }
+        };
+    }
+
+    /** Maps the signal onto [0, 1]; a flat signal becomes all zeros. */
+    public static ElementWiseStage normalize() {
+        return new ElementWiseStage() {
+            @Override
+            public String name() {
+                return NORMALIZE;
+            }
+
+            @Override
+            public Affine coefficients(double mean, double min, double max) {
+                double range = max - min;
+                if (range == 0) {
+                    return new Affine(0.0, 0.0);
+                }
+                return new Affine(1.0 / range, -min / range);
+            }
+        };
+    }
+
+    /** Butterworth bandpass, zero-phase (forward-backward) or causal. */
+    public static SignalStage bandpass(double lowHz, double highHz, int order, boolean zeroPhase) {
+        // The design waits for the sampling rate; the order can be checked now
+        if (order < 1) {
+            throw new IllegalArgumentException("Filter order must be at least 1");
+        }
+        return new SignalStage() {
+            @Override
+            public String name() {
+                return BANDPASS;
+            }
+
+            @Override
+            public void process(double[] signal, int length, double samplingRate, double[] scratch) {
+                // Designed once per sampling rate and cached
+                BiquadCascade bandpass = ButterworthBandpass.design(samplingRate, lowHz, highHz, order);
+                if (zeroPhase) {
+                    bandpass.filtfilt(signal, length);
+                } else {
+                    bandpass.filter(signal, length);
+                }
+            }
+
+            @Override
+            public void process(float[] signal, int length, double samplingRate, float[] scratch) {
+                BiquadCascade bandpass = ButterworthBandpass.design(samplingRate, lowHz, highHz, order);
+                if (zeroPhase) {
+                    bandpass.filtfilt(signal, length);
+                } else {
+                    bandpass.filter(signal, length, new double[bandpass.stateSize()]);
+                }
+            }
+        };
+    }
+
+    /** Savitzky-Golay smoothing; signals shorter than the window pass through. */
+    public static SignalStage savitzkyGolay(int windowSize, int polynomialOrder, SignalKernels kernels) {
+        SavitzkyGolayFilter filter = SavitzkyGolayFilter.of(windowSize, polynomialOrder);
+        return new SignalStage() {
+            @Override
+            public String name() {
+                return SAVITZKY_GOLAY;
+            }
+
+            @Override
+            public void process(double[] signal, int length, double samplingRate, double[] scratch) {
+                if (length < windowSize) {
+                    return;
+                }
+                System.arraycopy(signal, 0, scratch, 0, length);
+                filter.smooth(scratch, length, signal, kernels);
+            }
+
+            @Override
+            public void process(float[] signal, int length, double samplingRate, float[] scratch) {
+                if (length < windowSize) {
+                    return;
+                }
+                System.arraycopy(signal, 0, scratch, 0, length);
+                filter.smooth(scratch, length, signal);
+            }
+        };
+    }
+
+    /** Centred three-point moving average; the first and last samples become zero. */
+    public static SignalStage movingAverage(SignalKernels kernels) {
+        return new SignalStage() {
+            @Override
+            public String name() {
+                return MOVING_AVERAGE;
+            }
+
+            @Override
+            public void process(double[] signal, int length, double samplingRate, double[] scratch) {
+                System.arraycopy(signal, 0, scratch, 0, length);
+                kernels.movingAverage3(scratch, length, signal);
+                if (length > 0) {
+                    signal[0] = 0.0;
+                    signal[length - 1] = 0.0;
+                }
+            }
+
+            @Override
+            public void process(float[] signal, int length, double samplingRate, float[] scratch) {
+                System.arraycopy(signal, 0, scratch, 0, length);
+                for (int i = 1; i < length - 1; i++) {
+                    signal[i] = (scratch[i - 1] + scratch[i] + scratch[i + 1]) / 3.0f;
+                }
+                if (length > 0) {
+                    signal[0] = 0.0f;
+                    signal[length - 1] = 0.0f;
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,182 @@
+package za.pulsewatch.service;
+
+import org.springframework.stereotype.Service;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Frequency-domain heart rate estimation.
+ *
+ * The signal is mean-removed, Hann-windowed and zero-padded to a power of two
+ * (at least twice its length, for finer bin spacing), then transformed with a
+ * pooled FFT plan. The strongest bin in the cardiac band is refined with
+ * parabolic interpolation. Cost is O(n log n) regardless of how noisy the
+ * waveform is, which makes it a robust cross-check for peak-based estimates.
+ */
+@Service
+public class SpectralHeartRateEstimator {
+
+    private static final double LOW_FREQ = 0.5;  // Hz (30 BPM)
+    private static final double HIGH_FREQ = 5.0; // Hz (300 BPM)
+
+    // Per-thread FFT work buffers, grown on demand
+    private final ThreadLocal<double[]> workBuffer = ThreadLocal.withInitial(() -> new double[0]);
+    private final ThreadLocal<float[]> floatWorkBuffer = ThreadLocal.withInitial(() -> new float[0]);
+
+    /**
+     * Dominant cardiac frequency and how much of the band's power sits around it.
+     * A concentration near 1 means a clean periodic signal; near 0 means noise.
+     */
+    public record Estimate(double frequencyHz, double concentration) {
+
+        public static final Estimate NONE = new Estimate(0.0, 0.0);
+
+        public double heartRate() {
+            return frequencyHz * 60.0;
+        }
+
+        public boolean isValid() {
+            return frequencyHz > 0;
+        }
+    }
+
+    public Estimate estimate(double[] signal, int length, double samplingRate) {
+        if (length < 4 || samplingRate <= 0) {
+            return Estimate.NONE;
+        }
+
+        int fftLength = FftPlans.paddedLength(2 * length);
+        int samples = Math.min(length, fftLength);
+        double[] buffer = buffer(fftLength);
+
+        double sum = 0.0;
+        for (int i = 0; i < samples; i++) {
+            buffer[i] = signal[i];
+            sum += buffer[i];
+        }
+        double mean = sum / samples;
+
+        // Hann window over the real samples, zero padding after them
+        double scale = 2 * Math.PI / (samples - 1);
+        for (int i = 0; i < samples; i++) {
+            double window = 0.5 - 0.5 * Math.cos(scale * i);
+            buffer[i] = (buffer[i] - mean) * window;
+        }
+        Arrays.fill(buffer, samples, fftLength, 0.0);
+
+        FftPlans.forLength(fftLength).realForward(buffer);
+        return dominantFrequency(bin -> power(buffer, bin), fftLength, samplingRate);
+    }
+
+    /**
+     * Single-precision variant of {@link #estimate(double[], int, double)}. The
+     * mean and window are computed in double, the transform runs in single
+     * precision on a float work buffer half the size of the double one.
+     */
+    public Estimate estimate(float[] signal, int length, double samplingRate) {
+        if (length < 4 || samplingRate <= 0) {
+            return Estimate.NONE;
+        }
+
+        int fftLength = FftPlans.paddedLength(2 * length);
+        int samples = Math.min(length, fftLength);
+        float[] buffer = floatBuffer(fftLength);
+
+        double sum = 0.0;
+        for (int i = 0; i < samples; i++) {
+            sum += signal[i];
+        }
+        double mean = sum / samples;
+
+        double scale = 2 * Math.PI / (samples - 1);
+        for (int i = 0; i < samples; i++) {
+            double window = 0.5 - 0.5 * Math.cos(scale * i);
+            buffer[i] = (float) ((signal[i] - mean) * window);
+        }
+        Arrays.fill(buffer, samples, fftLength, 0.0f);
+
+        FftPlans.forFloatLength(fftLength).realForward(buffer);
+        return dominantFrequency(bin -> power(buffer, bin), fftLength, samplingRate);
+    }
+
+    /** {@code power} gives the power of each bin of the transformed buffer. */
+    private Estimate dominantFrequency(IntToDoubleFunction power, int fftLength, double samplingRate) {
+        double binWidth = samplingRate / fftLength;
+        int firstBin = Math.max(1, (int) Math.ceil(LOW_FREQ / binWidth));
+        int lastBin = Math.min(fftLength / 2 - 1, (int) Math.floor(HIGH_FREQ / binWidth));
+        if (lastBin - firstBin < 2) {
+            return Estimate.NONE;
+        }
+
+        int peakBin = -1;
+        double peakPower = 0.0;
+        double bandPower = 0.0;
+        for (int k = firstBin; k <= lastBin; k++) {
+            double binPower = power.applyAsDouble(k);
+            bandPower += binPower;
+            if (binPower > peakPower) {
+                peakPower = binPower;
+                peakBin = k;
+            }
+        }
+        if (peakBin < 0 || bandPower == 0) {
+            return Estimate.NONE;
+        }
+
+        // Parabolic interpolation on log magnitude around the peak bin
+        double offset = 0.0;
+        if (peakBin > firstBin && peakBin < lastBin) {
+            double left = Math.log(power.applyAsDouble(peakBin - 1) + Double.MIN_VALUE);
+            double centre = Math.log(peakPower);
+            double right = Math.log(power.applyAsDouble(peakBin + 1) + Double.MIN_VALUE);
+            double denominator = left - 2 * centre + right;
+            if (denominator < 0) {
+                offset = 0.5 * (left - right) / denominator;
+            }
+        }
+
+        // Hann main lobe spans two bins either side of the peak at this padding
+        double peakLobePower = 0.0;
+        for (int k = Math.max(firstBin, peakBin - 2); k <= Math.min(lastBin, peakBin + 2); k++) {
+            peakLobePower += power.applyAsDouble(k);
+        }
+
+        return new Estimate((peakBin + offset) * binWidth, peakLobePower / bandPower);
+    }
+
+    public double estimateHeartRate(double[] signal, int length, double samplingRate) {
+        return estimate(signal, length, samplingRate).heartRate();
+    }
+
+    private static double power(double[] spectrum, int bin) {
+        // realForward layout: [2k] = Re(k), [2k + 1] = Im(k) for 0 < k < n/2
+        double re = spectrum[2 * bin];
+        double im = spectrum[2 * bin + 1];
+        return re * re + im * im;
+    }
+
+    private static double power(float[] spectrum, int bin) {
+        double re = spectrum[2 * bin];
+        double im = spectrum[2 * bin + 1];
+        return re * re + im * im;
+    }
+
+    private float[] floatBuffer(int length) {
+        float[] buffer = floatWorkBuffer.get();
+        if (buffer.length < length) {
+            buffer = new float[length];
+            floatWorkBuffer.set(buffer);
+        }
+        return buffer;
+    }
+
+    private double[] buffer(int length) {
+        double[] buffer = workBuffer.get();
+        if (buffer.length < length) {
+            buffer = new double[length];
+            workBuffer.set(buffer);
+        }
+        return buffer;
+    }
+}
@@ -0,0 +1,235 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Incremental signal processing for realtime sessions.
+ *
+ * Each session keeps its filter delay lines, baseline, amplitude envelope and
+ * peak-detector state between chunks, so a new chunk costs O(chunk) and beats
+ * that straddle a chunk boundary are still detected. Sessions that stop sending
+ * are evicted after an idle timeout.
+ *
+ * Sessions are keyed by the authenticated owner and the client's session id, so
+ * one user can neither continue nor end another's session. A chunk without
+ * either is analysed on its own and leaves no state behind.
+ */
+@Service
+public class StreamingSignalProcessor {
+
+    private static final double LOW_FREQ = 0.5;  // Hz
+    private static final double HIGH_FREQ = 5.0; // Hz
+    private static final int MAX_INTERVALS = 64;
+    private static final double PEAK_THRESHOLD = 0.3; // fraction of the running envelope
+    private static final double ENVELOPE_SECONDS = 2.0;
+
+    @Value("${ppg.realtime.session-timeout-ms:300000}")
+    private long sessionTimeoutMs = 300000;
+
+    @Value("${ppg.realtime.max-sessions:10000}")
+    private int maxSessions = 10000;
+
+    @Value("${ppg.filter.order:2}")
+    private int filterOrder = 2;
+
+    private final Map<SessionKey, StreamingSession> sessions = new ConcurrentHashMap<>();
+
+    private record SessionKey(String ownerId, String sessionId) {}
+
+    /**
+     * Running beat statistics for a session after its latest chunk.
+     */
+    public record ChunkResult(double heartRate, double hrv, boolean irregular, int intervalCount) {}
+
+    /**
+     * Feeds one chunk into {@code ownerId}'s session {@code sessionId}. The filtered,
+     * envelope-normalised chunk is written to {@code output} for quality assessment.
+     */
+    public ChunkResult processChunk(String ownerId, String sessionId, double[] samples, int length,
+                                    double samplingRate, double[] output) {
+        StreamingSession session = session(ownerId, sessionId, samplingRate);
+
+        // CPU-only critical section: nothing here blocks, so a virtual thread holding
+        // the monitor never pins its carrier across I/O
+        synchronized (session) {
+            session.lastAccessMillis = System.currentTimeMillis();
+            session.process(samples, length, output);
+            return session.result();
+        }
+    }
+
+    public int getActiveSessionCount() {
+        return sessions.size();
+    }
+
+    public void endSession(String ownerId, String sessionId) {
+        if (ownerId != null && sessionId != null) {
+            sessions.remove(new SessionKey(ownerId, sessionId));
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${ppg.realtime.eviction-interval-ms:60000}")
+    public void evictIdleSessions() {
+        long cutoff = System.currentTimeMillis() - sessionTimeoutMs;
+        sessions.values().removeIf(session -> session.lastAccessMillis < cutoff);
+    }
+
+    private StreamingSession session(String ownerId, String sessionId, double samplingRate) {
+        if (ownerId == null || sessionId == null) {
+            return new StreamingSession(samplingRate, filterOrder);
+        }
+
+        SessionKey key = new SessionKey(ownerId, sessionId);
+        StreamingSession session = sessions.get(key);
+        if (session != null && session.samplingRate == samplingRate) {
+            return session;
+        }
+
+        if (session == null && sessions.size() >= maxSessions) {
+            evictIdleSessions();
+            if (sessions.size() >= maxSessions) {
+                // At capacity: analyse this chunk on its own rather than retain more state
+                return new StreamingSession(samplingRate, filterOrder);
+            }
+        }
+
+        // New session, or the client changed sampling rate mid-session: start cold
+        return sessions.compute(key, (id, existing) ->
+                existing != null && existing.samplingRate == samplingRate
+                        ? existing
+                        : new StreamingSession(samplingRate, filterOrder));
+    }
+
+    private static final class StreamingSession {
+
+        private final double samplingRate;
+        private final BiquadCascade bandpass;
+        private final double[] filterState;
+        private final double baselineAlpha;
+        private final double envelopeDecay;
+        private final long refractorySamples;
+
+        private volatile long lastAccessMillis = System.currentTimeMillis();
+
+        private boolean started;
+        private double baseline;
+        private double envelopeMax;
+        private double envelopeMin;
+
+        // Peak detector carries the last two filtered samples across chunk boundaries
+        private double previous;
+        private double beforePrevious;
+        private double previousNormalised;
+        private long sampleIndex;
+        private long lastPeakIndex = -1;
+
+        // Ring buffer of the most recent beat intervals in seconds
+        private final double[] intervals = new double[MAX_INTERVALS];
+        private int intervalCount;
+        private int intervalHead;
+
+        StreamingSession(double samplingRate, int filterOrder) {
+            this.samplingRate = samplingRate;
+            this.bandpass = ButterworthBandpass.design(samplingRate, LOW_FREQ, HIGH_FREQ, filterOrder);
+            this.filterState = new double[bandpass.stateSize()];
+            this.baselineAlpha = 1.0 - Math.exp(-2 * Math.PI * LOW_FREQ / samplingRate);
+            this.envelopeDecay = Math.exp(-1.0 / (ENVELOPE_SECONDS * samplingRate));
+            this.refractorySamples = (long) Math.ceil(samplingRate / HIGH_FREQ);
+        }
+
+        void process(double[] samples, int length, double[] output) {
+            if (length == 0) {
+                return;
+            }
+
+            if (!started) {
+                baseline = samples[0];
+            }
+
+            // Running-mean DC removal
+            for (int i = 0; i < length; i++) {
+                baseline += baselineAlpha * (samples[i] - baseline);
+                output[i] = samples[i] - baseline;
+            }
+
+            // Bandpass continues from the previous chunk's delay lines
+            bandpass.filter(output, length, filterState);
+
+            if (!started) {
+                envelopeMax = output[0];
+                envelopeMin = output[0];
+                started = true;
+            }
+
+            for (int i = 0; i < length; i++) {
+                double value = output[i];
+
+                // Envelope tracks extremes immediately and relaxes towards the signal
+                envelopeMax = value > envelopeMax ? value : value + (envelopeMax - value) * envelopeDecay;
+                envelopeMin = value < envelopeMin ? value : value + (envelopeMin - value) * envelopeDecay;
+                double range = envelopeMax - envelopeMin;
+                double normalised = range > 0 ? (value - envelopeMin) / range : 0.0;
+                output[i] = normalised;
+
+                // previous is a peak if it beats both neighbours and clears the threshold
+                if (sampleIndex >= 2
+                        && previous > beforePrevious
+                        && previous > value
+                        && previousNormalised > PEAK_THRESHOLD) {
+                    recordPeak(sampleIndex - 1);
+                }
+
+                beforePrevious = previous;
+                previous = value;
+                previousNormalised = normalised;
+                sampleIndex++;
+            }
+        }
+
+        private void recordPeak(long index) {
+            if (lastPeakIndex >= 0) {
+                long distance = index - lastPeakIndex;
+                if (distance < refractorySamples) {
+                    return;
+                }
+                intervals[intervalHead] = distance / samplingRate;
+                intervalHead = (intervalHead + 1) % MAX_INTERVALS;
+                intervalCount = Math.min(intervalCount + 1, MAX_INTERVALS);
+            }
+            lastPeakIndex = index;
+        }
+
+        ChunkResult result() {
+            if (intervalCount == 0) {
+                return new ChunkResult(0.0, 0.0, false, 0);
+            }
+
+            double sum = 0.0;
+            for (int i = 0; i < intervalCount; i++) {
+                sum += intervals[i];
+            }
+            double mean = sum / intervalCount;
+            double heartRate = 60.0 / mean;
+
+            if (intervalCount < 2) {
+                return new ChunkResult(heartRate, 0.0, false, intervalCount);
+            }
+
+            double squaredDeviations = 0.0;
+            for (int i = 0; i < intervalCount; i++) {
+                double deviation = intervals[i] - mean;
+                squaredDeviations += deviation * deviation;
+            }
+            double stdDev = Math.sqrt(squaredDeviations / (intervalCount - 1));
+
+            // Same irregularity rule as the batch path: coefficient of variation > 15%
+            boolean irregular = stdDev / mean * 100 > 15.0;
+            return new ChunkResult(heartRate, stdDev * 1000, irregular, intervalCount);
+        }
+    }
+}
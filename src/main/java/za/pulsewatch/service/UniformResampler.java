@@ -0,0 +1,163 @@
+package za.pulsewatch.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.model.SampleBuffer;
+
+/**
+ * Resamples irregularly timed camera frames onto a uniform grid, so every
+ * downstream filter can keep using its fixed, precomputed coefficients.
+ *
+ * Interpolation is linear or cubic Hermite (slopes from the neighbouring
+ * samples, which stays correct for uneven spacing). The grid and the input are
+ * walked together in a single pass, and the result is written to a per-thread
+ * pooled buffer.
+ */
+@Service
+public class UniformResampler {
+
+    // Grid may not be more than this many times denser than the input
+    private static final int MAX_EXPANSION = 4;
+
+    @Value("${ppg.resampling.rate:25}")
+    private double canonicalRate = 25;
+
+    // "linear" or "cubic"
+    @Value("${ppg.resampling.method:cubic}")
+    private String method = "cubic";
+
+    private final ThreadLocal<double[]> pool = ThreadLocal.withInitial(() -> new double[0]);
+
+    /**
+     * A resampled signal. {@code samples} is the calling thread's pooled buffer
+     * and is only valid until that thread resamples again.
+     */
+    public record Resampled(double[] samples, int length, double samplingRate) {}
+
+    /**
+     * Grid rate for frames whose mean rate is {@code meanRate}: the canonical rate,
+     * or for high-frame-rate input an integer multiple of it, which the decimation
+     * front-end then brings down with proper anti-aliasing. Either way the set of
+     * rates is small, so cached filter designs are reused across uploads.
+     */
+    public double gridRate(double meanRate) {
+        int multiple = (int) Math.floor(meanRate / canonicalRate);
+        return multiple >= 2 ? multiple * canonicalRate : canonicalRate;
+    }
+
+    /**
+     * Resamples {@code length} values observed at {@code times} (seconds,
+     * non-decreasing) onto a grid starting at {@code times[0]}. Frames whose time
+     * does not advance are skipped.
+     */
+    public Resampled resample(double[] values, double[] times, int length) {
+        if (length < 2 || times[length - 1] <= times[0]) {
+            throw new IllegalArgumentException("Sample timestamps must span a positive interval");
+        }
+
+        double start = times[0];
+        double span = times[length - 1] - start;
+        double meanRate = (length - 1) / span;
+        if (meanRate > PPGAnalysisRequest.MAX_SAMPLING_RATE) {
+            throw new IllegalArgumentException("Sample timestamps imply " + meanRate + " frames per second");
+        }
+        double rate = gridRate(meanRate);
+        int gridLength = (int) Math.floor(span * rate) + 1;
+        if (gridLength > MAX_EXPANSION * length) {
+            throw new IllegalArgumentException("Sample timestamps span " + span + " s for " + length + " samples");
+        }
+
+        double[] output = buffer(gridLength);
+        boolean cubic = "cubic".equalsIgnoreCase(method);
+
+        // j is the last input sample at or before the current grid time
+        int j = 0;
+        for (int k = 0; k < gridLength; k++) {
+            double t = start + k / rate;
+            while (j < length - 2 && times[j + 1] <= t) {
+                j++;
+            }
+            int next = j + 1;
+            while (next < length - 1 && times[next] <= times[j]) {
+                next++; // skip frames that do not advance in time
+            }
+
+            double t0 = times[j];
+            double t1 = times[next];
+            double dt = t1 - t0;
+            if (dt <= 0) {
+                output[k] = values[j];
+                continue;
+            }
+            double u = Math.max(0.0, Math.min(1.0, (t - t0) / dt));
+
+            if (!cubic) {
+                output[k] = values[j] + (values[next] - values[j]) * u;
+                continue;
+            }
+
+            // Cubic Hermite with finite-difference slopes, scaled to the unit interval
+            double m0 = slope(values, times, j, length) * dt;
+            double m1 = slope(values, times, next, length) * dt;
+            double u2 = u * u;
+            double u3 = u2 * u;
+            output[k] = (2 * u3 - 3 * u2 + 1) * values[j]
+                + (u3 - 2 * u2 + u) * m0
+                + (-2 * u3 + 3 * u2) * values[next]
+                + (u3 - u2) * m1;
+        }
+
+        return new Resampled(output, gridLength, rate);
+    }
+
+    /**
+     * Sample times in seconds from the first sample, from either absolute
+     * per-sample timestamps or frame-to-frame deltas (both in milliseconds).
+     * Returns null when neither is given, meaning the samples are uniform.
+     */
+    public static double[] sampleTimes(SampleBuffer timestamps, SampleBuffer frameDeltas, int length) {
+        if (timestamps != null && !timestamps.isEmpty()) {
+            if (timestamps.size() != length) {
+                throw new IllegalArgumentException("Expected " + length + " timestamps but got " + timestamps.size());
+            }
+            double[] times = new double[length];
+            double[] stamps = timestamps.array();
+            double origin = stamps[0];
+            for (int i = 0; i < length; i++) {
+                times[i] = (stamps[i] - origin) / 1000.0;
+            }
+            return times;
+        }
+
+        if (frameDeltas != null && !frameDeltas.isEmpty()) {
+            if (frameDeltas.size() != length - 1) {
+                throw new IllegalArgumentException("Expected " + (length - 1) + " frame deltas but got " + frameDeltas.size());
+            }
+            double[] times = new double[length];
+            double[] deltas = frameDeltas.array();
+            for (int i = 1; i < length; i++) {
+                times[i] = times[i - 1] + deltas[i - 1] / 1000.0;
+            }
+            return times;
+        }
+
+        return null;
+    }
+
+    private static double slope(double[] values, double[] times, int i, int length) {
+        int before = Math.max(0, i - 1);
+        int after = Math.min(length - 1, i + 1);
+        double dt = times[after] - times[before];
+        return dt > 0 ? (values[after] - values[before]) / dt : 0.0;
+    }
+
+    private double[] buffer(int length) {
+        double[] buffer = pool.get();
+        if (buffer.length < length) {
+            buffer = new double[length];
+            pool.set(buffer);
+        }
+        return buffer;
+    }
+}
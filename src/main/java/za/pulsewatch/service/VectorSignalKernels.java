@@ -0,0 +1,162 @@
+package za.pulsewatch.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Kernels on the JDK Vector API. Each loop runs full vectors of the preferred
+ * species and finishes the remainder with scalar code.
+ *
+ * Only instantiate through {@link SignalKernels#select(String)}: touching this
+ * class without the incubator module resolved fails with NoClassDefFoundError.
+ */
+final class VectorSignalKernels implements SignalKernels {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    static int preferredLanes() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public String name() {
+        return "vector";
+    }
+
+    @Override
+    public double sum(double[] values, int length) {
+        int upper = SPECIES.loopBound(length);
+        DoubleVector acc = DoubleVector.zero(SPECIES);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            acc = acc.add(DoubleVector.fromArray(SPECIES, values, i));
+        }
+        double sum = acc.reduceLanes(VectorOperators.ADD);
+        for (; i < length; i++) {
+            sum += values[i];
+        }
+        return sum;
+    }
+
+    @Override
+    public double min(double[] values, int length) {
+        if (length <= 0) {
+            return 0.0;
+        }
+        int upper = SPECIES.loopBound(length);
+        double min = values[0];
+        int i = 0;
+        if (upper > 0) {
+            DoubleVector acc = DoubleVector.fromArray(SPECIES, values, 0);
+            for (i = SPECIES.length(); i < upper; i += SPECIES.length()) {
+                acc = acc.min(DoubleVector.fromArray(SPECIES, values, i));
+            }
+            min = acc.reduceLanes(VectorOperators.MIN);
+        }
+        for (; i < length; i++) {
+            if (values[i] < min) min = values[i];
+        }
+        return min;
+    }
+
+    @Override
+    public double max(double[] values, int length) {
+        if (length <= 0) {
+            return 0.0;
+        }
+        int upper = SPECIES.loopBound(length);
+        double max = values[0];
+        int i = 0;
+        if (upper > 0) {
+            DoubleVector acc = DoubleVector.fromArray(SPECIES, values, 0);
+            for (i = SPECIES.length(); i < upper; i += SPECIES.length()) {
+                acc = acc.max(DoubleVector.fromArray(SPECIES, values, i));
+            }
+            max = acc.reduceLanes(VectorOperators.MAX);
+        }
+        for (; i < length; i++) {
+            if (values[i] > max) max = values[i];
+        }
+        return max;
+    }
+
+    @Override
+    public void subtract(double[] values, int length, double offset, double[] output) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, values, i).sub(offset).intoArray(output, i);
+        }
+        for (; i < length; i++) {
+            output[i] = values[i] - offset;
+        }
+    }
+
+    @Override
+    public void normalize(double[] values, int length, double min, double range) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, values, i).sub(min).div(range).intoArray(values, i);
+        }
+        for (; i < length; i++) {
+            values[i] = (values[i] - min) / range;
+        }
+    }
+
+    @Override
+    public void affine(double[] values, int length, double scale, double offset, double[] output) {
+        int upper = SPECIES.loopBound(length);
+        int i = 0;
+        for (; i < upper; i += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, values, i).fma(scale, offset).intoArray(output, i);
+        }
+        for (; i < length; i++) {
+            output[i] = scale * values[i] + offset;
+        }
+    }
+
+    @Override
+    public void movingAverage3(double[] values, int length, double[] output) {
+        // Output index i reads i - 1 .. i + 1, so vectors start at 1 and stop short of length - 1
+        int end = length - 1;
+        int i = 1;
+        for (; i + SPECIES.length() <= end; i += SPECIES.length()) {
+            DoubleVector left = DoubleVector.fromArray(SPECIES, values, i - 1);
+            DoubleVector centre = DoubleVector.fromArray(SPECIES, values, i);
+            DoubleVector right = DoubleVector.fromArray(SPECIES, values, i + 1);
+            left.add(centre).add(right).div(3.0).intoArray(output, i);
+        }
+        for (; i < end; i++) {
+            output[i] = (values[i - 1] + values[i] + values[i + 1]) / 3.0;
+        }
+    }
+
+    @Override
+    public void convolve(double[] input, int length, double[] kernel, double[] output) {
+        int taps = kernel.length;
+        int half = taps / 2;
+        int end = length - half;
+
+        // Vectorise across output samples; taps are broadcast one at a time
+        int i = half;
+        for (; i + SPECIES.length() <= end; i += SPECIES.length()) {
+            int start = i - half;
+            DoubleVector acc = DoubleVector.fromArray(SPECIES, input, start).mul(kernel[0]);
+            for (int j = 1; j < taps; j++) {
+                DoubleVector tap = DoubleVector.broadcast(SPECIES, kernel[j]);
+                acc = DoubleVector.fromArray(SPECIES, input, start + j).fma(tap, acc);
+            }
+            acc.intoArray(output, i);
+        }
+        for (; i < end; i++) {
+            int start = i - half;
+            double sum = 0.0;
+            for (int j = 0; j < taps; j++) {
+                sum += kernel[j] * input[start + j];
+            }
+            output[i] = sum;
+        }
+    }
+}
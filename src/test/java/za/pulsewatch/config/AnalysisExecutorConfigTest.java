@@ -0,0 +1,134 @@
+package za.pulsewatch.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import za.pulsewatch.service.ProcessingModeSelector;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisExecutorConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withBean(ProcessingModeSelector.class)
+        .withUserConfiguration(AnalysisExecutorConfig.class);
+
+    @Test
+    void poolsRunOnVirtualThreadsWhenTheContainerDoes() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context -> {
+            for (String name : new String[] {"batchExecutor", "analysisExecutor", "streamExecutor", "feedExecutor"}) {
+                ExecutorService executor = context.getBean(name, ExecutorService.class);
+                assertTrue(workerThread(executor).isVirtual(), name);
+                // A thread per task rather than a pool of virtual threads
+                assertTrue(executor instanceof BoundedVirtualThreadExecutor, name);
+                // Bounded concurrency, raised past the core count for blocking work
+                assertEquals(Runtime.getRuntime().availableProcessors() * AnalysisExecutorConfig.VIRTUAL_THREADS_PER_CORE,
+                    ((BoundedVirtualThreadExecutor) executor).getMaxConcurrency(), name);
+            }
+        });
+    }
+
+    @Test
+    void poolsStayOnPlatformThreadsByDefault() {
+        contextRunner.run(context -> {
+            for (String name : new String[] {"batchExecutor", "analysisExecutor", "streamExecutor", "feedExecutor"}) {
+                ExecutorService executor = context.getBean(name, ExecutorService.class);
+                Thread worker = workerThread(executor);
+                assertFalse(worker.isVirtual(), name);
+                assertTrue(worker.isDaemon(), name);
+                assertEquals(Runtime.getRuntime().availableProcessors(),
+                    ((ThreadPoolExecutor) executor).getMaximumPoolSize(), name);
+            }
+        });
+    }
+
+    @Test
+    void virtualExecutorsStayBoundedInConcurrencyAndQueue() throws Exception {
+        BoundedVirtualThreadExecutor executor =
+            (BoundedVirtualThreadExecutor) AnalysisExecutorConfig.boundedExecutor("bounded-test-", 2, 3, true);
+        CountDownLatch started = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        Runnable task = () -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+            completed.incrementAndGet();
+        };
+        try {
+            // Two running and three waiting fill the executor; the sixth is refused
+            for (int i = 0; i < 5; i++) {
+                executor.execute(task);
+            }
+            assertThrows(RejectedExecutionException.class, () -> executor.execute(task));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            assertEquals(3, executor.getQueuedTaskCount());
+
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+            assertEquals(2, maxRunning.get());
+            assertEquals(5, completed.get());
+            assertEquals(0, executor.getQueuedTaskCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void virtualExecutorAcceptsWorkAgainOnceTasksFinish() throws Exception {
+        ExecutorService executor = AnalysisExecutorConfig.boundedExecutor("refill-test-", 1, 0, true);
+        try {
+            // Capacity of one: each task must release its slot for the next
+            for (int i = 0; i < 3; i++) {
+                int item = i;
+                assertEquals(item, executor.submit(() -> item).get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void shuttingDownInterruptsTasksStillWaitingForASlot() throws Exception {
+        ExecutorService executor = AnalysisExecutorConfig.boundedExecutor("shutdown-test-", 1, 1, true);
+        CountDownLatch started = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        executor.execute(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute(ran::incrementAndGet);
+
+        executor.shutdownNow();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(0, ran.get());
+    }
+
+    private static Thread workerThread(ExecutorService executor) throws Exception {
+        Future<Thread> worker = executor.submit(Thread::currentThread);
+        return worker.get(5, TimeUnit.SECONDS);
+    }
+}
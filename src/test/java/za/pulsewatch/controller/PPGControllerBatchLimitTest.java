@@ -0,0 +1,106 @@
+package za.pulsewatch.controller;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import za.pulsewatch.exception.GlobalExceptionHandler;
+import za.pulsewatch.model.User;
+import za.pulsewatch.service.AnalysisFeedService;
+import za.pulsewatch.service.AnalysisJobService;
+import za.pulsewatch.service.BatchAnalysisService;
+import za.pulsewatch.service.BinarySampleReader;
+import za.pulsewatch.service.GamificationService;
+import za.pulsewatch.service.PPGProcessingService;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code ppg.batch.max-size} is enforced while the batch is parsed: parsing
+ * stops at the first recording past the limit.
+ */
+class PPGControllerBatchLimitTest {
+
+    private static final int MAX_BATCH = 3;
+    private static final String RECORDING = "{\"userId\":\"7\",\"deviceId\":\"d\",\"samplingRate\":30,\"rawData\":[1,2,3]}";
+
+    private final BatchAnalysisService batchAnalysisService = mock(BatchAnalysisService.class);
+    private AnnotationConfigApplicationContext context;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(
+            new MapPropertySource("test", Map.of("ppg.batch.max-size", String.valueOf(MAX_BATCH))));
+        context.refresh();
+
+        PPGController controller = new PPGController(mock(PPGProcessingService.class), mock(GamificationService.class),
+            batchAnalysisService, mock(AnalysisJobService.class), mock(BinarySampleReader.class),
+            mock(AnalysisFeedService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(
+                Jackson2ObjectMapperBuilder.json().applicationContext(context).build()))
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .build();
+
+        User user = new User();
+        user.setId(7L);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(batchAnalysisService.analyze(any())).thenReturn(List.of());
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Test
+    void acceptsABatchAtTheLimit() throws Exception {
+        mockMvc.perform(post("/api/v1/ppg/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + RECORDING + "," + RECORDING + "," + RECORDING + "]"))
+            .andExpect(status().isOk());
+
+        verify(batchAnalysisService).analyze(argThat(requests -> requests.size() == MAX_BATCH
+            && requests.stream().allMatch(request -> "7".equals(request.getOwnerId()))));
+    }
+
+    @Test
+    void stopsParsingAtTheFirstRecordingPastTheLimit() throws Exception {
+        // The fifth element is not even valid JSON; the limit must fire on the fourth
+        String batch = "[" + RECORDING + "," + RECORDING + "," + RECORDING + "," + RECORDING + ",{not json";
+
+        mockMvc.perform(post("/api/v1/ppg/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(batch))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("BATCH_TOO_LARGE"))
+            .andExpect(jsonPath("$.message").value("Batch exceeds the maximum of 3 recordings"));
+
+        verify(batchAnalysisService, never()).analyze(any());
+    }
+}
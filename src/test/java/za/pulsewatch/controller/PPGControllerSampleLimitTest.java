@@ -0,0 +1,147 @@
+package za.pulsewatch.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+import za.pulsewatch.exception.GlobalExceptionHandler;
+import za.pulsewatch.model.DeltaVarintCodec;
+import za.pulsewatch.model.SampleBuffer;
+import za.pulsewatch.model.User;
+import za.pulsewatch.service.AnalysisFeedService;
+import za.pulsewatch.service.AnalysisJobService;
+import za.pulsewatch.service.BatchAnalysisService;
+import za.pulsewatch.service.BinarySampleReader;
+import za.pulsewatch.service.GamificationService;
+import za.pulsewatch.service.PPGProcessingService;
+
+import java.util.Base64;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * {@code ppg.samples.max-count} reaches the sample deserializers through the bean
+ * factory, as in the application, and an oversized recording answers 413. An
+ * implausible sampling rate is turned away before it can size any filter.
+ */
+class PPGControllerSampleLimitTest {
+
+    private static final int MAX_SAMPLES = 100;
+
+    private final PPGProcessingService processingService = mock(PPGProcessingService.class);
+    private AnnotationConfigApplicationContext context;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(
+            new MapPropertySource("test", Map.of("ppg.samples.max-count", String.valueOf(MAX_SAMPLES))));
+        context.refresh();
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().applicationContext(context).build();
+
+        PPGController controller = new PPGController(processingService, mock(GamificationService.class),
+            mock(BatchAnalysisService.class), mock(AnalysisJobService.class), mock(BinarySampleReader.class),
+            mock(AnalysisFeedService.class));
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(mapper))
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .build();
+
+        User user = new User();
+        user.setId(7L);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+        when(processingService.processPPGSignal(any())).thenReturn(new PPGAnalysisResponse("s", "7", "d"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Test
+    void acceptsARecordingAtTheLimit() throws Exception {
+        mockMvc.perform(post("/api/v1/ppg/analyze")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request("\"rawData\":" + samples(MAX_SAMPLES))))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    void rawDataPastTheLimitIsPayloadTooLarge() throws Exception {
+        mockMvc.perform(post("/api/v1/ppg/analyze")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request("\"rawData\":" + samples(MAX_SAMPLES + 1))))
+            .andExpect(status().isPayloadTooLarge())
+            .andExpect(jsonPath("$.error").value("PAYLOAD_TOO_LARGE"))
+            .andExpect(jsonPath("$.status").value(413));
+
+        verify(processingService, never()).processPPGSignal(any());
+    }
+
+    @Test
+    void encodedDataPastTheLimitIsPayloadTooLarge() throws Exception {
+        double[] samples = new double[MAX_SAMPLES + 1];
+        String encoded = Base64.getEncoder().encodeToString(DeltaVarintCodec.encode(SampleBuffer.wrap(samples), 0));
+
+        mockMvc.perform(post("/api/v1/ppg/analyze")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(request("\"encodedData\":\"" + encoded + "\"")))
+            .andExpect(status().isPayloadTooLarge())
+            .andExpect(jsonPath("$.error").value("PAYLOAD_TOO_LARGE"));
+    }
+
+    @Test
+    void samplingRateAboveTheMaximumIsRejected() throws Exception {
+        mockMvc.perform(post("/api/v1/ppg/analyze")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":\"7\",\"deviceId\":\"d\",\"samplingRate\":1e9,\"rawData\":[1,2,3]}"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("VALIDATION_FAILED"));
+
+        mockMvc.perform(post("/api/v1/ppg/analyze")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-User-Id", "7")
+                .header("X-Device-Id", "d")
+                .header("X-Sampling-Rate", "1e9")
+                .content(new byte[12]))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.error").value("INVALID_BINARY_REQUEST"));
+
+        verify(processingService, never()).processPPGSignal(any());
+    }
+
+    private static String samples(int count) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < count; i++) {
+            json.append(i == 0 ? "" : ",").append(140 + i % 7);
+        }
+        return json.append(']').toString();
+    }
+
+    private static String request(String samplesField) {
+        return "{\"userId\":\"7\",\"deviceId\":\"d\",\"samplingRate\":30," + samplesField + "}";
+    }
+}
@@ -0,0 +1,150 @@
+package za.pulsewatch.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator.OverflowStrategy;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+import za.pulsewatch.security.JwtHandshakeInterceptor;
+import za.pulsewatch.service.PPGProcessingService;
+import za.pulsewatch.service.StreamingSignalProcessor;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Receive-queue overflow policies. The stream executor only collects drain tasks,
+ * so frames stay queued until the test runs them.
+ */
+class PPGStreamHandlerTest {
+
+    private static final int QUEUE_FRAMES = 2;
+
+    private final PPGProcessingService processingService = mock(PPGProcessingService.class);
+    private final StreamingSignalProcessor streamingProcessor = mock(StreamingSignalProcessor.class);
+    private final ExecutorService executor = mock(ExecutorService.class);
+    private final WebSocketSession session = mock(WebSocketSession.class);
+
+    private final List<Runnable> drainTasks = new ArrayList<>();
+    private final List<Double> analyzedFrames = new ArrayList<>();
+    private final List<String> analyzedUsers = new ArrayList<>();
+    private PPGStreamHandler handler;
+
+    @BeforeEach
+    void setUp() {
+        handler = new PPGStreamHandler(processingService, streamingProcessor, executor,
+            Jackson2ObjectMapperBuilder.json().build());
+        ReflectionTestUtils.setField(handler, "receiveQueueFrames", QUEUE_FRAMES);
+        ReflectionTestUtils.setField(handler, "sendTimeLimitMs", 1000);
+        ReflectionTestUtils.setField(handler, "sendBufferBytes", 1 << 16);
+        ReflectionTestUtils.setField(handler, "sendOverflow", OverflowStrategy.DROP);
+
+        doAnswer(invocation -> drainTasks.add(invocation.getArgument(0))).when(executor).execute(any());
+        when(processingService.processRealtimePPG(any())).thenAnswer(invocation -> {
+            PPGAnalysisRequest request = invocation.getArgument(0);
+            analyzedFrames.add(request.getRawData().get(0));
+            analyzedUsers.add(request.getUserId());
+            return new PPGAnalysisResponse(request.getSessionId(), request.getUserId(), request.getDeviceId());
+        });
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE, "7");
+        when(session.getId()).thenReturn("socket-1");
+        when(session.getAttributes()).thenReturn(attributes);
+        when(session.isOpen()).thenReturn(true);
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/api/v1/ppg/stream?deviceId=d&samplingRate=30"));
+    }
+
+    @Test
+    void closeRefusesTheConnectionWith1013WhenTheQueueIsFull() throws Exception {
+        connect(PPGStreamHandler.ReceiveOverflow.CLOSE);
+
+        sendFrames(1, 2, 3);
+
+        verify(session).close(CloseStatus.SERVICE_OVERLOAD.withReason("Receive queue full"));
+    }
+
+    @Test
+    void dropOldestKeepsTheLatestFrames() throws Exception {
+        connect(PPGStreamHandler.ReceiveOverflow.DROP_OLDEST);
+
+        sendFrames(1, 2, 3);
+        runDrains();
+
+        assertEquals(List.of(2.0, 3.0), analyzedFrames);
+        verify(session, never()).close(any());
+        verify(session, times(2)).sendMessage(any());
+    }
+
+    @Test
+    void dropNewestDiscardsTheIncomingFrame() throws Exception {
+        connect(PPGStreamHandler.ReceiveOverflow.DROP_NEWEST);
+
+        sendFrames(1, 2, 3);
+        runDrains();
+
+        assertEquals(List.of(1.0, 2.0), analyzedFrames);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void framesAreAnalyzedInOrderForTheHandshakeUser() throws Exception {
+        connect(PPGStreamHandler.ReceiveOverflow.CLOSE);
+
+        sendFrames(1, 2);
+        runDrains();
+        sendFrames(3);
+        runDrains();
+
+        assertEquals(List.of(1.0, 2.0, 3.0), analyzedFrames);
+        assertTrue(analyzedUsers.stream().allMatch("7"::equals));
+    }
+
+    @Test
+    void missingStreamParametersAreAPolicyViolation() throws Exception {
+        when(session.getUri()).thenReturn(URI.create("ws://localhost/api/v1/ppg/stream?deviceId=d"));
+
+        handler.afterConnectionEstablished(session);
+
+        verify(session).close(argThat(status -> status.getCode() == CloseStatus.POLICY_VIOLATION.getCode()));
+        assertEquals(0, handler.getConnectionCount());
+    }
+
+    private void connect(PPGStreamHandler.ReceiveOverflow overflow) throws Exception {
+        ReflectionTestUtils.setField(handler, "receiveOverflow", overflow);
+        handler.afterConnectionEstablished(session);
+        assertEquals(1, handler.getConnectionCount());
+    }
+
+    private void sendFrames(int... firstSamples) throws Exception {
+        for (int sample : firstSamples) {
+            handler.handleMessage(session, new TextMessage("[" + sample + ", 0.5]"));
+        }
+    }
+
+    private void runDrains() {
+        while (!drainTasks.isEmpty()) {
+            drainTasks.remove(0).run();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package za.pulsewatch.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinarySampleFormatTest {
+
+    @Test
+    void decodesLittleEndianInt16() {
+        ByteBuffer body = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN);
+        body.putShort((short) 0).putShort((short) 1234).putShort((short) -1234).putShort(Short.MIN_VALUE);
+
+        SampleBuffer samples = BinarySampleFormat.INT16.decode(body.array(), 8);
+
+        assertArrayEquals(new double[] {0, 1234, -1234, Short.MIN_VALUE}, samples.toArray());
+    }
+
+    @Test
+    void decodesLittleEndianFloat32() {
+        ByteBuffer body = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        body.putFloat(140.5f).putFloat(-0.25f).putFloat(1e-3f);
+
+        SampleBuffer samples = BinarySampleFormat.FLOAT32.decode(body.array(), 12);
+
+        assertArrayEquals(new double[] {140.5f, -0.25f, 1e-3f}, samples.toArray());
+    }
+
+    @Test
+    void decodesOnlyTheFilledPartOfTheBody() {
+        byte[] body = {1, 0, 2, 0, 99, 99};
+
+        assertArrayEquals(new double[] {1, 2}, BinarySampleFormat.INT16.decode(body, 4).toArray());
+    }
+
+    @Test
+    void decodesAFramePayloadWithoutMovingItsPosition() {
+        ByteBuffer frame = ByteBuffer.allocate(10).order(ByteOrder.LITTLE_ENDIAN);
+        frame.putShort((short) 77).putFloat(2.5f).putFloat(-8.0f);
+        // Past a two-byte header, and in the buffer's default order
+        frame.position(2);
+        frame.order(ByteOrder.BIG_ENDIAN);
+
+        SampleBuffer samples = BinarySampleFormat.FLOAT32.decode(frame);
+
+        assertArrayEquals(new double[] {2.5, -8.0}, samples.toArray());
+        assertEquals(2, frame.position());
+    }
+
+    @Test
+    void rejectsBodiesThatAreNotWholeSamples() {
+        assertThrows(IllegalArgumentException.class, () -> BinarySampleFormat.FLOAT32.decode(new byte[6], 6));
+        assertThrows(IllegalArgumentException.class, () -> BinarySampleFormat.INT16.decode(new byte[3], 3));
+    }
+
+    @Test
+    void looksUpFormatsCaseInsensitivelyWithFloat32AsDefault() {
+        assertEquals(BinarySampleFormat.FLOAT32, BinarySampleFormat.of(null));
+        assertEquals(BinarySampleFormat.FLOAT32, BinarySampleFormat.of(" "));
+        assertEquals(BinarySampleFormat.INT16, BinarySampleFormat.of("int16"));
+        assertEquals(BinarySampleFormat.FLOAT32, BinarySampleFormat.of(" Float32 "));
+        assertThrows(IllegalArgumentException.class, () -> BinarySampleFormat.of("float64"));
+    }
+}
@@ -0,0 +1,133 @@
+package za.pulsewatch.model;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+import org.junit.jupiter.api.Test;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.exception.SampleLimitExceededException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DeltaVarintCodecTest {
+
+    private static final int MAX_SAMPLES = 200_000;
+
+    @Test
+    void roundTripsIntegerPixelAverages() throws IOException {
+        double[] samples = cameraSignal(1800);
+
+        byte[] encoded = DeltaVarintCodec.encode(SampleBuffer.wrap(samples), 0);
+        SampleBuffer decoded = DeltaVarintCodec.decode(encoded, MAX_SAMPLES);
+
+        assertArrayEquals(samples, decoded.toArray());
+        // Small deltas fit in one byte each, plus a few header bytes
+        assertTrue(encoded.length < samples.length + 8, "encoded " + encoded.length + " bytes");
+    }
+
+    @Test
+    void roundTripsFixedPointValuesAndLargeJumps() throws IOException {
+        double[] samples = {0.0, 123.45, -123.45, 1e9, -1e9, 0.01, 99.99, 42.0};
+
+        SampleBuffer decoded = DeltaVarintCodec.decode(DeltaVarintCodec.encode(SampleBuffer.wrap(samples), 2), MAX_SAMPLES);
+
+        assertArrayEquals(samples, decoded.toArray());
+    }
+
+    @Test
+    void roundTripsEmptySignal() throws IOException {
+        SampleBuffer decoded = DeltaVarintCodec.decode(DeltaVarintCodec.encode(SampleBuffer.EMPTY, 0), MAX_SAMPLES);
+
+        assertEquals(0, decoded.size());
+    }
+
+    @Test
+    void decodesWhenBytesArriveOneAtATime() throws IOException {
+        double[] samples = cameraSignal(500);
+        byte[] encoded = DeltaVarintCodec.encode(SampleBuffer.wrap(samples), 0);
+
+        DeltaVarintCodec.Decoder decoder = new DeltaVarintCodec.Decoder(MAX_SAMPLES);
+        for (byte b : encoded) {
+            decoder.write(b);
+        }
+
+        assertArrayEquals(samples, decoder.finish().toArray());
+    }
+
+    @Test
+    void rejectsTruncatedTrailingAndOversizedInput() {
+        byte[] encoded = DeltaVarintCodec.encode(SampleBuffer.wrap(cameraSignal(100)), 0);
+
+        assertThrows(IOException.class,
+            () -> DeltaVarintCodec.decode(Arrays.copyOf(encoded, encoded.length - 1), MAX_SAMPLES));
+        assertThrows(IOException.class,
+            () -> DeltaVarintCodec.decode(Arrays.copyOf(encoded, encoded.length + 1), MAX_SAMPLES));
+        assertThrows(SampleLimitExceededException.class, () -> DeltaVarintCodec.decode(encoded, 99));
+    }
+
+    @Test
+    void requestAcceptsEncodedDataInPlaceOfRawData() throws IOException {
+        double[] samples = cameraSignal(600);
+        String base64 = Base64.getEncoder().encodeToString(DeltaVarintCodec.encode(SampleBuffer.wrap(samples), 0));
+        String json = "{\"userId\":\"u\",\"deviceId\":\"d\",\"samplingRate\":30,\"encodedData\":\"" + base64 + "\"}";
+
+        PPGAnalysisRequest request = new ObjectMapper().readValue(json, PPGAnalysisRequest.class);
+
+        assertArrayEquals(samples, request.getRawData().toArray());
+    }
+
+    @Test
+    void requestRejectsRawDataAndEncodedDataInEitherOrder() {
+        String base64 = Base64.getEncoder().encodeToString(DeltaVarintCodec.encode(SampleBuffer.wrap(cameraSignal(30)), 0));
+        String rawFirst = "{\"rawData\":[1,2,3],\"encodedData\":\"" + base64 + "\"}";
+        String encodedFirst = "{\"encodedData\":\"" + base64 + "\",\"rawData\":[1,2,3]}";
+
+        for (String json : new String[] {rawFirst, encodedFirst}) {
+            JsonMappingException error = assertThrows(JsonMappingException.class,
+                () -> new ObjectMapper().readValue(json, PPGAnalysisRequest.class), json);
+            assertTrue(error.getMessage().contains("either rawData or encodedData"), json);
+        }
+    }
+
+    @Test
+    void encodedDataIsAtLeastFourTimesSmallerThanRawDataJson() throws IOException {
+        // Ten minutes at 60 Hz
+        double[] samples = cameraSignal(36_000);
+        ObjectMapper mapper = new ObjectMapper();
+
+        String rawData = mapper.writeValueAsString(SampleBuffer.wrap(samples));
+        String encodedData = mapper.writeValueAsString(
+            Base64.getEncoder().encodeToString(DeltaVarintCodec.encode(SampleBuffer.wrap(samples), 0)));
+
+        assertTrue(rawData.length() >= 4 * encodedData.length(),
+            "rawData " + rawData.length() + " bytes, encodedData " + encodedData.length() + " bytes");
+    }
+
+    @Test
+    void requestRejectsCorruptEncodedData() {
+        String json = "{\"encodedData\":\"" + Base64.getEncoder().encodeToString(new byte[] {1, 5, 0, 2}) + "\"}";
+
+        assertThrows(MismatchedInputException.class,
+            () -> new ObjectMapper().readValue(json, PPGAnalysisRequest.class));
+    }
+
+    /** Averaged pixel intensity: a slow pulse on a drifting baseline plus sensor noise. */
+    static double[] cameraSignal(int length) {
+        Random random = new Random(7);
+        double[] samples = new double[length];
+        for (int i = 0; i < length; i++) {
+            double t = i / 30.0;
+            samples[i] = Math.round(140 + 4 * Math.sin(2 * Math.PI * 1.2 * t) + 0.5 * t / 10
+                + random.nextGaussian() * 0.7);
+        }
+        return samples;
+    }
+}
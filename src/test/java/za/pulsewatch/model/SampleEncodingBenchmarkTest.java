@@ -0,0 +1,60 @@
+package za.pulsewatch.model;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Parse time of a 10-minute 60 Hz recording sent as a JSON rawData array versus
+ * base64 delta-varint encodedData. The size ratio is asserted in
+ * {@link DeltaVarintCodecTest}; this reports the timing, so it runs only in the
+ * benchmark profile: {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SampleEncodingBenchmarkTest {
+
+    private static final int SAMPLES = 36_000;
+    private static final int ITERATIONS = 50;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    void parseTimeOfEncodedDataVersusJson(TestReporter reporter) throws Exception {
+        double[] samples = DeltaVarintCodecTest.cameraSignal(SAMPLES);
+
+        byte[] json = request("\"rawData\":" + mapper.writeValueAsString(SampleBuffer.wrap(samples)));
+        byte[] encoded = request("\"encodedData\":\""
+            + Base64.getEncoder().encodeToString(DeltaVarintCodec.encode(SampleBuffer.wrap(samples), 0)) + "\"");
+
+        double jsonMs = parseMillis(json);
+        double encodedMs = parseMillis(encoded);
+
+        reporter.publishEntry("rawData JSON", String.format("%d bytes, %.2f ms/parse", json.length, jsonMs));
+        reporter.publishEntry("encodedData", String.format("%d bytes, %.2f ms/parse (%.1fx faster)",
+            encoded.length, encodedMs, jsonMs / encodedMs));
+    }
+
+    private double parseMillis(byte[] body) throws Exception {
+        // Warm-up
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(SAMPLES, mapper.readValue(body, PPGAnalysisRequest.class).getRawData().size());
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            mapper.readValue(body, PPGAnalysisRequest.class);
+        }
+        return (System.nanoTime() - start) / 1e6 / ITERATIONS;
+    }
+
+    private static byte[] request(String samplesField) {
+        return ("{\"userId\":\"u\",\"deviceId\":\"d\",\"samplingRate\":60," + samplesField + "}")
+            .getBytes(StandardCharsets.UTF_8);
+    }
+}
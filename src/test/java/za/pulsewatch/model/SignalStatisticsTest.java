@@ -0,0 +1,38 @@
+package za.pulsewatch.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignalStatisticsTest {
+
+    @Test
+    void snrOfAFlatRecordingIsZero() {
+        double[] clipped = new double[300];
+        Arrays.fill(clipped, 255.0);
+
+        SignalStatistics stats = SignalStatistics.of(clipped);
+
+        assertEquals(0.0, stats.variance());
+        assertEquals(0.0, stats.snr());
+    }
+
+    @Test
+    void snrOfASingleSampleIsZero() {
+        assertEquals(0.0, SignalStatistics.of(new double[] {1.0}).snr());
+    }
+
+    @Test
+    void snrIsSquaredMeanOverVarianceInDecibels() {
+        double[] values = {9.0, 11.0, 9.0, 11.0};
+
+        SignalStatistics stats = SignalStatistics.of(values);
+
+        // mean 10, sample variance 4/3
+        assertEquals(10 * Math.log10(100 / (4.0 / 3.0)), stats.snr(), 1e-12);
+        assertTrue(Double.isFinite(stats.snr()));
+    }
+}
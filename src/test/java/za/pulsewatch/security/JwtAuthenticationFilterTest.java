@@ -0,0 +1,91 @@
+package za.pulsewatch.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.pulsewatch.model.User;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JwtAuthenticationFilterTest {
+
+    private static final String TOKEN = "token";
+
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+
+    @BeforeEach
+    void setUp() {
+        JwtUtil jwtUtil = mock(JwtUtil.class);
+        when(jwtUtil.extractUsername(TOKEN)).thenReturn("user@example.com");
+        when(jwtUtil.validateToken(any(), any())).thenReturn(true);
+        UserDetailsService userDetailsService = mock(UserDetailsService.class);
+        when(userDetailsService.loadUserByUsername("user@example.com")).thenReturn(new User());
+        ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+    }
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void acceptsABearerHeaderOnAnyPath() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/v1/ppg/analyze");
+        request.addHeader("Authorization", "Bearer " + TOKEN);
+
+        assertNotNull(authenticate(request));
+    }
+
+    @Test
+    void acceptsAQueryTokenOnTheWebSocketHandshake() throws Exception {
+        MockHttpServletRequest request = queryTokenRequest("/api/v1/ppg/stream");
+        request.addHeader("Upgrade", "websocket");
+
+        assertNotNull(authenticate(request));
+    }
+
+    @Test
+    void acceptsAQueryTokenOnTheEventStreamUnderAContextPath() throws Exception {
+        MockHttpServletRequest request = queryTokenRequest("/app/api/v1/ppg/feed");
+        request.setContextPath("/app");
+        request.addHeader("Accept", "text/event-stream");
+
+        assertNotNull(authenticate(request));
+    }
+
+    @Test
+    void ignoresAQueryTokenOnOtherEndpoints() throws Exception {
+        MockHttpServletRequest request = queryTokenRequest("/api/v1/ppg/analyze");
+        request.addHeader("Accept", "text/event-stream");
+        request.addHeader("Upgrade", "websocket");
+
+        assertNull(authenticate(request));
+    }
+
+    @Test
+    void ignoresAQueryTokenOnAStreamPathThatIsNotAHandshake() throws Exception {
+        assertNull(authenticate(queryTokenRequest("/api/v1/ppg/feed")));
+    }
+
+    private static MockHttpServletRequest queryTokenRequest(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setParameter("access_token", TOKEN);
+        return request;
+    }
+
+    private Object authenticate(MockHttpServletRequest request) throws Exception {
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+}
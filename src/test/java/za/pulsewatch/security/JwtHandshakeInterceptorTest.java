@@ -0,0 +1,82 @@
+package za.pulsewatch.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import za.pulsewatch.model.User;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JwtHandshakeInterceptorTest {
+
+    private final JwtHandshakeInterceptor interceptor = new JwtHandshakeInterceptor();
+    private final MockHttpServletResponse servletResponse = new MockHttpServletResponse();
+    private final Map<String, Object> attributes = new HashMap<>();
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void rejectsAHandshakeWithoutAJwtWith401() {
+        assertFalse(handshake());
+        assertEquals(401, servletResponse.getStatus());
+        assertTrue(attributes.isEmpty());
+    }
+
+    @Test
+    void rejectsAPrincipalThatIsNotAUser() {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken("anonymous", null, List.of()));
+
+        assertFalse(handshake());
+        assertEquals(401, servletResponse.getStatus());
+    }
+
+    @Test
+    void rejectsUsersWithoutTheUserRoleWith403() {
+        authenticate(user(3L, User.Role.ADMIN));
+
+        assertFalse(handshake());
+        assertEquals(403, servletResponse.getStatus());
+        assertTrue(attributes.isEmpty());
+    }
+
+    @Test
+    void pinsTheConnectionToTheAuthenticatedUser() {
+        authenticate(user(7L, User.Role.USER));
+
+        assertTrue(handshake());
+        assertEquals("7", attributes.get(JwtHandshakeInterceptor.USER_ID_ATTRIBUTE));
+    }
+
+    private boolean handshake() {
+        MockHttpServletRequest servletRequest = new MockHttpServletRequest("GET", "/api/v1/ppg/stream");
+        return interceptor.beforeHandshake(new ServletServerHttpRequest(servletRequest),
+            new ServletServerHttpResponse(servletResponse), null, attributes);
+    }
+
+    private static User user(long id, User.Role role) {
+        User user = new User();
+        user.setId(id);
+        user.setRole(role);
+        return user;
+    }
+
+    private static void authenticate(User user) {
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities()));
+    }
+}
@@ -0,0 +1,118 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptivePeakDetectorTest {
+
+    private static final double SAMPLING_RATE = 30.0;
+    // Default ppg.peaks.max-heart-rate of 220 BPM
+    private static final int REFRACTORY = (int) Math.ceil(SAMPLING_RATE * 60.0 / 220);
+    // Wave positions as fractions of the cardiac period
+    private static final double SYSTOLE = 0.25;
+    private static final double DICROTIC = 0.6;
+
+    private final AdaptivePeakDetector detector = new AdaptivePeakDetector();
+
+    @Test
+    void findsOneBeatPerCycleDespiteTheDicroticWave() {
+        double heartRate = 72;
+        int cycles = 36;
+        double[] signal = pulseWave(heartRate, cycles, 0.0, 1);
+
+        int[] peaks = detect(signal);
+
+        assertEquals(cycles, peaks.length);
+        double period = SAMPLING_RATE * 60 / heartRate;
+        for (int beat = 0; beat < peaks.length; beat++) {
+            // Systolic crest of each cycle, not its dicrotic wave
+            double systole = (beat + SYSTOLE) * period;
+            assertEquals(systole, peaks[beat], 1.0, "beat " + beat);
+        }
+    }
+
+    @Test
+    void keepsOneBeatPerCycleOnANoisyFastPulse() {
+        double heartRate = 150;
+        int cycles = 60;
+        double[] signal = pulseWave(heartRate, cycles, 0.03, 7);
+
+        assertEquals(cycles, detect(signal).length);
+    }
+
+    @Test
+    void beatsAreNeverCloserThanTheRefractoryPeriod() {
+        double[] signal = pulseWave(200, 80, 0.05, 11);
+
+        int[] peaks = detect(signal);
+
+        assertTrue(peaks.length > 0);
+        for (int i = 1; i < peaks.length; i++) {
+            assertTrue(peaks[i] - peaks[i - 1] >= REFRACTORY,
+                "beats at " + peaks[i - 1] + " and " + peaks[i]);
+        }
+    }
+
+    @Test
+    void keepsTheTallerOfTwoCrestsInsideTheRefractoryPeriod() {
+        double[] signal = new double[90];
+        // A ripple, then the real crest three samples later, then a clear second beat
+        addGaussian(signal, 30, 0.7, 0.8);
+        addGaussian(signal, 33, 0.7, 1.0);
+        addGaussian(signal, 70, 0.7, 1.0);
+
+        assertArrayEquals(new int[] {33, 70}, detect(signal));
+    }
+
+    @Test
+    void singlePrecisionFindsTheSameBeats() {
+        double[] signal = pulseWave(90, 40, 0.02, 3);
+        float[] narrowed = new float[signal.length];
+        for (int i = 0; i < signal.length; i++) {
+            narrowed[i] = (float) signal[i];
+        }
+
+        int[] peaks = new int[SignalProcessor.peakCapacity(narrowed.length)];
+        int count = detector.detect(narrowed, narrowed.length, SAMPLING_RATE, peaks);
+
+        assertArrayEquals(detect(signal), Arrays.copyOf(peaks, count));
+    }
+
+    private int[] detect(double[] signal) {
+        int[] peaks = new int[SignalProcessor.peakCapacity(signal.length)];
+        int count = detector.detect(signal, signal.length, SAMPLING_RATE, peaks);
+        return Arrays.copyOf(peaks, count);
+    }
+
+    /**
+     * Pulse train shaped like a fingertip PPG: a tall systolic wave and a smaller
+     * dicrotic wave after the notch, on a slow respiratory baseline.
+     */
+    private static double[] pulseWave(double heartRate, int cycles, double noise, long seed) {
+        double period = SAMPLING_RATE * 60 / heartRate;
+        int length = (int) Math.ceil(cycles * period);
+        double[] signal = new double[length];
+        for (int cycle = 0; cycle < cycles; cycle++) {
+            addGaussian(signal, (cycle + SYSTOLE) * period, 0.08 * period, 1.0);
+            addGaussian(signal, (cycle + DICROTIC) * period, 0.1 * period, 0.35);
+        }
+        Random random = new Random(seed);
+        for (int i = 0; i < length; i++) {
+            signal[i] += 0.1 * Math.sin(2 * Math.PI * 0.25 * i / SAMPLING_RATE) + noise * random.nextGaussian();
+        }
+        return signal;
+    }
+
+    private static void addGaussian(double[] signal, double centre, double width, double amplitude) {
+        for (int i = 0; i < signal.length; i++) {
+            double z = (i - centre) / width;
+            signal[i] += amplitude * Math.exp(-0.5 * z * z);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.web.method.annotation.AuthenticationPrincipalArgumentResolver;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import za.pulsewatch.config.AnalysisExecutorConfig;
+import za.pulsewatch.controller.PPGController;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+import za.pulsewatch.model.HealthMetrics;
+import za.pulsewatch.model.User;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Analyses submitted over REST reach the submitting user's feed, and only that
+ * feed, whatever userId the request carries; the userId itself is kept as sent.
+ */
+class AnalysisFeedOwnershipTest {
+
+    private final ExecutorService feedExecutor = AnalysisExecutorConfig.boundedExecutor("feed-test-", 1, 100, false);
+    private final AnalysisFeedService feedService = new AnalysisFeedService(feedExecutor);
+    private final RecordingEmitter ownerFeed = new RecordingEmitter();
+    private final RecordingEmitter otherFeed = new RecordingEmitter();
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        HealthAnalyzer healthAnalyzer = mock(HealthAnalyzer.class);
+        when(healthAnalyzer.analyzeRealtimeChunk(any(), any())).thenReturn(new HealthMetrics());
+        PPGProcessingService processingService = new PPGProcessingService(healthAnalyzer,
+            mock(MessagePublisher.class), mock(LowResourceSignalProcessor.class), mock(SignalEngine.class),
+            new GamificationService(), mock(SignalQualityGate.class), new UniformResampler(),
+            new ProcessingModeSelector(), feedService);
+
+        PPGController controller = new PPGController(processingService, mock(GamificationService.class),
+            mock(BatchAnalysisService.class), mock(AnalysisJobService.class), new BinarySampleReader(), feedService);
+        mockMvc = MockMvcBuilders.standaloneSetup(controller)
+            .setMessageConverters(new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build()))
+            .setCustomArgumentResolvers(new AuthenticationPrincipalArgumentResolver())
+            .build();
+
+        User owner = new User();
+        owner.setId(7L);
+        SecurityContextHolder.getContext().setAuthentication(
+            new UsernamePasswordAuthenticationToken(owner, null, owner.getAuthorities()));
+
+        feedService.subscribe("7", ownerFeed);
+        feedService.subscribe("8", otherFeed);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        feedExecutor.shutdownNow();
+    }
+
+    @Test
+    void jsonAnalysisIsPublishedToTheCallerNotTheUserInTheBody() throws Exception {
+        mockMvc.perform(post("/api/v1/ppg/realtime")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":\"8\",\"deviceId\":\"d\",\"samplingRate\":30,\"rawData\":[1,2,3,4]}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.userId").value("8"));
+
+        awaitFeed();
+        assertEquals(1, ownerFeed.analyses.size());
+        assertEquals("8", ownerFeed.analyses.get(0).getUserId());
+        assertTrue(otherFeed.analyses.isEmpty());
+    }
+
+    @Test
+    void anOwnerIdInTheBodyIsIgnored() throws Exception {
+        mockMvc.perform(post("/api/v1/ppg/analyze")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"userId\":\"7\",\"ownerId\":\"8\",\"deviceId\":\"d\",\"samplingRate\":30,\"rawData\":[1,2,3,4]}"))
+            .andExpect(status().isOk());
+
+        awaitFeed();
+        assertEquals(1, ownerFeed.analyses.size());
+        assertTrue(otherFeed.analyses.isEmpty());
+    }
+
+    @Test
+    void binaryUploadsArePublishedToTheCallerNotTheUserIdHeader() throws Exception {
+        ByteBuffer body = ByteBuffer.allocate(16).order(ByteOrder.LITTLE_ENDIAN);
+        body.putFloat(1).putFloat(2).putFloat(3).putFloat(4);
+
+        mockMvc.perform(post("/api/v1/ppg/realtime")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-User-Id", "8")
+                .header("X-Device-Id", "d")
+                .header("X-Sampling-Rate", "30")
+                .content(body.array()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.data.userId").value("8"));
+
+        awaitFeed();
+        assertEquals(1, ownerFeed.analyses.size());
+        assertTrue(otherFeed.analyses.isEmpty());
+    }
+
+    @Test
+    void binaryUploadsStillRequireTheUserIdHeader() throws Exception {
+        mockMvc.perform(post("/api/v1/ppg/realtime")
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header("X-Device-Id", "d")
+                .header("X-Sampling-Rate", "30")
+                .content(new byte[16]))
+            .andExpect(status().isBadRequest());
+    }
+
+    private void awaitFeed() throws InterruptedException {
+        feedExecutor.shutdown();
+        assertTrue(feedExecutor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /** Keeps the analyses it is sent instead of writing to a response. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final List<PPGAnalysisResponse> analyses = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof PPGAnalysisResponse analysis) {
+                    analyses.add(analysis);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import za.pulsewatch.config.AnalysisExecutorConfig;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnalysisFeedServiceTest {
+
+    private final ExecutorService executor = AnalysisExecutorConfig.boundedExecutor("feed-test-", 2, 1000, false);
+    private final AnalysisFeedService feedService = new AnalysisFeedService(executor);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void publishFansOutToEveryStreamOfTheOwnerOnly() throws Exception {
+        List<RecordingEmitter> ownerStreams = List.of(new RecordingEmitter(), new RecordingEmitter(), new RecordingEmitter());
+        ownerStreams.forEach(emitter -> feedService.subscribe("7", emitter));
+        RecordingEmitter otherStream = new RecordingEmitter();
+        feedService.subscribe("8", otherStream);
+
+        feedService.publish("7", new PPGAnalysisResponse("s", "7", "d"));
+        feedService.publish(null, new PPGAnalysisResponse("s", "7", "d"));
+
+        awaitWrites();
+        for (RecordingEmitter stream : ownerStreams) {
+            assertEquals(1, stream.analyses.size());
+        }
+        assertTrue(otherStream.analyses.isEmpty());
+    }
+
+    @Test
+    void heartbeatReachesEverySubscriberAcrossShards() throws Exception {
+        List<RecordingEmitter> streams = new ArrayList<>();
+        for (int user = 0; user < 40; user++) {
+            RecordingEmitter stream = new RecordingEmitter();
+            streams.add(stream);
+            feedService.subscribe("user-" + user, stream);
+        }
+
+        feedService.sendHeartbeats();
+
+        awaitWrites();
+        for (RecordingEmitter stream : streams) {
+            assertEquals(1, stream.heartbeats.size());
+        }
+    }
+
+    @Test
+    void aStreamWhoseWriteFailsIsRemoved() throws Exception {
+        RecordingEmitter live = new RecordingEmitter();
+        RecordingEmitter dead = new RecordingEmitter();
+        dead.failing = true;
+        feedService.subscribe("7", live);
+        feedService.subscribe("7", dead);
+
+        feedService.sendHeartbeats();
+
+        awaitWrites();
+        assertEquals(1, feedService.getSubscriberCount());
+        assertEquals(1, live.heartbeats.size());
+    }
+
+    @Test
+    void aStalledStreamIsDroppedAndDoesNotHoldUpTheOthers() throws Exception {
+        ReflectionTestUtils.setField(feedService, "writeTimeoutMs", 50L);
+        RecordingEmitter stuck = new RecordingEmitter();
+        stuck.blocked = new CountDownLatch(1);
+        feedService.subscribe("stuck", stuck);
+        List<RecordingEmitter> others = new ArrayList<>();
+        for (int user = 0; user < 20; user++) {
+            RecordingEmitter stream = new RecordingEmitter();
+            others.add(stream);
+            feedService.subscribe("user-" + user, stream);
+        }
+
+        // The stuck write holds one pool thread; the other thread works through every other shard
+        feedService.sendHeartbeats();
+        assertTrue(stuck.writing.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        feedService.sendHeartbeats();
+        feedService.publish("stuck", new PPGAnalysisResponse("s", "stuck", "d"));
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (feedService.getSubscriberCount() != others.size() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(others.size(), feedService.getSubscriberCount());
+        stuck.blocked.countDown();
+        awaitWrites();
+        for (RecordingEmitter stream : others) {
+            assertTrue(stream.heartbeats.size() >= 1);
+        }
+        assertEquals(1, stuck.sends);
+    }
+
+    @Test
+    void subscriptionsAreLimitedPerUser() {
+        for (int i = 0; i < 5; i++) {
+            feedService.subscribe("7", new RecordingEmitter());
+        }
+
+        assertThrows(RejectedExecutionException.class, () -> feedService.subscribe("7", new RecordingEmitter()));
+        feedService.subscribe("8", new RecordingEmitter());
+        assertEquals(6, feedService.getSubscriberCount());
+    }
+
+    @Test
+    void subscriptionsAreLimitedPerNode() {
+        ReflectionTestUtils.setField(feedService, "maxSubscribers", 3);
+        feedService.subscribe("1", new RecordingEmitter());
+        feedService.subscribe("2", new RecordingEmitter());
+        feedService.subscribe("3", new RecordingEmitter());
+
+        assertThrows(RejectedExecutionException.class, () -> feedService.subscribe("4", new RecordingEmitter()));
+        assertEquals(3, feedService.getSubscriberCount());
+    }
+
+    private void awaitWrites() throws InterruptedException {
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /** Keeps what it is sent instead of writing to a response; can fail or block. */
+    private static final class RecordingEmitter extends SseEmitter {
+
+        final List<PPGAnalysisResponse> analyses = new CopyOnWriteArrayList<>();
+        final List<String> heartbeats = new CopyOnWriteArrayList<>();
+        final CountDownLatch writing = new CountDownLatch(1);
+        volatile boolean failing;
+        volatile CountDownLatch blocked;
+        volatile int sends;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sends++;
+            writing.countDown();
+            if (failing) {
+                throw new IOException("Broken pipe");
+            }
+            if (blocked != null) {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (ResponseBodyEmitter.DataWithMediaType part : builder.build()) {
+                if (part.getData() instanceof PPGAnalysisResponse analysis) {
+                    analyses.add(analysis);
+                } else if (part.getData().toString().contains("heartbeat")) {
+                    heartbeats.add(part.getData().toString());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import za.pulsewatch.config.AnalysisExecutorConfig;
+import za.pulsewatch.dto.AnalysisJobResponse;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+import za.pulsewatch.model.SampleBuffer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AnalysisJobServiceTest {
+
+    private final PPGProcessingService processingService = mock(PPGProcessingService.class);
+    private final ExecutorService executor = AnalysisExecutorConfig.boundedExecutor("job-test-", 2, 10, false);
+    private final AnalysisJobService service = new AnalysisJobService(processingService, executor);
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void ownerWaitsForTheResult() throws Exception {
+        when(processingService.processPPGSignal(any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            PPGAnalysisResponse response = new PPGAnalysisResponse("session", "7", "device");
+            response.setStatus("SUCCESS");
+            return response;
+        });
+
+        AnalysisJobResponse submitted = service.submit(request(), "7");
+        AnalysisJobResponse job = service.awaitStatus(submitted.getJobId(), "7", 5_000).get(10, TimeUnit.SECONDS);
+
+        assertEquals(AnalysisJobService.COMPLETED, job.getStatus());
+        assertEquals("SUCCESS", job.getResult().getStatus());
+    }
+
+    @Test
+    void otherUsersCannotReadAJob() throws Exception {
+        when(processingService.processPPGSignal(any())).thenReturn(new PPGAnalysisResponse("session", "7", "device"));
+
+        AnalysisJobResponse submitted = service.submit(request(), "7");
+
+        assertNull(service.awaitStatus(submitted.getJobId(), "8", 0).get(1, TimeUnit.SECONDS));
+        // A long poll by someone else answers at once instead of waiting on the job
+        assertNull(service.awaitStatus(submitted.getJobId(), "8", 5_000).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void unknownJobsCompleteWithNull() throws Exception {
+        assertNull(service.awaitStatus("no-such-job", "7", 1_000).get(1, TimeUnit.SECONDS));
+    }
+
+    private static PPGAnalysisRequest request() {
+        return new PPGAnalysisRequest("7", "device", SampleBuffer.wrap(new double[] {1, 2, 3}), 30);
+    }
+}
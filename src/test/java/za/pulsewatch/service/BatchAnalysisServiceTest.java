@@ -0,0 +1,169 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.pulsewatch.config.AnalysisExecutorConfig;
+import za.pulsewatch.dto.PPGAnalysisRequest;
+import za.pulsewatch.dto.PPGAnalysisResponse;
+import za.pulsewatch.model.SampleBuffer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchAnalysisServiceTest {
+
+    private final PPGProcessingService processingService = mock(PPGProcessingService.class);
+    private ExecutorService executor;
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void returnsResultsInRequestOrderWhateverOrderTheyFinishIn() {
+        BatchAnalysisService service = service(4, 100);
+        when(processingService.processPPGSignal(any())).thenAnswer(invocation -> {
+            PPGAnalysisRequest request = invocation.getArgument(0);
+            int index = Integer.parseInt(request.getDeviceId());
+            // Early items finish last
+            Thread.sleep(5L * (12 - index));
+            return completed(request);
+        });
+
+        List<PPGAnalysisResponse> responses = service.analyze(requests(12));
+
+        assertEquals(12, responses.size());
+        for (int i = 0; i < responses.size(); i++) {
+            assertEquals(String.valueOf(i), responses.get(i).getDeviceId());
+            assertEquals("COMPLETED", responses.get(i).getStatus());
+        }
+    }
+
+    @Test
+    void aSlowItemTimesOutWithoutFailingTheRest() {
+        BatchAnalysisService service = service(4, 100);
+        ReflectionTestUtils.setField(service, "itemTimeoutMs", 200L);
+        when(processingService.processPPGSignal(any())).thenAnswer(invocation -> {
+            PPGAnalysisRequest request = invocation.getArgument(0);
+            if (request.getDeviceId().equals("1")) {
+                Thread.sleep(10_000);
+            }
+            return completed(request);
+        });
+
+        long start = System.nanoTime();
+        List<PPGAnalysisResponse> responses = service.analyze(requests(3));
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals("COMPLETED", responses.get(0).getStatus());
+        assertEquals(BatchAnalysisService.STATUS_TIMEOUT, responses.get(1).getStatus());
+        assertEquals("COMPLETED", responses.get(2).getStatus());
+        assertTrue(elapsedMs < 5_000, "batch took " + elapsedMs + " ms");
+    }
+
+    @Test
+    void timeoutCountsFromWhenTheItemStartsNotWhenItWasQueued() {
+        // One worker: each item waits behind the others longer than its own timeout
+        BatchAnalysisService service = service(1, 100);
+        ReflectionTestUtils.setField(service, "itemTimeoutMs", 150L);
+        when(processingService.processPPGSignal(any())).thenAnswer(invocation -> {
+            Thread.sleep(100);
+            return completed(invocation.getArgument(0));
+        });
+
+        for (PPGAnalysisResponse response : service.analyze(requests(4))) {
+            assertEquals("COMPLETED", response.getStatus());
+        }
+    }
+
+    @Test
+    void itemsThatDoNotFitTheQueueAreReportedBusy() throws Exception {
+        // One running item and one queued; the third is rejected
+        BatchAnalysisService service = service(1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(processingService.processPPGSignal(any())).thenAnswer(invocation -> {
+            release.await();
+            return completed(invocation.getArgument(0));
+        });
+
+        AtomicReference<List<PPGAnalysisResponse>> result = new AtomicReference<>();
+        Thread batch = new Thread(() -> result.set(service.analyze(requests(3))));
+        batch.start();
+        Thread.sleep(200);
+        release.countDown();
+        batch.join(5_000);
+
+        assertEquals("COMPLETED", result.get().get(0).getStatus());
+        assertEquals("COMPLETED", result.get().get(1).getStatus());
+        assertEquals(BatchAnalysisService.STATUS_BUSY, result.get().get(2).getStatus());
+        assertEquals("2", result.get().get(2).getDeviceId());
+    }
+
+    @Test
+    void aFailingItemBecomesAnErrorResponse() {
+        BatchAnalysisService service = service(2, 100);
+        when(processingService.processPPGSignal(any())).thenAnswer(invocation -> {
+            PPGAnalysisRequest request = invocation.getArgument(0);
+            if (request.getDeviceId().equals("0")) {
+                throw new IllegalStateException("sensor saturated");
+            }
+            return completed(request);
+        });
+
+        List<PPGAnalysisResponse> responses = service.analyze(requests(2));
+
+        assertEquals(BatchAnalysisService.STATUS_ERROR, responses.get(0).getStatus());
+        assertTrue(responses.get(0).getMessage().contains("sensor saturated"));
+        assertEquals("COMPLETED", responses.get(1).getStatus());
+    }
+
+    @Test
+    void rejectsBatchesOverTheMaximumSize() {
+        BatchAnalysisService service = service(1, 10);
+        ReflectionTestUtils.setField(service, "maxBatchSize", 2);
+
+        assertThrows(IllegalArgumentException.class, () -> service.analyze(requests(3)));
+    }
+
+    private BatchAnalysisService service(int threads, int queueCapacity) {
+        executor = AnalysisExecutorConfig.boundedExecutor("batch-test-", threads, queueCapacity, false);
+        when(processingService.createFailedResponse(any(), anyString(), anyString())).thenAnswer(invocation -> {
+            PPGAnalysisRequest request = invocation.getArgument(0);
+            PPGAnalysisResponse response = new PPGAnalysisResponse(
+                request.getSessionId(), request.getUserId(), request.getDeviceId());
+            response.setStatus(invocation.getArgument(1));
+            response.setMessage(invocation.getArgument(2));
+            return response;
+        });
+        return new BatchAnalysisService(processingService, executor);
+    }
+
+    private static List<PPGAnalysisRequest> requests(int count) {
+        List<PPGAnalysisRequest> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            requests.add(new PPGAnalysisRequest("user", String.valueOf(i), SampleBuffer.wrap(new double[] {1, 2, 3}), 30));
+        }
+        return requests;
+    }
+
+    private static PPGAnalysisResponse completed(PPGAnalysisRequest request) {
+        PPGAnalysisResponse response = new PPGAnalysisResponse(
+            request.getSessionId(), request.getUserId(), request.getDeviceId());
+        response.setStatus("COMPLETED");
+        return response;
+    }
+}
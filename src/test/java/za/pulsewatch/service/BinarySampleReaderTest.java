@@ -0,0 +1,105 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.pulsewatch.exception.SampleLimitExceededException;
+import za.pulsewatch.model.BinarySampleFormat;
+import za.pulsewatch.model.SampleBuffer;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BinarySampleReaderTest {
+
+    private static final int MAX_SAMPLES = 1000;
+
+    private final BinarySampleReader reader = reader();
+
+    @Test
+    void readsADeclaredLengthBody() throws IOException {
+        double[] expected = ramp(MAX_SAMPLES);
+
+        SampleBuffer samples = reader.read(new ByteArrayInputStream(float32(expected)),
+            MAX_SAMPLES * Float.BYTES, BinarySampleFormat.FLOAT32);
+
+        assertArrayEquals(expected, samples.toArray());
+    }
+
+    @Test
+    void refusesAnOversizedContentLengthBeforeReadingTheBody() {
+        InputStream unreadable = new InputStream() {
+            @Override
+            public int read() {
+                throw new AssertionError("body was read");
+            }
+        };
+
+        SampleLimitExceededException e = assertThrows(SampleLimitExceededException.class,
+            () -> reader.read(unreadable, (MAX_SAMPLES + 1) * Short.BYTES, BinarySampleFormat.INT16));
+        assertEquals(MAX_SAMPLES, e.getMaxSamples());
+    }
+
+    @Test
+    void readsAChunkedBodyArrivingInSmallPieces() throws IOException {
+        double[] expected = ramp(MAX_SAMPLES);
+
+        SampleBuffer samples = reader.read(trickle(float32(expected)), -1, BinarySampleFormat.FLOAT32);
+
+        assertArrayEquals(expected, samples.toArray());
+    }
+
+    @Test
+    void refusesAChunkedBodyAsSoonAsItPassesTheLimit() {
+        byte[] body = float32(ramp(MAX_SAMPLES + 1));
+
+        assertThrows(SampleLimitExceededException.class,
+            () -> reader.read(new ByteArrayInputStream(body), -1, BinarySampleFormat.FLOAT32));
+    }
+
+    @Test
+    void rejectsATruncatedSample() {
+        byte[] body = {1, 0, 2};
+
+        assertThrows(IllegalArgumentException.class,
+            () -> reader.read(new ByteArrayInputStream(body), body.length, BinarySampleFormat.INT16));
+    }
+
+    private static BinarySampleReader reader() {
+        BinarySampleReader reader = new BinarySampleReader();
+        ReflectionTestUtils.setField(reader, "maxSamples", MAX_SAMPLES);
+        return reader;
+    }
+
+    private static double[] ramp(int length) {
+        double[] samples = new double[length];
+        for (int i = 0; i < length; i++) {
+            samples[i] = 100 + 0.5 * i;
+        }
+        return samples;
+    }
+
+    private static byte[] float32(double[] samples) {
+        ByteBuffer body = ByteBuffer.allocate(samples.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (double sample : samples) {
+            body.putFloat((float) sample);
+        }
+        return body.array();
+    }
+
+    /** A stream that hands out at most 7 bytes per read, like a slow chunked upload. */
+    private static InputStream trickle(byte[] body) {
+        return new ByteArrayInputStream(body) {
+            @Override
+            public synchronized int read(byte[] buffer, int offset, int length) {
+                return super.read(buffer, offset, Math.min(length, 7));
+            }
+        };
+    }
+}
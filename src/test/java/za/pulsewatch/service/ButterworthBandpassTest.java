@@ -0,0 +1,102 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ButterworthBandpassTest {
+
+    private static final double SAMPLING_RATE = 30.0;
+    private static final double LOW = 0.5;
+    private static final double HIGH = 5.0;
+
+    @Test
+    void isThreeDecibelsDownAtBothCutoffs() {
+        for (int order = 1; order <= 4; order++) {
+            BiquadCascade bandpass = ButterworthBandpass.design(SAMPLING_RATE, LOW, HIGH, order);
+
+            assertEquals(-3.01, gainDb(bandpass, LOW), 0.3, "low cutoff, order " + order);
+            assertEquals(-3.01, gainDb(bandpass, HIGH), 0.3, "high cutoff, order " + order);
+        }
+    }
+
+    @Test
+    void passesTheBandCentreAtUnityGain() {
+        double centre = Math.sqrt(LOW * HIGH);
+        // A first-order skirt still costs ~0.4 dB per side a decade out; from order 2 the band is flat
+        for (int order = 2; order <= 4; order++) {
+            BiquadCascade bandpass = ButterworthBandpass.design(SAMPLING_RATE, LOW, HIGH, order);
+
+            assertEquals(0.0, gainDb(bandpass, centre), 0.2, "centre, order " + order);
+        }
+    }
+
+    @Test
+    void attenuatesFarOutsideTheBand() {
+        BiquadCascade bandpass = ButterworthBandpass.design(SAMPLING_RATE, LOW, HIGH, 2);
+
+        assertTrue(gainDb(bandpass, 0.05) < -35, "baseline wander");
+        assertTrue(gainDb(bandpass, 12.0) < -12, "high-frequency noise");
+    }
+
+    @Test
+    void zeroPhaseFilteringKeepsPeaksInPlace() {
+        BiquadCascade bandpass = ButterworthBandpass.design(SAMPLING_RATE, LOW, HIGH, 2);
+        double frequency = 1.2;
+        double[] signal = sine(frequency, 60 * (int) SAMPLING_RATE);
+
+        bandpass.filtfilt(signal, signal.length);
+
+        // The crest of a mid-recording cycle stays on the same sample
+        int crest = (int) Math.round(SAMPLING_RATE * (30 + 0.25 / frequency));
+        int filteredCrest = crest;
+        for (int i = crest - 5; i <= crest + 5; i++) {
+            if (signal[i] > signal[filteredCrest]) {
+                filteredCrest = i;
+            }
+        }
+        assertEquals(crest, filteredCrest);
+    }
+
+    @Test
+    void cachesDesignsPerParameters() {
+        assertSame(ButterworthBandpass.design(SAMPLING_RATE, LOW, HIGH, 2),
+            ButterworthBandpass.design(SAMPLING_RATE, LOW, HIGH, 2));
+    }
+
+    /**
+     * Steady-state gain at {@code frequency}: filters two minutes of a unit sine
+     * and least-squares fits a sinusoid to the second minute.
+     */
+    private static double gainDb(BiquadCascade bandpass, double frequency) {
+        int length = 120 * (int) SAMPLING_RATE;
+        double[] signal = sine(frequency, length);
+        bandpass.filter(signal, length);
+
+        double ss = 0, sc = 0, cc = 0, ys = 0, yc = 0;
+        for (int i = length / 2; i < length; i++) {
+            double phase = 2 * Math.PI * frequency * i / SAMPLING_RATE;
+            double s = Math.sin(phase);
+            double c = Math.cos(phase);
+            ss += s * s;
+            sc += s * c;
+            cc += c * c;
+            ys += signal[i] * s;
+            yc += signal[i] * c;
+        }
+        double determinant = ss * cc - sc * sc;
+        double a = (ys * cc - yc * sc) / determinant;
+        double b = (yc * ss - ys * sc) / determinant;
+        return 20 * Math.log10(Math.hypot(a, b));
+    }
+
+    private static double[] sine(double frequency, int length) {
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = Math.sin(2 * Math.PI * frequency * i / SAMPLING_RATE);
+        }
+        return signal;
+    }
+}
@@ -0,0 +1,150 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import za.pulsewatch.model.HrvSpectrum;
+import za.pulsewatch.model.RRSeries;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FrequencyDomainHrvAnalyzerTest {
+
+    private static final double MEAN_RR = 0.8;
+    // 30 ms of modulation: a variance of 450 ms²
+    private static final double AMPLITUDE = 0.030;
+
+    private final FrequencyDomainHrvAnalyzer analyzer = new FrequencyDomainHrvAnalyzer();
+
+    @Test
+    void findsA0_1HzModulationInTheLowFrequencyBand() {
+        RRSeries rr = modulatedRhythm(120, 0.1, 0.0);
+
+        HrvSpectrum spectrum = analyzer.analyze(rr);
+
+        assertTrue(spectrum.lfPower() > 20 * spectrum.hfPower(), spectrum.toString());
+        assertEquals(variance(AMPLITUDE), spectrum.lfPower(), 0.25 * variance(AMPLITUDE));
+    }
+
+    @Test
+    void findsA0_25HzModulationInTheHighFrequencyBand() {
+        RRSeries rr = modulatedRhythm(120, 0.0, 0.25);
+
+        HrvSpectrum spectrum = analyzer.analyze(rr);
+
+        assertTrue(spectrum.hfPower() > 20 * spectrum.lfPower(), spectrum.toString());
+        assertEquals(variance(AMPLITUDE), spectrum.hfPower(), 0.25 * variance(AMPLITUDE));
+    }
+
+    @Test
+    void separatesSimultaneousModulations() {
+        RRSeries rr = modulatedRhythm(180, 0.1, 0.25);
+
+        HrvSpectrum spectrum = analyzer.analyze(rr);
+
+        assertEquals(variance(AMPLITUDE), spectrum.lfPower(), 0.25 * variance(AMPLITUDE));
+        assertEquals(variance(AMPLITUDE), spectrum.hfPower(), 0.25 * variance(AMPLITUDE));
+        assertEquals(1.0, spectrum.lfHfRatio(), 0.3);
+    }
+
+    @Test
+    void matchesTheDirectLombScarglePeriodogram() {
+        RRSeries rr = modulatedRhythm(180, 0.09, 0.27);
+
+        HrvSpectrum fast = analyzer.analyze(rr);
+        HrvSpectrum direct = directLombScargle(rr);
+
+        assertEquals(direct.lfPower(), fast.lfPower(), 0.02 * direct.lfPower());
+        assertEquals(direct.hfPower(), fast.hfPower(), 0.02 * direct.hfPower());
+    }
+
+    @Test
+    void needsAtLeastOneFullLowFrequencyCycle() {
+        assertFalse(analyzer.analyze(modulatedRhythm(20, 0.1, 0.25)).isValid());
+    }
+
+    /**
+     * Beats whose RR interval is {@link #MEAN_RR} plus sinusoidal modulation at the
+     * given frequencies (0 to leave one out), for {@code seconds} of recording.
+     */
+    private static RRSeries modulatedRhythm(double seconds, double lfHz, double hfHz) {
+        List<Double> times = new ArrayList<>();
+        double t = 0.0;
+        while (t <= seconds) {
+            times.add(t);
+            double rr = MEAN_RR;
+            if (lfHz > 0) {
+                rr += AMPLITUDE * Math.sin(2 * Math.PI * lfHz * t);
+            }
+            if (hfHz > 0) {
+                rr += AMPLITUDE * Math.sin(2 * Math.PI * hfHz * t);
+            }
+            t += rr;
+        }
+        double[] beatTimes = new double[times.size()];
+        for (int i = 0; i < beatTimes.length; i++) {
+            beatTimes[i] = times.get(i);
+        }
+        return RRSeries.fromBeatTimes(beatTimes, beatTimes.length);
+    }
+
+    /**
+     * O(n * frequencies) Lomb-Scargle with the analyzer's frequency grid and PSD
+     * scaling, as the reference for the extirpolated version.
+     */
+    private static HrvSpectrum directLombScargle(RRSeries rr) {
+        double[] intervals = rr.getIntervals();
+        double[] beatTimes = rr.getBeatTimes();
+        int n = intervals.length;
+        double firstTime = beatTimes[1];
+        double duration = beatTimes[n] - firstTime;
+
+        double mean = 0.0;
+        for (double interval : intervals) {
+            mean += interval;
+        }
+        mean /= n;
+
+        double df = 1.0 / (duration * 4);
+        double lf = 0.0;
+        double hf = 0.0;
+        for (int k = 1; k * df < 0.4; k++) {
+            double omega = 2 * Math.PI * k * df;
+            if (k * df < 0.04) {
+                continue;
+            }
+
+            double sin2 = 0.0, cos2 = 0.0;
+            for (int i = 0; i < n; i++) {
+                sin2 += Math.sin(2 * omega * (beatTimes[i + 1] - firstTime));
+                cos2 += Math.cos(2 * omega * (beatTimes[i + 1] - firstTime));
+            }
+            double tau = Math.atan2(sin2, cos2) / (2 * omega);
+
+            double yc = 0.0, ys = 0.0, cc = 0.0, ss = 0.0;
+            for (int i = 0; i < n; i++) {
+                double phase = omega * (beatTimes[i + 1] - firstTime - tau);
+                double y = (intervals[i] - mean) * 1000;
+                yc += y * Math.cos(phase);
+                ys += y * Math.sin(phase);
+                cc += Math.cos(phase) * Math.cos(phase);
+                ss += Math.sin(phase) * Math.sin(phase);
+            }
+            double power = duration / n * (yc * yc / cc + ys * ys / ss) * df;
+            if (k * df < 0.15) {
+                lf += power;
+            } else {
+                hf += power;
+            }
+        }
+        return new HrvSpectrum(lf, hf);
+    }
+
+    private static double variance(double amplitudeSeconds) {
+        double amplitudeMs = amplitudeSeconds * 1000;
+        return amplitudeMs * amplitudeMs / 2;
+    }
+}
@@ -0,0 +1,144 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import za.pulsewatch.model.Achievement;
+import za.pulsewatch.model.UserStats;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Hammers one GamificationService from many threads, the way concurrent
+ * /analyze, /batch and realtime requests do, and checks that no update is lost
+ * or applied twice.
+ */
+class GamificationServiceConcurrencyTest {
+
+    private static final int THREADS = 32;
+    private static final int USERS = 8;
+    private static final int DAYS = 60;
+    // Analyses per user per day, all racing to record the same day
+    private static final int CALLS_PER_DAY = 250;
+
+    private static final LocalDate START = LocalDate.now();
+
+    @Test
+    void concurrentAnalysesKeepStreaksAndSessionCounts() throws Exception {
+        GamificationService service = new GamificationService();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        // Readers check every snapshot they see is internally consistent
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicInteger inconsistentReads = new AtomicInteger();
+        Thread reader = new Thread(() -> {
+            while (!done.get()) {
+                for (int user = 0; user < USERS; user++) {
+                    UserStats stats = service.getUserStats(userId(user));
+                    if (stats.getLongestStreak() < stats.getCurrentStreak()
+                            || stats.getTotalSessions() < stats.getCurrentStreak()) {
+                        inconsistentReads.incrementAndGet();
+                    }
+                    service.getLeaderboardPosition(userId(user));
+                }
+            }
+        });
+        reader.start();
+
+        try {
+            for (int day = 0; day < DAYS; day++) {
+                LocalDate date = START.plusDays(day);
+                List<Callable<Integer>> calls = new ArrayList<>();
+                for (int user = 0; user < USERS; user++) {
+                    String userId = userId(user);
+                    for (int i = 0; i < CALLS_PER_DAY; i++) {
+                        calls.add(() -> service.updateStreak(userId, date));
+                    }
+                }
+                Collections.shuffle(calls);
+
+                for (Future<Integer> result : executor.invokeAll(calls)) {
+                    assertEquals(day + 1, result.get(), "streak seen on day " + day);
+                }
+            }
+        } finally {
+            done.set(true);
+            reader.join();
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        for (int user = 0; user < USERS; user++) {
+            UserStats stats = service.getUserStats(userId(user));
+            assertEquals(DAYS, stats.getCurrentStreak(), "current streak of " + stats.getUserId());
+            assertEquals(DAYS, stats.getLongestStreak(), "longest streak of " + stats.getUserId());
+            // One session per day however many analyses raced for it
+            assertEquals(DAYS, stats.getTotalSessions(), "sessions of " + stats.getUserId());
+            assertEquals(START.plusDays(DAYS - 1), stats.getLastCheckDate());
+        }
+        assertEquals(0, inconsistentReads.get(), "torn UserStats snapshots");
+    }
+
+    @Test
+    void lateRequestForAnEarlierDayDoesNotResetTheStreak() {
+        GamificationService service = new GamificationService();
+
+        service.updateStreak("user", START);
+        service.updateStreak("user", START.plusDays(1));
+
+        assertEquals(2, service.updateStreak("user", START));
+        assertEquals(2, service.getUserStats("user").getTotalSessions());
+    }
+
+    @Test
+    void concurrentChecksAwardEachAchievementOnce() throws Exception {
+        GamificationService service = new GamificationService();
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<List<Achievement>>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < THREADS * 50; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    // Excellent metrics on a 30-day streak: three achievements up for grabs
+                    return service.checkAchievements("user", 75.0, 98.0, 0.08, 1.0, 30);
+                }));
+            }
+            start.countDown();
+
+            int awarded = 0;
+            for (Future<List<Achievement>> result : results) {
+                awarded += result.get().size();
+            }
+            assertEquals(3, awarded);
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+
+        List<String> ids = new ArrayList<>();
+        for (Achievement achievement : service.getAchievements("user")) {
+            ids.add(achievement.getId());
+        }
+        Collections.sort(ids);
+        assertEquals(List.of("HEALTH_EXCELLENT", "MONTHLY_STREAK", "WEEKLY_STREAK"), ids);
+        assertTrue(service.getAchievements("other").isEmpty());
+    }
+
+    private static String userId(int user) {
+        return "user-" + user;
+    }
+}
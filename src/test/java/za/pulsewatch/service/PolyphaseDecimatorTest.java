@@ -0,0 +1,97 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PolyphaseDecimatorTest {
+
+    private static final double INPUT_RATE = 240.0;
+
+    @Test
+    void preservesAnInBandSinusoidAlignedWithTheInput() {
+        PolyphaseDecimator decimator = new SignalDecimator().decimatorFor(INPUT_RATE);
+        int factor = decimator.getFactor();
+        double[] input = sine(1.2, 1.0, 20 * (int) INPUT_RATE);
+
+        double[] output = decimate(decimator, input);
+
+        // Output sample k sits on input sample k * factor; skip the edge-padded ends
+        double maxError = 0.0;
+        for (int k = 10; k < output.length - 10; k++) {
+            maxError = Math.max(maxError, Math.abs(output[k] - input[k * factor]));
+        }
+        assertTrue(maxError < 0.01, "max error " + maxError);
+    }
+
+    @Test
+    void removesInterferenceAboveTheOutputNyquistInsteadOfAliasingIt() {
+        PolyphaseDecimator decimator = new SignalDecimator().decimatorFor(INPUT_RATE);
+        // 60 Hz mains flicker would alias to 6.7 Hz at 26.7 Hz output without the filter
+        double[] input = sine(60.0, 1.0, 20 * (int) INPUT_RATE);
+
+        double[] output = decimate(decimator, input);
+
+        double peak = 0.0;
+        for (int k = 10; k < output.length - 10; k++) {
+            peak = Math.max(peak, Math.abs(output[k]));
+        }
+        assertTrue(peak < 0.01, "residual " + peak);
+    }
+
+    @Test
+    void keepsUnityGainAtDc() {
+        double[] input = new double[1000];
+        Arrays.fill(input, 3.5);
+
+        double[] output = decimate(PolyphaseDecimator.of(6, 8), input);
+
+        for (double value : output) {
+            assertEquals(3.5, value, 1e-12);
+        }
+    }
+
+    @Test
+    void picksTheLargestFactorThatStaysAboveTheTargetRate() {
+        SignalDecimator decimator = new SignalDecimator();
+
+        assertEquals(9, decimator.factorFor(240));
+        assertEquals(4, decimator.factorFor(120));
+        assertEquals(2, decimator.factorFor(60));
+        assertEquals(1, decimator.factorFor(30));
+    }
+
+    @Test
+    void leavesRatesBeyondTheMaximumFactorUndecimated() {
+        SignalDecimator decimator = new SignalDecimator();
+
+        assertEquals(40, decimator.factorFor(1000));
+        assertEquals(1, decimator.factorFor(1025));
+        assertEquals(1, decimator.decimatorFor(1e9).getFactor());
+    }
+
+    @Test
+    void factorOnePassesSamplesThrough() {
+        double[] input = {1.0, -2.0, 3.0, 0.5};
+
+        assertArrayEquals(input, decimate(PolyphaseDecimator.of(1, 8), input));
+    }
+
+    private static double[] decimate(PolyphaseDecimator decimator, double[] input) {
+        double[] output = new double[decimator.outputLength(input.length)];
+        decimator.decimate(input, input.length, output);
+        return output;
+    }
+
+    private static double[] sine(double frequency, double amplitude, int length) {
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = amplitude * Math.sin(2 * Math.PI * frequency * i / INPUT_RATE);
+        }
+        return signal;
+    }
+}
@@ -0,0 +1,101 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessingModeSelectorTest {
+
+    private static final int SAMPLES = 3000;
+    private static final double RATE = 30.0;
+
+    private final ProcessingModeSelector selector = new ProcessingModeSelector();
+
+    @Test
+    void shortOrSlowRecordingsAlwaysGetTheCheapAnalysis() {
+        assertEquals("short-recording", selector.decide(999, RATE).reason());
+        assertEquals("low-sampling-rate", selector.decide(SAMPLES, 25).reason());
+        assertEquals(ProcessingModeSelector.FULL, selector.decide(SAMPLES, RATE).mode());
+    }
+
+    @Test
+    void degradesAtTheInFlightLimitAndRecoversAfterTheDwellTime() throws InterruptedException {
+        ReflectionTestUtils.setField(selector, "maxInFlight", 2);
+        ReflectionTestUtils.setField(selector, "minDwellMs", 100L);
+
+        selector.requestStarted();
+        selector.requestStarted();
+        ProcessingModeSelector.ModeDecision overloaded = selector.decide(SAMPLES, RATE);
+        assertTrue(overloaded.isLowResource());
+        assertEquals("in-flight 2 >= 2", overloaded.reason());
+        assertTrue(selector.isDegraded());
+
+        // Load is gone, but the last overload is too recent
+        selector.requestFinished(10);
+        selector.requestFinished(10);
+        assertEquals("recovering", selector.decide(SAMPLES, RATE).reason());
+
+        Thread.sleep(150);
+        assertEquals(ProcessingModeSelector.FULL, selector.decide(SAMPLES, RATE).mode());
+        assertFalse(selector.isDegraded());
+    }
+
+    @Test
+    void staysDegradedUntilLoadFallsBelowTheRecoveryRatio() {
+        ReflectionTestUtils.setField(selector, "minDwellMs", 0L);
+        AtomicInteger depth = new AtomicInteger(100);
+        selector.registerQueue("test", depth::get);
+
+        assertEquals("queue-depth 100 >= 100", selector.decide(SAMPLES, RATE).reason());
+
+        // Below the limit but above 70% of it: no flapping back to full
+        depth.set(80);
+        assertEquals("recovering", selector.decide(SAMPLES, RATE).reason());
+
+        depth.set(50);
+        assertEquals(ProcessingModeSelector.FULL, selector.decide(SAMPLES, RATE).mode());
+    }
+
+    @Test
+    void degradesOnTheP95Latency() {
+        ReflectionTestUtils.setField(selector, "minDwellMs", 0L);
+        for (int i = 0; i < 95; i++) {
+            selector.requestStarted();
+            selector.requestFinished(10);
+        }
+        for (int i = 0; i < 5; i++) {
+            selector.requestStarted();
+            selector.requestFinished(900);
+        }
+        // 5 slow requests in 100 leave the p95 on a fast one
+        assertEquals(ProcessingModeSelector.FULL, selector.decide(SAMPLES, RATE).mode());
+
+        selector.requestStarted();
+        selector.requestFinished(900);
+        assertEquals("p95-latency 900ms >= 500ms", selector.decide(SAMPLES, RATE).reason());
+    }
+
+    @Test
+    void p95MatchesTheSortedWindowAtEveryFillLevel() {
+        Random random = new Random(11);
+        long[] recorded = new long[600];
+        for (int count = 1; count <= recorded.length; count++) {
+            long latency = random.nextInt(1000);
+            recorded[count - 1] = latency;
+            selector.requestStarted();
+            selector.requestFinished(latency);
+
+            long[] window = Arrays.copyOfRange(recorded, Math.max(0, count - 256), count);
+            Arrays.sort(window);
+            long expected = window[(int) Math.ceil(0.95 * window.length) - 1];
+            assertEquals(expected, selector.p95LatencyMs(), "after " + count + " requests");
+        }
+    }
+}
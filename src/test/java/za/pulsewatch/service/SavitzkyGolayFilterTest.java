@@ -0,0 +1,91 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavitzkyGolayFilterTest {
+
+    private static final double TOLERANCE = 1e-9;
+
+    @Test
+    void reproducesAQuadraticExactlyIncludingTheEdges() {
+        double[] quadratic = polynomial(64, 3.0, -0.25, 0.02, 0.0);
+
+        for (int window : new int[] {5, 7, 11}) {
+            double[] smoothed = new double[quadratic.length];
+            SavitzkyGolayFilter.of(window, 2).smooth(quadratic, quadratic.length, smoothed);
+
+            assertArrayEquals(quadratic, smoothed, TOLERANCE, "window " + window);
+        }
+    }
+
+    @Test
+    void vectorKernelsMatchTheScalarConvolution() {
+        double[] quadratic = polynomial(101, -1.0, 0.5, -0.003, 0.0);
+        SavitzkyGolayFilter filter = SavitzkyGolayFilter.of(7, 2);
+
+        double[] smoothed = new double[quadratic.length];
+        filter.smooth(quadratic, quadratic.length, smoothed, SignalKernels.select("auto"));
+
+        assertArrayEquals(quadratic, smoothed, TOLERANCE);
+    }
+
+    @Test
+    void singlePrecisionReproducesAQuadraticWithinFloatRounding() {
+        double[] quadratic = polynomial(64, 3.0, -0.25, 0.02, 0.0);
+        float[] input = new float[quadratic.length];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = (float) quadratic[i];
+        }
+
+        float[] smoothed = new float[input.length];
+        SavitzkyGolayFilter.of(5, 2).smooth(input, input.length, smoothed);
+
+        for (int i = 0; i < input.length; i++) {
+            assertEquals(quadratic[i], smoothed[i], 1e-4, "sample " + i);
+        }
+    }
+
+    @Test
+    void smoothsACubicThatAQuadraticFitCannotFollow() {
+        double[] cubic = polynomial(64, 0.0, 0.0, 0.0, 0.001);
+
+        double[] smoothed = new double[cubic.length];
+        SavitzkyGolayFilter.of(7, 2).smooth(cubic, cubic.length, smoothed);
+
+        // Interior residual of a quadratic fit to x^3 is proportional to the third derivative
+        double maxError = 0.0;
+        for (int i = 0; i < cubic.length; i++) {
+            maxError = Math.max(maxError, Math.abs(cubic[i] - smoothed[i]));
+        }
+        assertTrue(maxError > 1e-3, "max error " + maxError);
+    }
+
+    @Test
+    void passesSignalsShorterThanTheWindowThrough() {
+        double[] input = {1.0, 4.0, 2.0};
+        double[] output = new double[input.length];
+
+        SavitzkyGolayFilter.of(5, 2).smooth(input, input.length, output);
+
+        assertArrayEquals(input, output);
+    }
+
+    @Test
+    void rejectsInvalidWindows() {
+        assertThrows(IllegalArgumentException.class, () -> SavitzkyGolayFilter.of(4, 2));
+        assertThrows(IllegalArgumentException.class, () -> SavitzkyGolayFilter.of(5, 5));
+    }
+
+    private static double[] polynomial(int length, double c0, double c1, double c2, double c3) {
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = c0 + c1 * i + c2 * i * i + c3 * i * i * i;
+        }
+        return values;
+    }
+}
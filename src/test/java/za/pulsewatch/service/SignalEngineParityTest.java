@@ -0,0 +1,126 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import za.pulsewatch.model.RRSeries;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The float32 engine must report what the double engine reports on the same
+ * recording, within single-precision rounding.
+ */
+class SignalEngineParityTest {
+
+    private static final double SAMPLING_RATE = 30.0;
+
+    private final SignalPipelines pipelines = new SignalPipelines(SignalKernels.select("auto"), null);
+    private final SignalEngine reference = new DoubleSignalEngine(
+        pipelines, new AdaptivePeakDetector(), new SpectralHeartRateEstimator());
+    private final SignalEngine float32 = new Float32SignalEngine(
+        pipelines, new AdaptivePeakDetector(), new SpectralHeartRateEstimator());
+
+    @Test
+    void float32EngineMatchesTheDoubleEngineOnEveryPipeline() {
+        double[] samples = syntheticPpg(75, 60, 5);
+
+        for (String pipeline : new String[] {SignalPipelines.FULL, SignalPipelines.LOW_RESOURCE}) {
+            SignalEngine.Result expected = reference.analyze(samples, samples.length, SAMPLING_RATE, pipeline, true);
+            SignalEngine.Result actual = float32.analyze(samples, samples.length, SAMPLING_RATE, pipeline, true);
+
+            RRSeries expectedRr = expected.rrSeries();
+            RRSeries actualRr = actual.rrSeries();
+            assertTrue(expectedRr.size() > 50, pipeline + ": " + expectedRr.size() + " intervals");
+            assertEquals(expectedRr.size(), actualRr.size(), pipeline + " peak count");
+            assertEquals(expectedRr.heartRate(), actualRr.heartRate(), 0.01, pipeline + " heart rate");
+            assertEquals(expectedRr.sdnn(), actualRr.sdnn(), 1e-4, pipeline + " SDNN");
+            assertEquals(expected.spectrum().heartRate(), actual.spectrum().heartRate(), 0.01, pipeline + " spectral rate");
+            assertEquals(expected.signalStats().mean(), actual.signalStats().mean(), 1e-5, pipeline + " mean");
+        }
+    }
+
+    @Test
+    void doublePrecisionStagesRunOnTheFloatPath() {
+        SignalStage square = new SignalStage() {
+            @Override
+            public String name() {
+                return "square";
+            }
+
+            @Override
+            public void process(double[] signal, int length, double samplingRate, double[] scratch) {
+                for (int i = 0; i < length; i++) {
+                    signal[i] *= signal[i];
+                }
+            }
+        };
+        float[] signal = {1.5f, -2.0f, 0.5f};
+
+        SignalPipeline.builder("squares", SignalKernels.select("scalar")).stage(square).build()
+            .run(signal, signal.length, SAMPLING_RATE);
+
+        assertArrayEquals(new float[] {2.25f, 4.0f, 0.25f}, signal);
+    }
+
+    @Test
+    void singlePrecisionFiltfiltMatchesTheDoubleFilterAcrossBlocks() {
+        BiquadCascade bandpass = ButterworthBandpass.design(SAMPLING_RATE, 0.5, 5.0, 2);
+        // Long enough to span several widening blocks, with a partial one at the end
+        double[] expected = syntheticPpg(80, 40, 9);
+        float[] actual = new float[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            actual[i] = (float) expected[i];
+        }
+
+        bandpass.filtfilt(expected, expected.length);
+        bandpass.filtfilt(actual, actual.length);
+
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual[i], 1e-4, "sample " + i);
+        }
+    }
+
+    @Test
+    void singlePrecisionSpectrumMatchesTheDoubleSpectrum() {
+        SpectralHeartRateEstimator estimator = new SpectralHeartRateEstimator();
+        double[] expected = syntheticPpg(68, 120, 4);
+        float[] actual = new float[expected.length];
+        for (int i = 0; i < expected.length; i++) {
+            actual[i] = (float) expected[i];
+        }
+
+        SpectralHeartRateEstimator.Estimate reference = estimator.estimate(expected, expected.length, SAMPLING_RATE);
+        SpectralHeartRateEstimator.Estimate single = estimator.estimate(actual, actual.length, SAMPLING_RATE);
+
+        assertEquals(68, reference.heartRate(), 1.0);
+        assertEquals(reference.heartRate(), single.heartRate(), 0.01);
+        assertEquals(reference.concentration(), single.concentration(), 1e-4);
+    }
+
+    /**
+     * Fingertip-style pulse train with slight beat-to-beat variability, baseline
+     * wander and sensor noise, around a camera-like DC level.
+     */
+    private static double[] syntheticPpg(double heartRate, int seconds, long seed) {
+        Random random = new Random(seed);
+        int length = (int) (seconds * SAMPLING_RATE);
+        double[] samples = new double[length];
+        double beat = 0.5;
+        while (beat < seconds) {
+            double centre = beat * SAMPLING_RATE;
+            for (int i = Math.max(0, (int) centre - 15); i < Math.min(length, (int) centre + 25); i++) {
+                double systolic = (i - centre) / 1.6;
+                double dicrotic = (i - centre - 9) / 2.2;
+                samples[i] += Math.exp(-0.5 * systolic * systolic) + 0.3 * Math.exp(-0.5 * dicrotic * dicrotic);
+            }
+            beat += 60.0 / heartRate + 0.02 * random.nextGaussian();
+        }
+        for (int i = 0; i < length; i++) {
+            samples[i] += 120 + 0.2 * Math.sin(2 * Math.PI * 0.2 * i / SAMPLING_RATE) + 0.02 * random.nextGaussian();
+        }
+        return samples;
+    }
+}
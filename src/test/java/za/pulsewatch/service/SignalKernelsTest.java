@@ -0,0 +1,94 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * The vector kernels agree with the scalar ones at every length around the lane
+ * count, so both the vector loops and the scalar remainder loops are exercised.
+ */
+class SignalKernelsTest {
+
+    private static final double TOLERANCE = 1e-12;
+
+    private final SignalKernels scalar = ScalarSignalKernels.INSTANCE;
+    private final SignalKernels vector = new VectorSignalKernels();
+
+    @Test
+    void reductionsMatchAtEveryLengthAroundTheLaneCount() {
+        for (int length : lengths()) {
+            double[] values = randomSignal(length, length);
+
+            assertEquals(scalar.sum(values, length), vector.sum(values, length), TOLERANCE * (length + 1), "sum " + length);
+            assertEquals(scalar.min(values, length), vector.min(values, length), "min " + length);
+            assertEquals(scalar.max(values, length), vector.max(values, length), "max " + length);
+        }
+    }
+
+    @Test
+    void elementWiseKernelsMatchAtEveryLengthAroundTheLaneCount() {
+        for (int length : lengths()) {
+            double[] values = randomSignal(length, length);
+
+            assertArrayEquals(apply(values, (in, out) -> scalar.subtract(in, length, 0.25, out)),
+                apply(values, (in, out) -> vector.subtract(in, length, 0.25, out)), TOLERANCE, "subtract " + length);
+            assertArrayEquals(apply(values, (in, out) -> scalar.affine(in, length, 1.5, -0.5, out)),
+                apply(values, (in, out) -> vector.affine(in, length, 1.5, -0.5, out)), TOLERANCE, "affine " + length);
+            assertArrayEquals(apply(values, (in, out) -> scalar.movingAverage3(in, length, out)),
+                apply(values, (in, out) -> vector.movingAverage3(in, length, out)), TOLERANCE, "movingAverage3 " + length);
+
+            double[] kernel = {0.1, 0.2, 0.4, 0.2, 0.1};
+            assertArrayEquals(apply(values, (in, out) -> scalar.convolve(in, length, kernel, out)),
+                apply(values, (in, out) -> vector.convolve(in, length, kernel, out)), TOLERANCE, "convolve " + length);
+
+            double[] scalarNormalised = values.clone();
+            double[] vectorNormalised = values.clone();
+            scalar.normalize(scalarNormalised, length, -1.0, 2.0);
+            vector.normalize(vectorNormalised, length, -1.0, 2.0);
+            assertArrayEquals(scalarNormalised, vectorNormalised, TOLERANCE, "normalize " + length);
+        }
+    }
+
+    @Test
+    void emptyInputHasZeroExtremes() {
+        double[] empty = new double[0];
+
+        assertEquals(0.0, scalar.min(empty, 0));
+        assertEquals(0.0, scalar.max(empty, 0));
+        assertEquals(0.0, vector.min(empty, 0));
+        assertEquals(0.0, vector.max(empty, 0));
+        assertEquals(0.0, vector.sum(empty, 0));
+    }
+
+    private static int[] lengths() {
+        int lanes = VectorSignalKernels.preferredLanes();
+        return IntStream.of(0, 1, 2, lanes - 1, lanes, lanes + 1, 2 * lanes + 3, 101)
+            .filter(length -> length >= 0)
+            .distinct()
+            .toArray();
+    }
+
+    private static double[] apply(double[] values, Kernel kernel) {
+        double[] output = new double[values.length];
+        kernel.run(values, output);
+        return output;
+    }
+
+    private static double[] randomSignal(int length, long seed) {
+        Random random = new Random(seed);
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = random.nextGaussian();
+        }
+        return values;
+    }
+
+    private interface Kernel {
+        void run(double[] input, double[] output);
+    }
+}
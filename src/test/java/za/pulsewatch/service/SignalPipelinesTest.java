@@ -0,0 +1,75 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SignalPipelinesTest {
+
+    private static final double SAMPLING_RATE = 30.0;
+
+    @Test
+    void buildsEveryConfiguredPipelineUpFront() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("ppg.pipeline.custom", "invert, normalize");
+
+        SignalPipelines pipelines = new SignalPipelines(ScalarSignalKernels.INSTANCE, environment);
+
+        assertEquals(List.of("invert", "normalize"),
+            pipelines.get("custom").getStages().stream().map(SignalStage::name).toList());
+        assertEquals(4, pipelines.get(SignalPipelines.FULL).getStages().size());
+        assertThrows(IllegalArgumentException.class, () -> pipelines.get("missing"));
+    }
+
+    @Test
+    void aMisspelledStageFailsConstruction() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("ppg.pipeline.custom", "remove-dc,bandpas");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> new SignalPipelines(ScalarSignalKernels.INSTANCE, environment));
+        assertEquals("Unknown signal stage: bandpas", error.getMessage());
+    }
+
+    @Test
+    void invalidFilterSettingsFailConstruction() {
+        assertThrows(IllegalArgumentException.class,
+            () -> new SignalPipelines(ScalarSignalKernels.INSTANCE, null, 5, 2, 0, true));
+        assertThrows(IllegalArgumentException.class,
+            () -> new SignalPipelines(ScalarSignalKernels.INSTANCE, null, 4, 2, 2, true));
+    }
+
+    @Test
+    void fusedElementWiseStagesMatchRunningEachStageInTurn() {
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("ppg.pipeline.fused", "remove-dc,invert,normalize,bandpass,remove-dc,normalize");
+        SignalPipeline pipeline = new SignalPipelines(SignalKernels.select("auto"), environment).get("fused");
+        double[] samples = noisyPulse(600);
+
+        double[] fused = pipeline.run(samples, SAMPLING_RATE);
+
+        double[] unfused = samples.clone();
+        double[] scratch = new double[samples.length];
+        for (SignalStage stage : pipeline.getStages()) {
+            stage.process(unfused, unfused.length, SAMPLING_RATE, scratch);
+        }
+        // Two fused groups around the bandpass
+        assertEquals(3, pipeline.getStepCount());
+        assertArrayEquals(unfused, fused, 1e-12);
+    }
+
+    private static double[] noisyPulse(int length) {
+        Random random = new Random(3);
+        double[] signal = new double[length];
+        for (int i = 0; i < length; i++) {
+            signal[i] = 500 + 4 * Math.sin(2 * Math.PI * 1.1 * i / SAMPLING_RATE) + random.nextGaussian();
+        }
+        return signal;
+    }
+}
@@ -0,0 +1,105 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import za.pulsewatch.model.QualityGateResult;
+import za.pulsewatch.model.QualityGateResult.Verdict;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SignalQualityGateTest {
+
+    private static final double SAMPLING_RATE = 30.0;
+    private static final int LENGTH = 30 * (int) SAMPLING_RATE;
+    private static final double DC = 1000.0;
+    private static final double PULSE_AMPLITUDE = 5.0;
+
+    private final SignalQualityGate gate = new SignalQualityGate(new SpectralHeartRateEstimator());
+
+    @Test
+    void passesACleanPulse() {
+        QualityGateResult result = gate.evaluate(pulse(0.5, 1), LENGTH, SAMPLING_RATE);
+
+        assertEquals(Verdict.PASS, result.verdict());
+        assertEquals(QualityGateResult.NONE, result.gate());
+        assertTrue(result.spectralConcentration() > 0.9);
+    }
+
+    @Test
+    void rejectsAFlatLine() {
+        double[] flat = new double[LENGTH];
+        Arrays.fill(flat, DC);
+
+        QualityGateResult result = gate.evaluate(flat, LENGTH, SAMPLING_RATE);
+
+        assertEquals(Verdict.REJECT, result.verdict());
+        assertEquals(SignalQualityGate.PERFUSION_INDEX, result.gate());
+    }
+
+    @Test
+    void rejectsATraceWithNegligiblePerfusion() {
+        // 0.2 units of pulse on a DC of 1000 is a perfusion index of 0.02%
+        double[] faint = pulse(0.0, 1);
+        for (int i = 0; i < LENGTH; i++) {
+            faint[i] = DC + (faint[i] - DC) * 0.02;
+        }
+
+        QualityGateResult result = gate.evaluate(faint, LENGTH, SAMPLING_RATE);
+
+        assertEquals(Verdict.REJECT, result.verdict());
+        assertEquals(SignalQualityGate.PERFUSION_INDEX, result.gate());
+    }
+
+    @Test
+    void rejectsASaturatedSensor() {
+        // Half the pulse amplitude is cut off, so two thirds of the samples sit on a rail
+        double[] clipped = pulse(0.5, 1);
+        double ceiling = DC + PULSE_AMPLITUDE / 2;
+        double floor = DC - PULSE_AMPLITUDE / 2;
+        for (int i = 0; i < LENGTH; i++) {
+            clipped[i] = Math.max(floor, Math.min(ceiling, clipped[i]));
+        }
+
+        QualityGateResult result = gate.evaluate(clipped, LENGTH, SAMPLING_RATE);
+
+        assertEquals(Verdict.REJECT, result.verdict());
+        assertEquals(SignalQualityGate.CLIPPING, result.gate());
+        assertTrue(result.clippingRatio() > 0.1);
+    }
+
+    @Test
+    void downgradesAPulseBuriedInNoise() {
+        QualityGateResult result = gate.evaluate(pulse(9.0, 42), LENGTH, SAMPLING_RATE);
+
+        assertEquals(Verdict.DOWNGRADE, result.verdict());
+        assertEquals(SignalQualityGate.SPECTRAL_CONCENTRATION, result.gate());
+    }
+
+    @Test
+    void rejectsNoiseWithoutACardiacRhythm() {
+        Random random = new Random(7);
+        double[] noise = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            noise[i] = DC + 10 * random.nextGaussian();
+        }
+
+        QualityGateResult result = gate.evaluate(noise, LENGTH, SAMPLING_RATE);
+
+        assertEquals(Verdict.REJECT, result.verdict());
+        assertEquals(SignalQualityGate.SPECTRAL_CONCENTRATION, result.gate());
+    }
+
+    /** 72 BPM pulse on a DC level, plus white noise of the given standard deviation. */
+    private static double[] pulse(double noise, long seed) {
+        Random random = new Random(seed);
+        double[] signal = new double[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            double t = i / SAMPLING_RATE;
+            signal[i] = DC + PULSE_AMPLITUDE * Math.sin(2 * Math.PI * 1.2 * t) + noise * random.nextGaussian();
+        }
+        return signal;
+    }
+}
@@ -0,0 +1,120 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class StreamingSignalProcessorTest {
+
+    private static final double SAMPLING_RATE = 30.0;
+    private static final double HEART_RATE = 72.0;
+
+    private final StreamingSignalProcessor processor = new StreamingSignalProcessor();
+
+    @Test
+    void beatsAcrossChunkBoundariesMatchTheWholeRecording() {
+        double[] signal = pulse(20 * (int) SAMPLING_RATE);
+
+        StreamingSignalProcessor.ChunkResult whole = processor.processChunk(
+            "7", "whole", signal, signal.length, SAMPLING_RATE, new double[signal.length]);
+
+        // 7-sample chunks put peaks on the last sample of a chunk, which only the next chunk can confirm
+        StreamingSignalProcessor.ChunkResult chunked = null;
+        double[] chunk = new double[7];
+        double[] output = new double[7];
+        for (int start = 0; start < signal.length; start += chunk.length) {
+            int length = Math.min(chunk.length, signal.length - start);
+            System.arraycopy(signal, start, chunk, 0, length);
+            chunked = processor.processChunk("7", "chunked", chunk, length, SAMPLING_RATE, output);
+        }
+
+        assertEquals(whole.intervalCount(), chunked.intervalCount());
+        assertEquals(whole.heartRate(), chunked.heartRate(), 1e-9);
+        assertEquals(whole.hrv(), chunked.hrv(), 1e-9);
+        assertEquals(HEART_RATE, chunked.heartRate(), 3.0);
+        assertFalse(chunked.irregular());
+    }
+
+    @Test
+    void sessionsAreScopedToTheirOwner() {
+        double[] signal = pulse(10 * (int) SAMPLING_RATE);
+        processor.processChunk("7", "shared-id", signal, signal.length, SAMPLING_RATE, new double[signal.length]);
+
+        // Another user naming the same session starts their own, and cannot end the first
+        StreamingSignalProcessor.ChunkResult other = processor.processChunk(
+            "8", "shared-id", signal, 3, SAMPLING_RATE, new double[3]);
+        processor.endSession("8", "shared-id");
+
+        assertEquals(0, other.intervalCount());
+        assertEquals(1, processor.getActiveSessionCount());
+        processor.endSession("7", "shared-id");
+        assertEquals(0, processor.getActiveSessionCount());
+    }
+
+    @Test
+    void chunksWithoutASessionIdOrOwnerKeepNoState() {
+        double[] signal = pulse(90);
+
+        processor.processChunk("7", null, signal, signal.length, SAMPLING_RATE, new double[signal.length]);
+        processor.processChunk(null, "s", signal, signal.length, SAMPLING_RATE, new double[signal.length]);
+
+        assertEquals(0, processor.getActiveSessionCount());
+    }
+
+    @Test
+    void idleSessionsAreEvicted() throws InterruptedException {
+        double[] signal = pulse(30);
+        processor.processChunk("7", "idle", signal, signal.length, SAMPLING_RATE, new double[signal.length]);
+        processor.evictIdleSessions();
+        assertEquals(1, processor.getActiveSessionCount());
+
+        ReflectionTestUtils.setField(processor, "sessionTimeoutMs", 1L);
+        Thread.sleep(5);
+        processor.evictIdleSessions();
+
+        assertEquals(0, processor.getActiveSessionCount());
+    }
+
+    @Test
+    void atCapacityNewSessionsAreAnalysedWithoutBeingKept() {
+        ReflectionTestUtils.setField(processor, "maxSessions", 1);
+        double[] signal = pulse(30);
+
+        processor.processChunk("7", "first", signal, signal.length, SAMPLING_RATE, new double[signal.length]);
+        processor.processChunk("7", "second", signal, signal.length, SAMPLING_RATE, new double[signal.length]);
+
+        assertEquals(1, processor.getActiveSessionCount());
+    }
+
+    @Test
+    void usesTheConfiguredFilterOrder() {
+        double[] signal = pulse(90);
+        double[] secondOrder = new double[signal.length];
+        double[] fourthOrder = new double[signal.length];
+
+        processor.processChunk("7", "a", signal, signal.length, SAMPLING_RATE, secondOrder);
+        StreamingSignalProcessor reconfigured = new StreamingSignalProcessor();
+        ReflectionTestUtils.setField(reconfigured, "filterOrder", 4);
+        reconfigured.processChunk("7", "a", signal, signal.length, SAMPLING_RATE, fourthOrder);
+
+        double[] again = new double[signal.length];
+        new StreamingSignalProcessor().processChunk("7", "a", signal, signal.length, SAMPLING_RATE, again);
+        assertArrayEquals(secondOrder, again);
+        assertFalse(Arrays.equals(secondOrder, fourthOrder));
+    }
+
+    private static double[] pulse(int samples) {
+        double beatHz = HEART_RATE / 60.0;
+        double[] signal = new double[samples];
+        for (int i = 0; i < samples; i++) {
+            double t = i / SAMPLING_RATE;
+            signal[i] = 1.0 + 0.3 * Math.sin(2 * Math.PI * beatHz * t) + 0.05 * Math.sin(4 * Math.PI * beatHz * t);
+        }
+        return signal;
+    }
+}
@@ -0,0 +1,111 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import za.pulsewatch.model.SampleBuffer;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UniformResamplerTest {
+
+    private static final double FREQUENCY = 1.2;
+
+    @Test
+    void cubicResamplingOfJitteryFramesPreservesASinusoid() {
+        assertTrue(maxError("cubic") < 0.005, "cubic max error " + maxError("cubic"));
+    }
+
+    @Test
+    void linearResamplingStaysWithinItsInterpolationError() {
+        // Chord error of a unit sine over a jittered ~45 ms frame gap at 1.2 Hz is about 0.014
+        assertTrue(maxError("linear") < 0.015, "linear max error " + maxError("linear"));
+    }
+
+    @Test
+    void resamplesOntoTheCanonicalRateOrAMultipleOfIt() {
+        UniformResampler resampler = new UniformResampler();
+
+        assertEquals(25.0, resampler.gridRate(30));
+        assertEquals(25.0, resampler.gridRate(24));
+        assertEquals(100.0, resampler.gridRate(120));
+    }
+
+    @Test
+    void interpolatesAcrossFramesThatDoNotAdvanceInTime() {
+        double[] times = {0.0, 0.04, 0.04, 0.08, 0.12};
+        double[] values = {0.0, 1.0, 1.0, 2.0, 3.0};
+
+        UniformResampler.Resampled resampled = resampler("linear").resample(values, times, values.length);
+
+        // The 25 Hz grid lands on the frames; a repeated timestamp must not divide by zero
+        assertEquals(4, resampled.length());
+        assertArrayEquals(new double[] {0.0, 1.0, 2.0, 3.0},
+            Arrays.copyOf(resampled.samples(), resampled.length()), 1e-9);
+    }
+
+    @Test
+    void rejectsTimestampsWithoutSpan() {
+        UniformResampler resampler = new UniformResampler();
+
+        assertThrows(IllegalArgumentException.class,
+            () -> resampler.resample(new double[] {1, 2}, new double[] {0.5, 0.5}, 2));
+    }
+
+    @Test
+    void rejectsTimestampsImplyingAnImplausibleFrameRate() {
+        UniformResampler resampler = new UniformResampler();
+
+        // Four frames a microsecond apart would otherwise ask for a 1 MHz grid
+        assertThrows(IllegalArgumentException.class,
+            () -> resampler.resample(new double[] {1, 2, 3, 4}, new double[] {0, 1e-6, 2e-6, 3e-6}, 4));
+    }
+
+    @Test
+    void derivesSampleTimesFromTimestampsOrFrameDeltas() {
+        SampleBuffer timestamps = SampleBuffer.wrap(new double[] {1000, 1033, 1067, 1100});
+        SampleBuffer deltas = SampleBuffer.wrap(new double[] {33, 34, 33});
+
+        double[] expected = {0.0, 0.033, 0.067, 0.1};
+        assertArrayEquals(expected, UniformResampler.sampleTimes(timestamps, null, 4), 1e-12);
+        assertArrayEquals(expected, UniformResampler.sampleTimes(null, deltas, 4), 1e-12);
+        assertNull(UniformResampler.sampleTimes(null, null, 4));
+        assertThrows(IllegalArgumentException.class, () -> UniformResampler.sampleTimes(null, deltas, 5));
+    }
+
+    /**
+     * Resamples 20 s of a unit sine captured at a nominal 30 fps with ±6 ms of
+     * frame jitter, and returns the worst deviation from the true sine on the grid.
+     */
+    private static double maxError(String method) {
+        Random random = new Random(42);
+        int length = 600;
+        double[] times = new double[length];
+        double[] values = new double[length];
+        for (int i = 0; i < length; i++) {
+            times[i] = i / 30.0 + (i == 0 ? 0.0 : 0.006 * (2 * random.nextDouble() - 1));
+            values[i] = Math.sin(2 * Math.PI * FREQUENCY * times[i]);
+        }
+
+        UniformResampler.Resampled resampled = resampler(method).resample(values, times, length);
+
+        double maxError = 0.0;
+        for (int k = 0; k < resampled.length(); k++) {
+            double t = times[0] + k / resampled.samplingRate();
+            maxError = Math.max(maxError, Math.abs(resampled.samples()[k] - Math.sin(2 * Math.PI * FREQUENCY * t)));
+        }
+        return maxError;
+    }
+
+    private static UniformResampler resampler(String method) {
+        UniformResampler resampler = new UniformResampler();
+        ReflectionTestUtils.setField(resampler, "method", method);
+        return resampler;
+    }
+}
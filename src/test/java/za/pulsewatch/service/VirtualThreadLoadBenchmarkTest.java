@@ -0,0 +1,142 @@
+package za.pulsewatch.service;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import za.pulsewatch.config.AnalysisExecutorConfig;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Throughput of platform versus virtual threads for a request that analyzes a
+ * recording and then blocks, standing in for the broker publish and the JWT
+ * user lookup. Reports requests per second for each mode, and the heap
+ * allocated per request: on virtual threads the signal path's thread-local
+ * scratch arrays are allocated afresh for every request.
+ *
+ * Wall-clock timing, so it runs only in the benchmark profile:
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class VirtualThreadLoadBenchmarkTest {
+
+    private static final int WEB_REQUESTS = 4000;
+    // Fewer for the executor: at the lower concurrency it runs one item per core
+    private static final int EXECUTOR_REQUESTS = 200;
+    // The executors' default concurrency on virtual threads, per core
+    private static final int VIRTUAL_THREADS_PER_CORE = 16;
+    private static final long BLOCKING_MS = 100;
+    private static final double SAMPLING_RATE = 30.0;
+
+    // Default Tomcat worker pool
+    private static final int TOMCAT_MAX_THREADS = 200;
+
+    private final SignalEngine engine = new DoubleSignalEngine(
+        new SignalPipelines(ScalarSignalKernels.INSTANCE, null),
+        new AdaptivePeakDetector(),
+        new SpectralHeartRateEstimator());
+
+    private final double[] recording = recording(10);
+
+    @Test
+    void webContainerThroughput(TestReporter reporter) throws Exception {
+        ExecutorService platform = Executors.newFixedThreadPool(TOMCAT_MAX_THREADS);
+        ExecutorService virtual = Executors.newVirtualThreadPerTaskExecutor();
+
+        Measurement platformRun = measure(platform, WEB_REQUESTS);
+        Measurement virtualRun = measure(virtual, WEB_REQUESTS);
+
+        reporter.publishEntry("web container", String.format("platform(%d) %s, virtual %s (%.1fx)",
+            TOMCAT_MAX_THREADS, platformRun, virtualRun, virtualRun.rate() / platformRun.rate()));
+        assertTrue(platformRun.rate() > 0 && virtualRun.rate() > 0);
+    }
+
+    /**
+     * Platform and virtual executors at the same concurrency, first at the
+     * platform default of one per core, then at the virtual default. Equal
+     * concurrency gives equal throughput; what virtual threads change is the
+     * cost of running many at once.
+     */
+    @Test
+    void analysisExecutorThroughput(TestReporter reporter) throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int concurrency : new int[] {cores, cores * VIRTUAL_THREADS_PER_CORE}) {
+            Measurement platformRun = measure(AnalysisExecutorConfig.boundedExecutor(
+                "bench-platform-", concurrency, EXECUTOR_REQUESTS, false), EXECUTOR_REQUESTS);
+            Measurement virtualRun = measure(AnalysisExecutorConfig.boundedExecutor(
+                "bench-virtual-", concurrency, EXECUTOR_REQUESTS, true), EXECUTOR_REQUESTS);
+
+            reporter.publishEntry("analysis executor x" + concurrency, String.format("platform %s, virtual %s (%.1fx)",
+                platformRun, virtualRun, virtualRun.rate() / platformRun.rate()));
+            assertTrue(platformRun.rate() > 0 && virtualRun.rate() > 0);
+        }
+    }
+
+    private Measurement measure(ExecutorService executor, int requests) throws Exception {
+        try {
+            // Warm up the filter caches and the JIT outside the timed run
+            for (int i = 0; i < 200; i++) {
+                engine.analyze(recording, recording.length, SAMPLING_RATE, SignalPipelines.FULL, true);
+            }
+
+            long allocatedBefore = totalAllocatedBytes();
+            long start = System.nanoTime();
+            List<Future<Integer>> results = new ArrayList<>(requests);
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(this::handleRequest));
+            }
+            for (Future<Integer> result : results) {
+                assertTrue(result.get(60, TimeUnit.SECONDS) > 0);
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            long allocated = totalAllocatedBytes() - allocatedBefore;
+            return new Measurement(requests / seconds, allocatedBefore < 0 ? -1 : allocated / requests);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Virtual threads allocate on their carriers, so the platform total covers both modes
+    private static long totalAllocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getTotalThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    private record Measurement(double rate, long bytesPerRequest) {
+
+        @Override
+        public String toString() {
+            return bytesPerRequest < 0
+                ? String.format("%.0f req/s", rate)
+                : String.format("%.0f req/s, %d KB/req", rate, bytesPerRequest / 1024);
+        }
+    }
+
+    private int handleRequest() throws InterruptedException {
+        SignalEngine.Result result = engine.analyze(
+            recording, recording.length, SAMPLING_RATE, SignalPipelines.FULL, true);
+        Thread.sleep(BLOCKING_MS);
+        return result.rrSeries().size();
+    }
+
+    private static double[] recording(int seconds) {
+        int length = (int) (seconds * SAMPLING_RATE);
+        double[] samples = new double[length];
+        for (int i = 0; i < length; i++) {
+            double t = i / SAMPLING_RATE;
+            samples[i] = 100 + Math.sin(2 * Math.PI * 1.2 * t) + 0.05 * Math.sin(2 * Math.PI * 0.25 * t);
+        }
+        return samples;
+    }
+}